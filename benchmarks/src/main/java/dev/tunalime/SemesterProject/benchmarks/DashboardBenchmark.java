@@ -0,0 +1,43 @@
+package dev.tunalime.SemesterProject.benchmarks;
+
+import dev.tunalime.SemesterProject.controller.HomeController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ui.ExtendedModelMap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model assembly of the home page dashboard, without template rendering
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DashboardBenchmark {
+
+    private HomeController homeController;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState application) {
+        homeController = application.getBean(HomeController.class);
+    }
+
+    @Benchmark
+    public ExtendedModelMap home() {
+        ExtendedModelMap model = new ExtendedModelMap();
+        homeController.home(model);
+        return model;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.tunalime.SemesterProject.benchmarks;
+
+import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.VehicleDTO;
+import dev.tunalime.SemesterProject.service.CustomerService;
+import dev.tunalime.SemesterProject.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of the vehicle and customer lists, including the queries that load the entities
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DtoMappingBenchmark {
+
+    private VehicleService vehicleService;
+    private CustomerService customerService;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState application) {
+        vehicleService = application.getBean(VehicleService.class);
+        customerService = application.getBean(CustomerService.class);
+        today = LocalDate.now();
+    }
+
+    @Benchmark
+    public List<VehicleDTO> vehiclesAvailableForTestDrive() {
+        return vehicleService.getVehiclesAvailableForTestDrive();
+    }
+
+    @Benchmark
+    public List<CustomerDTO> customersRegisteredLastQuarter() {
+        return customerService.getCustomersRegisteredBetween(today.minusMonths(3), today);
+    }
+}
@@ -0,0 +1,48 @@
+package dev.tunalime.SemesterProject.benchmarks;
+
+import dev.tunalime.SemesterProject.entity.SalesForecast;
+import dev.tunalime.SemesterProject.service.ForecastService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moving average sales forecast over the last twelve months of one vehicle type
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ForecastServiceBenchmark {
+
+    private ForecastService forecastService;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState application) {
+        forecastService = application.getBean(ForecastService.class);
+        transactionTemplate = application.getBean(TransactionTemplate.class);
+    }
+
+    @Benchmark
+    public SalesForecast forecastNextMonthSales() {
+        // Roll back the saved forecast so the table does not grow with every invocation
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return forecastService.forecastNextMonthSales("Toyota", "Corolla", "Premium", 2022, 12);
+        });
+    }
+}
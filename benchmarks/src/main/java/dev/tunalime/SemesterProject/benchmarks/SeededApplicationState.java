@@ -0,0 +1,65 @@
+package dev.tunalime.SemesterProject.benchmarks;
+
+import dev.tunalime.SemesterProject.BirinciElAracSatisBilgiSistemiProjectApplication;
+import dev.tunalime.SemesterProject.config.SyntheticDataGenerator;
+import dev.tunalime.SemesterProject.dto.SyntheticDataFormat;
+import dev.tunalime.SemesterProject.dto.SyntheticDataSpecDTO;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application context on an H2 file database seeded by the synthetic data generator, one per data size
+ */
+@State(Scope.Benchmark)
+public class SeededApplicationState {
+
+    // Same seed as app.synthetic-data.seed, so results are comparable between runs and releases
+    private static final long SEED = 42;
+
+    // Customers in the database; vehicles, sales and interactions scale with it like 1M / 200k / 2M / 10M
+    @Param({"1000", "10000", "100000"})
+    public int customers;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        // Command line arguments override application.properties from the application jar
+        context = new SpringApplicationBuilder(BirinciElAracSatisBilgiSistemiProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:file:./target/benchmark-db/vehicle_sales_" + customers,
+                        "--spring.flyway.clean-disabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.org.springframework=WARN",
+                        "--logging.level.org.hibernate=WARN",
+                        "--logging.level.dev.tunalime=WARN",
+                        "--app.synthetic-data.enabled=false");
+
+        // Start every trial from an empty schema, whatever an earlier run left in the file
+        Flyway flyway = context.getBean(Flyway.class);
+        flyway.clean();
+        flyway.migrate();
+
+        SyntheticDataSpecDTO spec = new SyntheticDataSpecDTO((long) customers, customers / 5L, customers * 2L,
+                customers * 10L, SEED, null, Runtime.getRuntime().availableProcessors(), SyntheticDataFormat.DATABASE, null);
+        context.getBean(SyntheticDataGenerator.class).generate(spec);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
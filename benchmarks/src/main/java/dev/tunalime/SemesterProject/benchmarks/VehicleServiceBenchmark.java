@@ -0,0 +1,48 @@
+package dev.tunalime.SemesterProject.benchmarks;
+
+import dev.tunalime.SemesterProject.dto.VehicleDTO;
+import dev.tunalime.SemesterProject.entity.VehicleStatus;
+import dev.tunalime.SemesterProject.service.VehicleService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vehicle search through the specification query and through the derived query with every criterion set
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VehicleServiceBenchmark {
+
+    private VehicleService vehicleService;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededApplicationState application) {
+        vehicleService = application.getBean(VehicleService.class);
+    }
+
+    @Benchmark
+    public List<VehicleDTO> searchByBrandAndStatus() {
+        return vehicleService.searchVehicles("Toyota", null, null, null, VehicleStatus.IN_SHOWROOM);
+    }
+
+    @Benchmark
+    public List<VehicleDTO> searchByAllCriteria() {
+        return vehicleService.searchVehicles("Toyota", "Corolla", 2022, "Premium", VehicleStatus.IN_SHOWROOM);
+    }
+}
@@ -0,0 +1,217 @@
+package dev.tunalime.SemesterProject.loadtests;
+
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.PopulationBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static io.gatling.javaapi.core.CoreDsl.*;
+import static io.gatling.javaapi.http.HttpDsl.*;
+
+/**
+ * Open-model load test of the main web flows against an instance seeded with the loadtest profile.
+ * New users arrive at a fixed rate no matter how fast the server answers, split over the flows by their share;
+ * the report (target/gatling, machine-readable in js/stats.json) lists p50/p95/p99 latency and errors per request.
+ */
+public class MainFlowsSimulation extends Simulation {
+
+    // Target instance and load shape, e.g. mvn gatling:test -Drate=20 -DdurationSeconds=600
+    private static final String BASE_URL = System.getProperty("baseUrl", "http://localhost:8080");
+    private static final double RATE = Double.parseDouble(System.getProperty("rate", "10")); // Arrivals per second over all flows
+    private static final int RAMP_SECONDS = Integer.getInteger("rampSeconds", 60);
+    private static final int DURATION_SECONDS = Integer.getInteger("durationSeconds", 300);
+    private static final long SEED = Long.getLong("seed", 42L);
+    // Must match app.synthetic-data.customers of the seeded instance
+    private static final int CUSTOMERS = Integer.getInteger("customers", 10000);
+
+    // The run fails when a request type breaks these limits
+    private static final int MAX_P99_MILLIS = Integer.getInteger("maxP99Millis", 2000);
+    private static final double MAX_ERROR_PERCENT = Double.parseDouble(System.getProperty("maxErrorPercent", "1"));
+
+    // Catalog of the synthetic data generator: every brand, model, year and package combination has a stock item
+    private static final Map<String, List<String>> BRAND_MODELS = new LinkedHashMap<>();
+    static {
+        BRAND_MODELS.put("Renault", List.of("Clio", "Megane", "Symbol", "Captur", "Kadjar"));
+        BRAND_MODELS.put("Fiat", List.of("Egea", "Doblo", "Fiorino", "500", "Tipo"));
+        BRAND_MODELS.put("Ford", List.of("Focus", "Fiesta", "Kuga", "Mondeo", "Puma"));
+        BRAND_MODELS.put("Volkswagen", List.of("Polo", "Golf", "Passat", "Tiguan", "T-Roc"));
+        BRAND_MODELS.put("Toyota", List.of("Corolla", "Yaris", "C-HR", "RAV4", "Auris"));
+        BRAND_MODELS.put("Hyundai", List.of("i20", "i10", "Tucson", "Accent", "Elantra"));
+        BRAND_MODELS.put("Honda", List.of("Civic", "CR-V", "Jazz", "HR-V", "Accord"));
+        BRAND_MODELS.put("Peugeot", List.of("208", "308", "2008", "3008", "508"));
+    }
+    private static final List<String> BRANDS = List.copyOf(BRAND_MODELS.keySet());
+    private static final String[] PACKAGE_TYPES = {"Basic", "Comfort", "Premium", "Sport", "Luxury", "Urban", "Adventure"};
+    private static final int[] YEARS = {2018, 2019, 2020, 2021, 2022, 2023};
+    private static final String[] PAYMENT_METHODS = {"CASH", "CREDIT_CARD", "BANK_TRANSFER", "FINANCING", "LEASING"};
+
+    // Showroom opening hours (app.test-drive.opening-hour / closing-hour) and how far ahead test drives are booked
+    private static final int OPENING_HOUR = 9;
+    private static final int CLOSING_HOUR = 19;
+    private static final int BOOKING_DAYS_AHEAD = 90;
+
+    private static final DateTimeFormatter DATE_TIME_LOCAL = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm");
+
+    // VehicleDTO objects are flat, so each one is a brace pair without nested braces
+    private static final Pattern VEHICLE_JSON = Pattern.compile("\\{[^{}]*}");
+    private static final Pattern VEHICLE_ID = Pattern.compile("\"id\":(\\d+)");
+    private static final Pattern VEHICLE_PRICE = Pattern.compile("\"price\":([0-9.]+)");
+
+    private final Random random = new Random(SEED);
+
+    private final Iterator<Map<String, Object>> vehicleTypes = Stream.generate(() -> {
+        String brand = BRANDS.get(random.nextInt(BRANDS.size()));
+        List<String> models = BRAND_MODELS.get(brand);
+        return Map.<String, Object>of(
+                "brand", brand,
+                "model", models.get(random.nextInt(models.size())),
+                "year", YEARS[random.nextInt(YEARS.length)],
+                "packageType", PACKAGE_TYPES[random.nextInt(PACKAGE_TYPES.length)]);
+    }).iterator();
+
+    private final Iterator<Map<String, Object>> customers = Stream.generate(() ->
+            Map.<String, Object>of("customerId", 1 + random.nextInt(CUSTOMERS))).iterator();
+
+    // Half-hour slots during opening hours, from tomorrow on
+    private final Iterator<Map<String, Object>> testDriveSlots = Stream.generate(() ->
+            Map.<String, Object>of("scheduledDateTime", LocalDate.now()
+                    .plusDays(1 + random.nextInt(BOOKING_DAYS_AHEAD))
+                    .atTime(OPENING_HOUR + random.nextInt(CLOSING_HOUR - OPENING_HOUR), random.nextBoolean() ? 30 : 0)
+                    .format(DATE_TIME_LOCAL))).iterator();
+
+    private final HttpProtocolBuilder httpProtocol = http
+            .baseUrl(BASE_URL)
+            .acceptHeader("text/html,application/json")
+            .userAgentHeader("SemesterProject load test");
+
+    private final ChainBuilder browseVehicles = exec(
+            http("GET /vehicles").get("/vehicles").check(status().is(200)));
+
+    private final ChainBuilder searchVehicles = feed(vehicleTypes).exec(
+            http("GET /vehicles/search").get("/vehicles/search")
+                    .queryParam("brand", "#{brand}")
+                    .queryParam("model", "#{model}")
+                    .queryParam("status", "IN_SHOWROOM")
+                    .check(status().is(200)));
+
+    private final ChainBuilder dashboard = exec(
+            http("GET /").get("/").check(status().is(200)));
+
+    // Form posts redirect on success and on error alike; the redirect target tells them apart
+    private final ChainBuilder initiateAndCompleteSale = feed(customers)
+            .feed(listFeeder(fetchVehicles("IN_STOCK", false)).queue())
+            .exec(session -> session.set("paymentMethod", PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)]))
+            .exec(http("POST /sales/initiate").post("/sales/initiate")
+                    .formParam("customerId", "#{customerId}")
+                    .formParam("vehicleId", "#{vehicleId}")
+                    .formParam("salePrice", "#{price}")
+                    .formParam("paymentMethod", "#{paymentMethod}")
+                    .disableFollowRedirect()
+                    .check(status().is(302), headerRegex("Location", "/sales/(\\d+)/details").saveAs("saleId")))
+            .exec(http("POST /sales/{id}/complete").post("/sales/#{saleId}/complete")
+                    .formParam("salesEmployeeName", "Load Test")
+                    .disableFollowRedirect()
+                    .check(status().is(302)))
+            // The details page shows the flash error of a failed completion
+            .exec(http("GET /sales/{id}/details").get("/sales/#{saleId}/details")
+                    .check(status().is(200), css(".alert-danger").notExists()));
+
+    private final ChainBuilder scheduleTestDrive = feed(customers)
+            .feed(listFeeder(fetchVehicles("IN_SHOWROOM", true)).random())
+            .feed(testDriveSlots)
+            .exec(http("POST /test-drives/add").post("/test-drives/add")
+                    .formParam("customerId", "#{customerId}")
+                    .formParam("vehicleId", "#{vehicleId}")
+                    .formParam("scheduledDateTime", "#{scheduledDateTime}")
+                    .disableFollowRedirect()
+                    .check(status().is(302), headerRegex("Location", "/test-drives/\\d+$").exists()));
+
+    private final ChainBuilder generateForecast = feed(vehicleTypes).exec(
+            http("POST /forecasts/generate").post("/forecasts/generate")
+                    .formParam("brand", "#{brand}")
+                    .formParam("model", "#{model}")
+                    .formParam("packageType", "#{packageType}")
+                    .formParam("year", "#{year}")
+                    .formParam("numberOfPeriods", "6")
+                    .disableFollowRedirect()
+                    .check(status().is(302), headerRegex("Location", "/forecasts/\\d+$").exists()));
+
+    {
+        setUp(
+                openModel(scenario("Browse vehicles").exec(browseVehicles), 0.20),
+                openModel(scenario("Search vehicles").exec(searchVehicles), 0.30),
+                openModel(scenario("Dashboard").exec(dashboard), 0.20),
+                openModel(scenario("Sale").exec(initiateAndCompleteSale), 0.10),
+                openModel(scenario("Test drive").exec(scheduleTestDrive), 0.15),
+                openModel(scenario("Forecast").exec(generateForecast), 0.05))
+                .protocols(httpProtocol)
+                .assertions(
+                        forAll().responseTime().percentile(99.0).lt(MAX_P99_MILLIS),
+                        forAll().failedRequests().percent().lte(MAX_ERROR_PERCENT));
+    }
+
+    /**
+     * Poisson arrivals at the flow's share of the total rate, after a linear ramp-up
+     */
+    private static PopulationBuilder openModel(ScenarioBuilder scenario, double share) {
+        double rate = RATE * share;
+        return scenario.injectOpen(
+                rampUsersPerSec(0).to(rate).during(RAMP_SECONDS),
+                constantUsersPerSec(rate).during(DURATION_SECONDS).randomized());
+    }
+
+    /**
+     * Load the IDs and prices of vehicles with a status from the instance, shuffled with the seed
+     */
+    private static List<Map<String, Object>> fetchVehicles(String status, boolean availableForTestDrive) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(BASE_URL + "/vehicles/api/search?status=" + status)).build();
+        String body;
+        try {
+            body = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load vehicles from " + BASE_URL, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading vehicles", e);
+        }
+
+        List<Map<String, Object>> vehicles = new ArrayList<>();
+        Matcher vehicle = VEHICLE_JSON.matcher(body);
+        while (vehicle.find()) {
+            String json = vehicle.group();
+            if (availableForTestDrive && !json.contains("\"availableForTestDrive\":true")) {
+                continue;
+            }
+            Matcher id = VEHICLE_ID.matcher(json);
+            Matcher price = VEHICLE_PRICE.matcher(json);
+            if (id.find() && price.find()) {
+                vehicles.add(Map.of("vehicleId", Long.parseLong(id.group(1)), "price", price.group(1)));
+            }
+        }
+        if (vehicles.isEmpty()) {
+            throw new IllegalStateException("No " + status + " vehicles at " + BASE_URL + ", start it with the loadtest profile");
+        }
+        Collections.shuffle(vehicles, new Random(SEED));
+        return vehicles;
+    }
+}
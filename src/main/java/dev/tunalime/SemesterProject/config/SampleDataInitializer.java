@@ -10,7 +10,6 @@ import org.springframework.core.env.Environment;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.time.Month;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
 
@@ -98,48 +97,19 @@ public class SampleDataInitializer {
     private List<Customer> createCustomers() {
         List<Customer> customers = new ArrayList<>();
         
-        // Turkish first names and last names for sample data
-        String[] firstNames = {
-            "Ahmet", "Mehmet", "Ali", "Mustafa", "Hüseyin", "Hasan", "İbrahim", "Murat", "Ömer", "Yusuf",
-            "Ayşe", "Fatma", "Emine", "Hatice", "Zeynep", "Elif", "Meryem", "Özlem", "Zehra", "Esra"
-        };
-        
-        String[] lastNames = {
-            "Yılmaz", "Kaya", "Demir", "Çelik", "Şahin", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
-            "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Koç", "Kurt", "Özkan", "Şimşek", "Tekin"
-        };
-        
-        String[] cities = {
-            "İstanbul", "Ankara", "İzmir", "Bursa", "Antalya", "Adana", "Konya", "Gaziantep", "Şanlıurfa", "Kocaeli"
-        };
-        
-        String[] emailDomains = {
-            "gmail.com", "hotmail.com", "yahoo.com", "outlook.com", "icloud.com"
-        };
-        
         LocalDate startDate = LocalDate.of(2020, 1, 1);
         LocalDate endDate = LocalDate.now();
         long daysBetween = ChronoUnit.DAYS.between(startDate, endDate);
         
         // Create at least 20 customers
         for (int i = 0; i < 25; i++) {
-            String firstName = firstNames[random.nextInt(firstNames.length)];
-            String lastName = lastNames[random.nextInt(lastNames.length)];
-            String city = cities[random.nextInt(cities.length)];
-            String emailDomain = emailDomains[random.nextInt(emailDomains.length)];
+            String firstName = SampleDataPatterns.FIRST_NAMES[random.nextInt(SampleDataPatterns.FIRST_NAMES.length)];
+            String lastName = SampleDataPatterns.LAST_NAMES[random.nextInt(SampleDataPatterns.LAST_NAMES.length)];
+            String city = SampleDataPatterns.CITIES[random.nextInt(SampleDataPatterns.CITIES.length)];
+            String emailDomain = SampleDataPatterns.EMAIL_DOMAINS[random.nextInt(SampleDataPatterns.EMAIL_DOMAINS.length)];
             
             // Turkish phone number format
-            String phone = String.format("+90%d%d%d%d%d%d%d%d%d%d",
-                    5, // Turkish mobile prefix
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10),
-                    random.nextInt(10));
+            String phone = SampleDataPatterns.phone(random);
             
             // Random registration date between start and end dates
             LocalDate registrationDate = startDate.plusDays(random.nextInt((int) daysBetween));
@@ -161,62 +131,17 @@ public class SampleDataInitializer {
     private List<StockItem> createStockItems() {
         List<StockItem> stockItems = new ArrayList<>();
         
-        // Brand - Model pairs for popular vehicles in Turkey
-        Map<String, List<String>> brandModels = new HashMap<>();
-        brandModels.put("Renault", Arrays.asList("Clio", "Megane", "Symbol", "Captur", "Kadjar"));
-        brandModels.put("Fiat", Arrays.asList("Egea", "Doblo", "Fiorino", "500", "Tipo"));
-        brandModels.put("Ford", Arrays.asList("Focus", "Fiesta", "Kuga", "Mondeo", "Puma"));
-        brandModels.put("Volkswagen", Arrays.asList("Polo", "Golf", "Passat", "Tiguan", "T-Roc"));
-        brandModels.put("Toyota", Arrays.asList("Corolla", "Yaris", "C-HR", "RAV4", "Auris"));
-        brandModels.put("Hyundai", Arrays.asList("i20", "i10", "Tucson", "Accent", "Elantra"));
-        brandModels.put("Honda", Arrays.asList("Civic", "CR-V", "Jazz", "HR-V", "Accord"));
-        brandModels.put("Peugeot", Arrays.asList("208", "308", "2008", "3008", "508"));
-        
-        // Package types
-        String[] packageTypes = {"Basic", "Comfort", "Premium", "Sport", "Luxury", "Urban", "Adventure"};
-        
-        // Model years
-        Integer[] years = {2018, 2019, 2020, 2021, 2022, 2023};
-        
-        for (Map.Entry<String, List<String>> entry : brandModels.entrySet()) {
+        for (Map.Entry<String, List<String>> entry : SampleDataPatterns.BRAND_MODELS.entrySet()) {
             String brand = entry.getKey();
             List<String> models = entry.getValue();
             
             for (String model : models) {
                 for (int i = 0; i < 1 + random.nextInt(2); i++) { // 1-2 package types per model
-                    String packageType = packageTypes[random.nextInt(packageTypes.length)];
-                    Integer year = years[random.nextInt(years.length)];
-                    
-                    // Yıla ve markaya göre daha gerçekçi fiyat belirle (Türk Lirası cinsinden)
-                    BigDecimal basePrice;
-                    
-                    // Luxury markaları daha yüksek fiyatla
-                    boolean isLuxuryBrand = brand.equals("Volkswagen") || brand.equals("Toyota") || brand.equals("Honda");
+                    String packageType = SampleDataPatterns.PACKAGE_TYPES[random.nextInt(SampleDataPatterns.PACKAGE_TYPES.length)];
+                    Integer year = SampleDataPatterns.YEARS[random.nextInt(SampleDataPatterns.YEARS.length)];
                     
-                    if (isLuxuryBrand) {
-                        // Lüks markalar için fiyat aralığı (1,000,000 - 3,000,000 TL)
-                        basePrice = BigDecimal.valueOf(1000000 + random.nextInt(2000000));
-                    } else {
-                        // Standart markalar için fiyat aralığı (500,000 - 1,500,000 TL)
-                        basePrice = BigDecimal.valueOf(500000 + random.nextInt(1000000));
-                    }
-                    
-                    // Yıla göre fiyat düzeltmesi
-                    // Daha eski modeller için indirim
-                    int currentYear = LocalDate.now().getYear();
-                    int yearDiff = currentYear - year;
-                    if (yearDiff > 0) {
-                        // Her yıl için %8 değer kaybı
-                        double depreciationFactor = Math.pow(0.92, yearDiff);
-                        basePrice = basePrice.multiply(BigDecimal.valueOf(depreciationFactor));
-                    }
-                    
-                    // Paket tipine göre fiyat ayarlaması
-                    if (packageType.equals("Premium") || packageType.equals("Luxury")) {
-                        basePrice = basePrice.multiply(BigDecimal.valueOf(1.15)); // %15 premium
-                    } else if (packageType.equals("Sport")) {
-                        basePrice = basePrice.multiply(BigDecimal.valueOf(1.10)); // %10 premium
-                    }
+                    // Yıla, markaya ve pakete göre fiyat belirle (Türk Lirası cinsinden)
+                    BigDecimal basePrice = SampleDataPatterns.basePrice(random, brand, year, packageType, LocalDate.now().getYear());
                     
                     // Total quantity of this model in stock (will create this many vehicles)
                     int totalQuantity = 2 + random.nextInt(5); // 2-6 vehicles per stock item type
@@ -243,13 +168,10 @@ public class SampleDataInitializer {
     private List<Vehicle> createVehicles(List<StockItem> stockItems) {
         List<Vehicle> vehicles = new ArrayList<>();
         
-        // Color options
-        String[] colors = {"White", "Black", "Silver", "Gray", "Red", "Blue", "Green", "Yellow", "Brown", "Orange"};
-        
         // Create vehicles from each stock item
         for (StockItem stockItem : stockItems) {
             for (int i = 0; i < stockItem.getTotalQuantity(); i++) {
-                String color = colors[random.nextInt(colors.length)];
+                String color = SampleDataPatterns.COLORS[random.nextInt(SampleDataPatterns.COLORS.length)];
                 
                 // VIN format (simple random for sample data)
                 String vin = String.format("%s%s%d%s",
@@ -265,25 +187,8 @@ public class SampleDataInitializer {
                 // Stock entry date (when the vehicle arrived at the dealership)
                 LocalDate stockEntryDate = LocalDate.now().minusMonths(random.nextInt(12));
                 
-                // Vehicle status distribution:
-                // 45% IN_SHOWROOM
-                // 35% IN_STOCK
-                // 10% RESERVED
-                // 5% UNDER_MAINTENANCE
-                // 5% already SOLD (some historical vehicles)
-                int statusRandom = random.nextInt(100);
-                VehicleStatus status;
-                if (statusRandom < 45) {
-                    status = VehicleStatus.IN_SHOWROOM; // 45% in showroom
-                } else if (statusRandom < 80) {
-                    status = VehicleStatus.IN_STOCK; // 35% in stock
-                } else if (statusRandom < 90) {
-                    status = VehicleStatus.RESERVED; // 10% reserved
-                } else if (statusRandom < 95) {
-                    status = VehicleStatus.UNDER_MAINTENANCE; // 5% in maintenance
-                } else {
-                    status = VehicleStatus.SOLD; // 5% already sold
-                }
+                // Vehicle status distribution (mostly in showroom or in stock, 5% already sold)
+                VehicleStatus status = SampleDataPatterns.inventoryStatus(random);
                 
                 // Description
                 String description = stockItem.getBrand() + " " + stockItem.getModel() + " " + 
@@ -328,17 +233,10 @@ public class SampleDataInitializer {
         // Payment methods
         PaymentMethod[] paymentMethods = PaymentMethod.values();
         
-        // Sales employee names
-        String[] salesEmployeeNames = {
-            "Mehmet Yılmaz", "Ayşe Demir", "Ali Çelik", "Zeynep Kaya", 
-            "Mustafa Şahin", "Elif Öztürk", "Hüseyin Aydın", "Fatma Özdemir"
-        };
-        
         // Create historical sales for the last 24 months for forecasting
         // We'll distribute them to create patterns in the data
         
         LocalDate today = LocalDate.now();
-        LocalDate twoYearsAgo = today.minusYears(2);
         
         // Create a distribution pattern - more sales in summer months and December
         // and increasing trend over time
@@ -358,79 +256,20 @@ public class SampleDataInitializer {
             Vehicle vehicle = availableVehicles.get(i % availableVehicles.size());
             
             // Calculate a sale date between two years ago and today
-            // Use distribution to create patterns:
-            // 1. More recent dates have more sales (upward trend)
-            // 2. Summer months (6-8) and December (12) have more sales
-            
-            int monthOffset = random.nextInt(24); // 0-23 months ago
-            LocalDate baseDate = today.minusMonths(monthOffset);
-            
-            // Adjust for seasonal patterns
-            Month month = baseDate.getMonth();
-            int dayAdjustment;
-            
-            if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST || month == Month.DECEMBER) {
-                // Higher probability for summer and December
-                dayAdjustment = random.nextInt(20) - 10; // More sales in these months
-            } else {
-                dayAdjustment = random.nextInt(40) - 20; // Fewer sales in other months
-            }
-            
-            // Adjust final date with the seasonal pattern and clamping to valid range
-            LocalDate saleDate = baseDate.plusDays(dayAdjustment);
-            if (saleDate.isAfter(today)) {
-                saleDate = today;
-            }
-            if (saleDate.isBefore(twoYearsAgo)) {
-                saleDate = twoYearsAgo;
-            }
+            // with more sales in summer months and December
+            LocalDate saleDate = SampleDataPatterns.seasonalSaleDate(random, today);
             
             // Create the sale with slightly randomized price from the vehicle's price
             BigDecimal salePrice = vehicle.getPrice();
-            BigDecimal discount = BigDecimal.ZERO;
-            
-            // Indirim stratejisi:
-            // 1. Araba yaşı: Daha yaşlı araçlarda indirim olasılığı daha yüksek
-            // 2. Mevsimsellik: Yılın belirli dönemlerinde kampanyalar
-            // 3. Rastgele faktör: Bazı müşteriler pazarlık yapabilir
-            
-            boolean shouldApplyDiscount = false;
-            double discountPercentage = 0;
-            
-            // 1. Araba yaşı bazlı indirim
-            int vehicleAge = LocalDate.now().getYear() - vehicle.getYear();
-            if (vehicleAge > 0) {
-                // Her yıl için indirim olasılığı artıyor
-                shouldApplyDiscount = shouldApplyDiscount || random.nextDouble() < (0.2 * vehicleAge);
-                discountPercentage += vehicleAge * 0.5; // Her yıl için %0.5 ek indirim
-            }
-            
-            // 2. Mevsimsel indirim
-            if (month == Month.JANUARY || month == Month.FEBRUARY || // Kış aylarında satışları artırmak için
-                month == Month.AUGUST) { // Ağustos sonu sezon sonu
-                shouldApplyDiscount = shouldApplyDiscount || random.nextDouble() < 0.4;
-                discountPercentage += 2; // Ek %2 indirim
-            }
-            
-            // 3. Rastgele müşteri pazarlık faktörü
-            if (random.nextDouble() < 0.3) { // %30 olasılıkla
-                shouldApplyDiscount = true;
-                discountPercentage += random.nextDouble() * 3; // %0-3 arası ek indirim
-            }
-            
-            // Toplam indirim yüzdesini sınırla (maksimum %15)
-            discountPercentage = Math.min(15, discountPercentage);
-            
-            if (shouldApplyDiscount && discountPercentage > 0) {
-                discount = salePrice.multiply(BigDecimal.valueOf(discountPercentage / 100));
-                salePrice = salePrice.subtract(discount);
-            }
+            // Indirim: araba yaşı, mevsimsellik ve müşteri pazarlığına göre
+            BigDecimal discount = SampleDataPatterns.discount(random, salePrice, today.getYear() - vehicle.getYear(), saleDate.getMonth());
+            salePrice = salePrice.subtract(discount);
             
             // Select payment method
             PaymentMethod paymentMethod = paymentMethods[random.nextInt(paymentMethods.length)];
             
             // Select sales employee
-            String salesEmployee = salesEmployeeNames[random.nextInt(salesEmployeeNames.length)];
+            String salesEmployee = SampleDataPatterns.SALES_EMPLOYEE_NAMES[random.nextInt(SampleDataPatterns.SALES_EMPLOYEE_NAMES.length)];
             
             // Create and add the sale
             Sale sale = new Sale();
@@ -0,0 +1,226 @@
+package dev.tunalime.SemesterProject.config;
+
+import dev.tunalime.SemesterProject.entity.VehicleStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * Catalog and distributions shared by the sample and synthetic data generators
+ */
+final class SampleDataPatterns {
+
+    // Turkish first names and last names for sample data
+    static final String[] FIRST_NAMES = {
+        "Ahmet", "Mehmet", "Ali", "Mustafa", "Hüseyin", "Hasan", "İbrahim", "Murat", "Ömer", "Yusuf",
+        "Ayşe", "Fatma", "Emine", "Hatice", "Zeynep", "Elif", "Meryem", "Özlem", "Zehra", "Esra"
+    };
+
+    static final String[] LAST_NAMES = {
+        "Yılmaz", "Kaya", "Demir", "Çelik", "Şahin", "Yıldız", "Yıldırım", "Öztürk", "Aydın", "Özdemir",
+        "Arslan", "Doğan", "Kılıç", "Aslan", "Çetin", "Koç", "Kurt", "Özkan", "Şimşek", "Tekin"
+    };
+
+    static final String[] CITIES = {
+        "İstanbul", "Ankara", "İzmir", "Bursa", "Antalya", "Adana", "Konya", "Gaziantep", "Şanlıurfa", "Kocaeli"
+    };
+
+    static final String[] EMAIL_DOMAINS = {
+        "gmail.com", "hotmail.com", "yahoo.com", "outlook.com", "icloud.com"
+    };
+
+    // Brand - Model pairs for popular vehicles in Turkey
+    static final Map<String, List<String>> BRAND_MODELS = new LinkedHashMap<>();
+    static {
+        BRAND_MODELS.put("Renault", Arrays.asList("Clio", "Megane", "Symbol", "Captur", "Kadjar"));
+        BRAND_MODELS.put("Fiat", Arrays.asList("Egea", "Doblo", "Fiorino", "500", "Tipo"));
+        BRAND_MODELS.put("Ford", Arrays.asList("Focus", "Fiesta", "Kuga", "Mondeo", "Puma"));
+        BRAND_MODELS.put("Volkswagen", Arrays.asList("Polo", "Golf", "Passat", "Tiguan", "T-Roc"));
+        BRAND_MODELS.put("Toyota", Arrays.asList("Corolla", "Yaris", "C-HR", "RAV4", "Auris"));
+        BRAND_MODELS.put("Hyundai", Arrays.asList("i20", "i10", "Tucson", "Accent", "Elantra"));
+        BRAND_MODELS.put("Honda", Arrays.asList("Civic", "CR-V", "Jazz", "HR-V", "Accord"));
+        BRAND_MODELS.put("Peugeot", Arrays.asList("208", "308", "2008", "3008", "508"));
+    }
+
+    // Package types
+    static final String[] PACKAGE_TYPES = {"Basic", "Comfort", "Premium", "Sport", "Luxury", "Urban", "Adventure"};
+
+    // Model years
+    static final Integer[] YEARS = {2018, 2019, 2020, 2021, 2022, 2023};
+
+    // Color options
+    static final String[] COLORS = {"White", "Black", "Silver", "Gray", "Red", "Blue", "Green", "Yellow", "Brown", "Orange"};
+
+    // Sales employee names
+    static final String[] SALES_EMPLOYEE_NAMES = {
+        "Mehmet Yılmaz", "Ayşe Demir", "Ali Çelik", "Zeynep Kaya",
+        "Mustafa Şahin", "Elif Öztürk", "Hüseyin Aydın", "Fatma Özdemir"
+    };
+
+    private SampleDataPatterns() {
+    }
+
+    /**
+     * Turkish mobile phone number
+     */
+    static String phone(RandomGenerator random) {
+        return String.format("+90%d%d%d%d%d%d%d%d%d%d",
+                5, // Turkish mobile prefix
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10),
+                random.nextInt(10));
+    }
+
+    /**
+     * Base price of a vehicle type by brand, model year and package
+     *
+     * @param currentYear Year the depreciation is calculated up to
+     */
+    static BigDecimal basePrice(RandomGenerator random, String brand, int year, String packageType, int currentYear) {
+        // Yıla ve markaya göre daha gerçekçi fiyat belirle (Türk Lirası cinsinden)
+        BigDecimal basePrice;
+
+        // Luxury markaları daha yüksek fiyatla
+        boolean isLuxuryBrand = brand.equals("Volkswagen") || brand.equals("Toyota") || brand.equals("Honda");
+
+        if (isLuxuryBrand) {
+            // Lüks markalar için fiyat aralığı (1,000,000 - 3,000,000 TL)
+            basePrice = BigDecimal.valueOf(1000000 + random.nextInt(2000000));
+        } else {
+            // Standart markalar için fiyat aralığı (500,000 - 1,500,000 TL)
+            basePrice = BigDecimal.valueOf(500000 + random.nextInt(1000000));
+        }
+
+        // Yıla göre fiyat düzeltmesi
+        // Daha eski modeller için indirim
+        int yearDiff = currentYear - year;
+        if (yearDiff > 0) {
+            // Her yıl için %8 değer kaybı
+            double depreciationFactor = Math.pow(0.92, yearDiff);
+            basePrice = basePrice.multiply(BigDecimal.valueOf(depreciationFactor));
+        }
+
+        // Paket tipine göre fiyat ayarlaması
+        if (packageType.equals("Premium") || packageType.equals("Luxury")) {
+            basePrice = basePrice.multiply(BigDecimal.valueOf(1.15)); // %15 premium
+        } else if (packageType.equals("Sport")) {
+            basePrice = basePrice.multiply(BigDecimal.valueOf(1.10)); // %10 premium
+        }
+        return basePrice;
+    }
+
+    /**
+     * Status of a vehicle in the inventory
+     */
+    static VehicleStatus inventoryStatus(RandomGenerator random) {
+        // Vehicle status distribution:
+        // 45% IN_SHOWROOM
+        // 35% IN_STOCK
+        // 10% RESERVED
+        // 5% UNDER_MAINTENANCE
+        // 5% already SOLD (some historical vehicles)
+        int statusRandom = random.nextInt(100);
+        if (statusRandom < 45) {
+            return VehicleStatus.IN_SHOWROOM; // 45% in showroom
+        } else if (statusRandom < 80) {
+            return VehicleStatus.IN_STOCK; // 35% in stock
+        } else if (statusRandom < 90) {
+            return VehicleStatus.RESERVED; // 10% reserved
+        } else if (statusRandom < 95) {
+            return VehicleStatus.UNDER_MAINTENANCE; // 5% in maintenance
+        } else {
+            return VehicleStatus.SOLD; // 5% already sold
+        }
+    }
+
+    /**
+     * Sale date within the last two years, with more sales in summer and December
+     */
+    static LocalDate seasonalSaleDate(RandomGenerator random, LocalDate today) {
+        LocalDate twoYearsAgo = today.minusYears(2);
+
+        // Use distribution to create patterns:
+        // 1. More recent dates have more sales (upward trend)
+        // 2. Summer months (6-8) and December (12) have more sales
+
+        int monthOffset = random.nextInt(24); // 0-23 months ago
+        LocalDate baseDate = today.minusMonths(monthOffset);
+
+        // Adjust for seasonal patterns
+        Month month = baseDate.getMonth();
+        int dayAdjustment;
+
+        if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST || month == Month.DECEMBER) {
+            // Higher probability for summer and December
+            dayAdjustment = random.nextInt(20) - 10; // More sales in these months
+        } else {
+            dayAdjustment = random.nextInt(40) - 20; // Fewer sales in other months
+        }
+
+        // Adjust final date with the seasonal pattern and clamping to valid range
+        LocalDate saleDate = baseDate.plusDays(dayAdjustment);
+        if (saleDate.isAfter(today)) {
+            saleDate = today;
+        }
+        if (saleDate.isBefore(twoYearsAgo)) {
+            saleDate = twoYearsAgo;
+        }
+        return saleDate;
+    }
+
+    /**
+     * Discount on a sale by vehicle age, season and negotiation
+     *
+     * @param vehicleAge Age of the vehicle in years at the time of the sale
+     * @return Discount amount, zero when no discount applies
+     */
+    static BigDecimal discount(RandomGenerator random, BigDecimal salePrice, int vehicleAge, Month month) {
+        // Indirim stratejisi:
+        // 1. Araba yaşı: Daha yaşlı araçlarda indirim olasılığı daha yüksek
+        // 2. Mevsimsellik: Yılın belirli dönemlerinde kampanyalar
+        // 3. Rastgele faktör: Bazı müşteriler pazarlık yapabilir
+
+        boolean shouldApplyDiscount = false;
+        double discountPercentage = 0;
+
+        // 1. Araba yaşı bazlı indirim
+        if (vehicleAge > 0) {
+            // Her yıl için indirim olasılığı artıyor
+            shouldApplyDiscount = shouldApplyDiscount || random.nextDouble() < (0.2 * vehicleAge);
+            discountPercentage += vehicleAge * 0.5; // Her yıl için %0.5 ek indirim
+        }
+
+        // 2. Mevsimsel indirim
+        if (month == Month.JANUARY || month == Month.FEBRUARY || // Kış aylarında satışları artırmak için
+            month == Month.AUGUST) { // Ağustos sonu sezon sonu
+            shouldApplyDiscount = shouldApplyDiscount || random.nextDouble() < 0.4;
+            discountPercentage += 2; // Ek %2 indirim
+        }
+
+        // 3. Rastgele müşteri pazarlık faktörü
+        if (random.nextDouble() < 0.3) { // %30 olasılıkla
+            shouldApplyDiscount = true;
+            discountPercentage += random.nextDouble() * 3; // %0-3 arası ek indirim
+        }
+
+        // Toplam indirim yüzdesini sınırla (maksimum %15)
+        discountPercentage = Math.min(15, discountPercentage);
+
+        if (shouldApplyDiscount && discountPercentage > 0) {
+            return salePrice.multiply(BigDecimal.valueOf(discountPercentage / 100));
+        }
+        return BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,12 @@
+package dev.tunalime.SemesterProject.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Configuration enabling scheduled background jobs (nightly batch refreshes etc.)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
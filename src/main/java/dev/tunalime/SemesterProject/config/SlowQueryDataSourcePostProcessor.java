@@ -0,0 +1,42 @@
+package dev.tunalime.SemesterProject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source in a datasource-proxy that reports slow statements.
+ * Only registered with app.slow-query.enabled=true, so a disabled log leaves the data source untouched.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.slow-query", name = "enabled", havingValue = "true")
+public class SlowQueryDataSourcePostProcessor implements BeanPostProcessor {
+
+    private final long thresholdMillis;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public SlowQueryDataSourcePostProcessor(@Value("${app.slow-query.threshold-ms:200}") long thresholdMillis,
+                                            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.thresholdMillis = thresholdMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        // Only the data source the application uses; the pools behind a read replica router are reached through it
+        if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(dataSource)
+                    .name(beanName)
+                    .listener(new SlowQueryListener(thresholdMillis, meterRegistry))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.tunalime.SemesterProject.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * Logs statements slower than the threshold with their bind parameters and counts them in jdbc.slow.queries.
+ * Fast statements only cost a comparison; the log entry is built for slow ones alone.
+ */
+final class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private final long thresholdMillis;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final DefaultQueryLogEntryCreator logEntryCreator = new DefaultQueryLogEntryCreator();
+
+    SlowQueryListener(long thresholdMillis, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.thresholdMillis = thresholdMillis;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (execInfo.getElapsedTime() < thresholdMillis) {
+            return;
+        }
+        logger.warn("Slow query ({} ms, threshold {} ms): {}", execInfo.getElapsedTime(), thresholdMillis,
+                logEntryCreator.getLogEntry(execInfo, queryInfoList, false, false, false));
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            registry.counter("jdbc.slow.queries").increment();
+        }
+    }
+}
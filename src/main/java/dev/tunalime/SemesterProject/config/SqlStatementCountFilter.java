@@ -0,0 +1,51 @@
+package dev.tunalime.SemesterProject.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Logs requests that issue more SQL statements than the configured limit, including lazy loads
+ * during view rendering (open session in view)
+ */
+@Component
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementCountFilter.class);
+
+    private final SqlStatementCounter statementCounter;
+    private final long maxStatementsPerRequest;
+
+    @Autowired
+    public SqlStatementCountFilter(SqlStatementCounter statementCounter,
+                                   @Value("${app.query-guard.max-statements-per-request:50}") long maxStatementsPerRequest) {
+        this.statementCounter = statementCounter;
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long before = statementCounter.current();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long statements = statementCounter.current() - before;
+            if (statements > maxStatementsPerRequest) {
+                logger.warn("{} {} issued {} SQL statements (limit {}), check for N+1 queries",
+                        request.getMethod(), request.getRequestURI(), statements, maxStatementsPerRequest);
+            } else {
+                logger.debug("{} {} issued {} SQL statements", request.getMethod(), request.getRequestURI(), statements);
+            }
+        }
+    }
+}
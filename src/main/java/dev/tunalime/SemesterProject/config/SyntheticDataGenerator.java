@@ -0,0 +1,600 @@
+package dev.tunalime.SemesterProject.config;
+
+import dev.tunalime.SemesterProject.dto.SyntheticDataFormat;
+import dev.tunalime.SemesterProject.dto.SyntheticDataSpecDTO;
+import dev.tunalime.SemesterProject.entity.IdGeneration;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.entity.PaymentMethod;
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+import dev.tunalime.SemesterProject.entity.VehicleStatus;
+import dev.tunalime.SemesterProject.service.InteractionActivityService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+
+/**
+ * Seeded synthetic data generator for load testing.
+ * Every row is a pure function of the seed, its table and its ID, so ID ranges are generated in parallel partitions
+ * and the same spec always produces the same rows. Rows are streamed to the database in JDBC batches with explicit IDs,
+ * or written to CSV files for a bulk load.
+ */
+@Service
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int MAX_PARTITIONS = 64;
+
+    // Salts keep the random streams of the tables independent of each other
+    private static final long STOCK_ITEM_SALT = 1;
+    private static final long VEHICLE_SALT = 2;
+    private static final long VEHICLE_STOCK_ITEM_SALT = 3;
+    private static final long CUSTOMER_SALT = 4;
+    private static final long SALE_SALT = 5;
+    private static final long SALE_DATE_SALT = 6;
+    private static final long INTERACTION_SALT = 7;
+
+    // Percentage of each interaction type, in InteractionType order
+    private static final InteractionType[] INTERACTION_TYPES = InteractionType.values();
+    private static final int[] INTERACTION_TYPE_PERCENTAGES = {30, 20, 12, 12, 8, 10, 2, 3, 3};
+
+    // Customers registered from this date on
+    private static final LocalDate FIRST_REGISTRATION_DATE = LocalDate.of(2020, 1, 1);
+
+    private static final DateTimeFormatter CSV_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String STOCK_ITEMS = "stock_items";
+    private static final String VEHICLES = "vehicles";
+    private static final String CUSTOMERS = "customers";
+    private static final String SALES = "sales";
+    private static final String INTERACTIONS = "customer_interactions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final InteractionActivityService interactionActivityService;
+    private final boolean enabledOnStartup;
+    private final int batchSize;
+    private final SyntheticDataSpecDTO defaults;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                  InteractionActivityService interactionActivityService,
+                                  @Value("${app.synthetic-data.enabled:false}") boolean enabledOnStartup,
+                                  @Value("${app.synthetic-data.batch-size:1000}") int batchSize,
+                                  @Value("${app.synthetic-data.customers:1000000}") long customers,
+                                  @Value("${app.synthetic-data.vehicles:200000}") long vehicles,
+                                  @Value("${app.synthetic-data.sales:2000000}") long sales,
+                                  @Value("${app.synthetic-data.interactions:10000000}") long interactions,
+                                  @Value("${app.synthetic-data.seed:42}") long seed,
+                                  @Value("${app.synthetic-data.reference-date:2025-01-01}") String referenceDate,
+                                  @Value("${app.synthetic-data.partitions:8}") int partitions,
+                                  @Value("${app.synthetic-data.format:DATABASE}") SyntheticDataFormat format,
+                                  @Value("${app.synthetic-data.output-directory:./data/synthetic}") String outputDirectory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.interactionActivityService = interactionActivityService;
+        this.enabledOnStartup = enabledOnStartup;
+        this.batchSize = batchSize;
+        this.defaults = new SyntheticDataSpecDTO(customers, vehicles, sales, interactions, seed,
+                LocalDate.parse(referenceDate),
+                partitions, format, outputDirectory);
+    }
+
+    /**
+     * Generate the configured data set once the application has started, if enabled and not generated before
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateOnStartup() {
+        if (!enabledOnStartup) {
+            return;
+        }
+        // The schema outlives restarts, so a database seeded by an earlier start is kept as it is
+        Long customers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + CUSTOMERS, Long.class);
+        if (customers != null && customers > 0) {
+            logger.info("Skipping synthetic data generation, {} already has {} rows", CUSTOMERS, customers);
+            return;
+        }
+        generate(new SyntheticDataSpecDTO());
+    }
+
+    /**
+     * Generate a synthetic data set.
+     * Stock items cover every brand, model, year and package combination; every sale gets its own sold vehicle
+     * (a vehicle is sold at most once) on top of the requested inventory.
+     *
+     * @param spec Target sizes and settings, missing values fall back to the app.synthetic-data properties
+     * @return Number of rows per table and the elapsed time
+     */
+    public Map<String, Long> generate(SyntheticDataSpecDTO spec) {
+        Plan plan = new Plan(withDefaults(spec));
+        if (plan.format == SyntheticDataFormat.DATABASE) {
+            requireEmptyTables();
+        }
+
+        long start = System.currentTimeMillis();
+        List<Table> tables = List.of(
+                new Table(STOCK_ITEMS, new String[]{"id", "brand", "model", "model_year", "package_type",
+                        "base_price", "total_quantity", "specifications"}, plan.catalog.size(), plan::stockItemRow),
+                new Table(VEHICLES, new String[]{"id", "brand", "model", "model_year", "package_type", "vin", "price",
+                        "color", "stock_entry_date", "status", "description", "is_available_for_test_drive",
+                        "stock_item_id"}, plan.vehicles + plan.sales, plan::vehicleRow),
+                new Table(CUSTOMERS, new String[]{"id", "first_name", "last_name", "email", "phone", "address",
+                        "registration_date"}, plan.customers, plan::customerRow),
+                new Table(SALES, new String[]{"id", "customer_id", "vehicle_id", "sale_date", "sale_price", "discount",
+                        "status", "sales_employee_name", "payment_method"}, plan.sales, plan::saleRow),
+                new Table(INTERACTIONS, new String[]{"id", "customer_id", "interaction_date", "type", "vehicle_id"},
+                        plan.interactions, plan::interactionRow));
+
+        logger.info("Generating synthetic data with seed {} and reference date {} in {} partitions to {}",
+                plan.seed, plan.referenceDate, plan.partitions, plan.format);
+        ExecutorService executor = Executors.newFixedThreadPool(plan.partitions);
+        try {
+            for (Table table : tables) {
+                long tableStart = System.currentTimeMillis();
+                writeTable(table, plan, executor);
+                logger.info("Generated {} rows of {} in {} ms", table.rows(), table.name(), System.currentTimeMillis() - tableStart);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (plan.format == SyntheticDataFormat.DATABASE) {
+            // The rows bypassed Hibernate: move the sequences past the explicit IDs and drop stale cache entries
+            for (Table table : tables) {
+                if (table.rows() > 0) {
+                    jdbcTemplate.execute(restartSequence(table));
+                }
+            }
+            entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+            interactionActivityService.rebuild();
+        } else {
+            writeLoadScripts(tables, plan);
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        result.put("stockItems", (long) plan.catalog.size());
+        result.put("vehicles", plan.vehicles + plan.sales);
+        result.put("customers", plan.customers);
+        result.put("sales", plan.sales);
+        result.put("interactions", plan.interactions);
+        result.put("elapsedMillis", System.currentTimeMillis() - start);
+        logger.info("Synthetic data generation complete: {}", result);
+        return result;
+    }
+
+    private SyntheticDataSpecDTO withDefaults(SyntheticDataSpecDTO spec) {
+        return new SyntheticDataSpecDTO(
+                spec.getCustomers() != null ? spec.getCustomers() : defaults.getCustomers(),
+                spec.getVehicles() != null ? spec.getVehicles() : defaults.getVehicles(),
+                spec.getSales() != null ? spec.getSales() : defaults.getSales(),
+                spec.getInteractions() != null ? spec.getInteractions() : defaults.getInteractions(),
+                spec.getSeed() != null ? spec.getSeed() : defaults.getSeed(),
+                spec.getReferenceDate() != null ? spec.getReferenceDate() : defaults.getReferenceDate(),
+                spec.getPartitions() != null ? spec.getPartitions() : defaults.getPartitions(),
+                spec.getFormat() != null ? spec.getFormat() : defaults.getFormat(),
+                spec.getOutputDirectory() != null ? spec.getOutputDirectory() : defaults.getOutputDirectory());
+    }
+
+    private void requireEmptyTables() {
+        for (String table : List.of(STOCK_ITEMS, VEHICLES, CUSTOMERS, SALES, INTERACTIONS)) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+            if (count != null && count > 0) {
+                throw new IllegalStateException("Synthetic data needs empty tables, " + table + " has " + count + " rows");
+            }
+        }
+    }
+
+    /**
+     * Split the IDs of a table into one contiguous range per partition and write the ranges in parallel
+     */
+    private void writeTable(Table table, Plan plan, ExecutorService executor) {
+        if (table.rows() == 0) {
+            return;
+        }
+        long perPartition = rowsPerPartition(table, plan);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int partition = 0; partition < partitionCount(table, plan); partition++) {
+            long first = partition * perPartition + 1;
+            long last = Math.min(table.rows(), (partition + 1) * perPartition);
+            int partitionNumber = partition;
+            futures.add(executor.submit(() -> {
+                try (RowSink sink = openSink(table, plan, partitionNumber)) {
+                    for (long id = first; id <= last; id++) {
+                        sink.write(table.rowFunction().apply(id));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Generating " + table.name() + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generating " + table.name() + " was interrupted", e);
+        }
+    }
+
+    private static long rowsPerPartition(Table table, Plan plan) {
+        return Math.max(1, (table.rows() + plan.partitions - 1) / plan.partitions);
+    }
+
+    // Small tables may fill fewer partitions than configured
+    private static int partitionCount(Table table, Plan plan) {
+        return (int) ((table.rows() + rowsPerPartition(table, plan) - 1) / rowsPerPartition(table, plan));
+    }
+
+    private RowSink openSink(Table table, Plan plan, int partition) throws IOException {
+        if (plan.format == SyntheticDataFormat.CSV) {
+            return new CsvSink(plan.outputDirectory.resolve(csvFileName(table, partition)), table.columns());
+        }
+        return new JdbcSink("INSERT INTO " + table.name() + " (" + String.join(", ", table.columns()) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(table.columns().length, "?")) + ")");
+    }
+
+    private static String csvFileName(Table table, int partition) {
+        return String.format("%s-%03d.csv", table.name(), partition);
+    }
+
+    private static String restartSequence(Table table) {
+        // Pooled sequences hand out the block below the returned value, so leave a full block above the last ID
+        return "ALTER SEQUENCE " + table.name() + "_seq RESTART WITH " + (table.rows() + IdGeneration.ALLOCATION_SIZE);
+    }
+
+    /**
+     * Write H2 and PostgreSQL scripts that load the CSV files in foreign key order and restart the sequences
+     */
+    private void writeLoadScripts(List<Table> tables, Plan plan) {
+        StringBuilder h2 = new StringBuilder();
+        StringBuilder postgres = new StringBuilder();
+        for (Table table : tables) {
+            String columns = String.join(", ", table.columns());
+            for (int partition = 0; partition < partitionCount(table, plan); partition++) {
+                String file = plan.outputDirectory.resolve(csvFileName(table, partition)).toAbsolutePath().toString()
+                        .replace("'", "''");
+                h2.append("INSERT INTO ").append(table.name()).append(" (").append(columns)
+                        .append(") SELECT * FROM CSVREAD('").append(file).append("', NULL, 'charset=UTF-8');\n");
+                postgres.append("\\copy ").append(table.name()).append(" (").append(columns)
+                        .append(") FROM '").append(file).append("' WITH (FORMAT csv, HEADER true)\n");
+            }
+        }
+        for (Table table : tables) {
+            if (table.rows() > 0) {
+                h2.append(restartSequence(table)).append(";\n");
+                postgres.append(restartSequence(table)).append(";\n");
+            }
+        }
+        try {
+            Files.writeString(plan.outputDirectory.resolve("load-h2.sql"), h2, StandardCharsets.UTF_8);
+            Files.writeString(plan.outputDirectory.resolve("load-postgres.sql"), postgres, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * SplitMix64 finalizer over the seed, table salt and row ID
+     */
+    private static long mix(long seed, long salt, long id) {
+        long z = seed + salt * 0x9E3779B97F4A7C15L + id * 0xD1B54A32D192ED03L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof LocalDateTime dateTime) {
+            text = dateTime.format(CSV_DATE_TIME);
+        } else {
+            text = value.toString();
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private record Table(String name, String[] columns, long rows, LongFunction<Object[]> rowFunction) {
+    }
+
+    private record CatalogEntry(String brand, String model, int year, String packageType,
+                                BigDecimal basePrice, String specifications) {
+    }
+
+    /**
+     * Destination of the rows of one table partition
+     */
+    private interface RowSink extends Closeable {
+        void write(Object[] row) throws IOException;
+    }
+
+    /**
+     * Inserts rows in JDBC batches, each batch in its own transaction
+     */
+    private final class JdbcSink implements RowSink {
+        private final String sql;
+        private final List<Object[]> batch = new ArrayList<>(batchSize);
+
+        private JdbcSink(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public void write(Object[] row) {
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+    }
+
+    /**
+     * Writes rows to a CSV file with a header line
+     */
+    private static final class CsvSink implements RowSink {
+        private final BufferedWriter writer;
+
+        private CsvSink(Path file, String[] columns) throws IOException {
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            writer.write(String.join(",", columns));
+            writer.newLine();
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvValue(row[i]));
+            }
+            writer.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Validated settings of one run, the stock item catalog and the row functions
+     */
+    private static final class Plan {
+        private final long seed;
+        private final LocalDate referenceDate;
+        private final long customers;
+        private final long vehicles;
+        private final long sales;
+        private final long interactions;
+        private final int partitions;
+        private final SyntheticDataFormat format;
+        private final Path outputDirectory;
+        private final List<CatalogEntry> catalog = new ArrayList<>();
+        private final int[] quantities;
+        private final int registrationDays;
+
+        private Plan(SyntheticDataSpecDTO spec) {
+            if (spec.getCustomers() < 0 || spec.getVehicles() < 0 || spec.getSales() < 0 || spec.getInteractions() < 0) {
+                throw new IllegalArgumentException("Synthetic data sizes must not be negative");
+            }
+            if (spec.getCustomers() == 0 && (spec.getSales() > 0 || spec.getInteractions() > 0)) {
+                throw new IllegalArgumentException("Sales and interactions need at least one customer");
+            }
+            if (spec.getPartitions() < 1 || spec.getPartitions() > MAX_PARTITIONS) {
+                throw new IllegalArgumentException("Synthetic data uses 1 to " + MAX_PARTITIONS + " partitions");
+            }
+            this.seed = spec.getSeed();
+            this.referenceDate = spec.getReferenceDate();
+            this.customers = spec.getCustomers();
+            this.vehicles = spec.getVehicles();
+            this.sales = spec.getSales();
+            this.interactions = spec.getInteractions();
+            this.partitions = spec.getPartitions();
+            this.format = spec.getFormat();
+            this.outputDirectory = Paths.get(spec.getOutputDirectory());
+            this.registrationDays = (int) Math.max(1, ChronoUnit.DAYS.between(FIRST_REGISTRATION_DATE, referenceDate));
+
+            if (format == SyntheticDataFormat.CSV) {
+                try {
+                    Files.createDirectories(outputDirectory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // One stock item per brand, model, year and package combination
+            for (Map.Entry<String, List<String>> entry : SampleDataPatterns.BRAND_MODELS.entrySet()) {
+                for (String model : entry.getValue()) {
+                    for (Integer year : SampleDataPatterns.YEARS) {
+                        for (String packageType : SampleDataPatterns.PACKAGE_TYPES) {
+                            SplittableRandom random = random(STOCK_ITEM_SALT, catalog.size() + 1);
+                            BigDecimal basePrice = SampleDataPatterns.basePrice(random, entry.getKey(), year, packageType,
+                                    referenceDate.getYear()).setScale(2, RoundingMode.HALF_UP);
+                            String specifications = "Engine: " + (1.0 + random.nextInt(20) / 10.0) + "L, " +
+                                    "Transmission: " + (random.nextBoolean() ? "Automatic" : "Manual") + ", " +
+                                    "Fuel: " + (random.nextBoolean() ? "Gasoline" : "Diesel");
+                            catalog.add(new CatalogEntry(entry.getKey(), model, year, packageType, basePrice, specifications));
+                        }
+                    }
+                }
+            }
+
+            // Stock item quantities are the number of vehicles pointing at them
+            quantities = new int[catalog.size()];
+            for (long vehicleId = 1; vehicleId <= vehicles + sales; vehicleId++) {
+                quantities[stockItemIndex(vehicleId)]++;
+            }
+        }
+
+        private SplittableRandom random(long salt, long id) {
+            return new SplittableRandom(mix(seed, salt, id));
+        }
+
+        private int stockItemIndex(long vehicleId) {
+            return (int) Long.remainderUnsigned(mix(seed, VEHICLE_STOCK_ITEM_SALT, vehicleId), catalog.size());
+        }
+
+        // Drawn first from the vehicle's random stream, so sales can look it up without building the whole row
+        private BigDecimal vehiclePrice(CatalogEntry item, SplittableRandom random) {
+            return item.basePrice().add(BigDecimal.valueOf(random.nextInt(10000) - 5000)); // +/- 5000 TL
+        }
+
+        private LocalDate saleDate(long saleId) {
+            return SampleDataPatterns.seasonalSaleDate(random(SALE_DATE_SALT, saleId), referenceDate);
+        }
+
+        private Object[] stockItemRow(long id) {
+            CatalogEntry item = catalog.get((int) id - 1);
+            return new Object[]{id, item.brand(), item.model(), item.year(), item.packageType(), item.basePrice(),
+                    quantities[(int) id - 1], item.specifications()};
+        }
+
+        /**
+         * Vehicles 1..vehicles form the inventory, vehicle (vehicles + n) is the one sold in sale n
+         */
+        private Object[] vehicleRow(long id) {
+            SplittableRandom random = random(VEHICLE_SALT, id);
+            int stockItemIndex = stockItemIndex(id);
+            CatalogEntry item = catalog.get(stockItemIndex);
+            BigDecimal price = vehiclePrice(item, random);
+            String color = SampleDataPatterns.COLORS[random.nextInt(SampleDataPatterns.COLORS.length)];
+
+            VehicleStatus status;
+            LocalDate stockEntryDate;
+            if (id > vehicles) {
+                status = VehicleStatus.SOLD;
+                stockEntryDate = saleDate(id - vehicles).minusDays(random.nextInt(90));
+            } else {
+                status = SampleDataPatterns.inventoryStatus(random);
+                stockEntryDate = referenceDate.minusMonths(random.nextInt(12));
+            }
+
+            // VIN ends with the hexadecimal ID, which keeps it unique
+            String vin = String.format("%s%s%d%010X", item.brand().substring(0, 1).toUpperCase(Locale.ROOT),
+                    item.model().substring(0, 1).toUpperCase(Locale.ROOT), item.year(), id);
+            String description = item.brand() + " " + item.model() + " " + item.year() + " " + item.packageType()
+                    + " package. Color: " + color + ". " + item.specifications();
+            boolean isAvailableForTestDrive = status == VehicleStatus.IN_SHOWROOM && random.nextBoolean();
+
+            return new Object[]{id, item.brand(), item.model(), item.year(), item.packageType(), vin, price, color,
+                    stockEntryDate, status.name(), description, isAvailableForTestDrive, (long) stockItemIndex + 1};
+        }
+
+        private Object[] customerRow(long id) {
+            SplittableRandom random = random(CUSTOMER_SALT, id);
+            String firstName = SampleDataPatterns.FIRST_NAMES[random.nextInt(SampleDataPatterns.FIRST_NAMES.length)];
+            String lastName = SampleDataPatterns.LAST_NAMES[random.nextInt(SampleDataPatterns.LAST_NAMES.length)];
+            String city = SampleDataPatterns.CITIES[random.nextInt(SampleDataPatterns.CITIES.length)];
+            String emailDomain = SampleDataPatterns.EMAIL_DOMAINS[random.nextInt(SampleDataPatterns.EMAIL_DOMAINS.length)];
+            String phone = SampleDataPatterns.phone(random);
+            LocalDate registrationDate = FIRST_REGISTRATION_DATE.plusDays(random.nextInt(registrationDays));
+
+            // The ID keeps e-mail addresses unique
+            String email = firstName.toLowerCase(Locale.ROOT) + "." + lastName.toLowerCase(Locale.ROOT) + "." + id + "@" + emailDomain;
+            return new Object[]{id, firstName, lastName, email, phone, city + ", Türkiye", registrationDate};
+        }
+
+        private Object[] saleRow(long id) {
+            long vehicleId = vehicles + id;
+            CatalogEntry item = catalog.get(stockItemIndex(vehicleId));
+            BigDecimal price = vehiclePrice(item, random(VEHICLE_SALT, vehicleId));
+            LocalDate saleDate = saleDate(id);
+
+            SplittableRandom random = random(SALE_SALT, id);
+            long customerId = 1 + random.nextLong(customers);
+            BigDecimal discount = SampleDataPatterns.discount(random, price, saleDate.getYear() - item.year(),
+                    saleDate.getMonth()).setScale(2, RoundingMode.HALF_UP);
+            String salesEmployee = SampleDataPatterns.SALES_EMPLOYEE_NAMES[random.nextInt(SampleDataPatterns.SALES_EMPLOYEE_NAMES.length)];
+            PaymentMethod paymentMethod = PaymentMethod.values()[random.nextInt(PaymentMethod.values().length)];
+
+            return new Object[]{id, customerId, vehicleId, saleDate, price.subtract(discount), discount,
+                    SaleStatus.COMPLETED.name(), salesEmployee, paymentMethod.name()};
+        }
+
+        private Object[] interactionRow(long id) {
+            SplittableRandom random = random(INTERACTION_SALT, id);
+            long customerId = 1 + random.nextLong(customers);
+            InteractionType type = interactionType(random);
+
+            // Interactions follow the seasonal pattern of the sales, during opening hours
+            LocalDateTime interactionDate = SampleDataPatterns.seasonalSaleDate(random, referenceDate)
+                    .atTime(9 + random.nextInt(10), random.nextInt(60), random.nextInt(60));
+
+            // 60% of the interactions are about a specific vehicle
+            long totalVehicles = vehicles + sales;
+            Long vehicleId = totalVehicles > 0 && random.nextInt(100) < 60 ? 1 + random.nextLong(totalVehicles) : null;
+
+            return new Object[]{id, customerId, interactionDate, type.name(), vehicleId};
+        }
+
+        private static InteractionType interactionType(SplittableRandom random) {
+            int pick = random.nextInt(100);
+            for (int i = 0; i < INTERACTION_TYPES.length; i++) {
+                pick -= INTERACTION_TYPE_PERCENTAGES[i];
+                if (pick < 0) {
+                    return INTERACTION_TYPES[i];
+                }
+            }
+            return InteractionType.OTHER;
+        }
+    }
+}
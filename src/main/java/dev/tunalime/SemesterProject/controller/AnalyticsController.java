@@ -0,0 +1,47 @@
+package dev.tunalime.SemesterProject.controller;
+
+import dev.tunalime.SemesterProject.dto.FunnelStepDTO;
+import dev.tunalime.SemesterProject.service.FunnelAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller for cross-entity analytics
+ */
+@Controller
+@RequestMapping("/analytics")
+public class AnalyticsController {
+
+    private final FunnelAnalyticsService funnelAnalyticsService;
+
+    @Autowired
+    public AnalyticsController(FunnelAnalyticsService funnelAnalyticsService) {
+        this.funnelAnalyticsService = funnelAnalyticsService;
+    }
+
+    /**
+     * Get the interaction to test drive to sale funnel per brand and model as JSON
+     */
+    @GetMapping("/api/funnel")
+    @ResponseBody
+    public ResponseEntity<List<FunnelStepDTO>> getFunnelApi(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String brand,
+            @RequestParam(required = false) String model,
+            @RequestParam(defaultValue = "90") int followUpDays) {
+        try {
+            List<FunnelStepDTO> funnel = funnelAnalyticsService.getFunnel(from, to, followUpDays, brand, model);
+            return new ResponseEntity<>(funnel, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package dev.tunalime.SemesterProject.controller;
+
+import dev.tunalime.SemesterProject.dto.CacheStatisticsDTO;
+import dev.tunalime.SemesterProject.service.CacheStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controller for second-level cache statistics
+ */
+@Controller
+@RequestMapping("/cache")
+public class CacheStatisticsController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @Autowired
+    public CacheStatisticsController(CacheStatisticsService cacheStatisticsService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    /**
+     * Get cache hit and miss counts and the number of database round trips as JSON
+     */
+    @GetMapping("/api/stats")
+    @ResponseBody
+    public ResponseEntity<CacheStatisticsDTO> getStatisticsApi() {
+        return new ResponseEntity<>(cacheStatisticsService.getStatistics(), HttpStatus.OK);
+    }
+
+    /**
+     * Reset the cache statistics
+     */
+    @PostMapping("/api/stats/reset")
+    @ResponseBody
+    public ResponseEntity<CacheStatisticsDTO> resetStatisticsApi() {
+        cacheStatisticsService.resetStatistics();
+        return new ResponseEntity<>(cacheStatisticsService.getStatistics(), HttpStatus.OK);
+    }
+}
@@ -1,9 +1,18 @@
 package dev.tunalime.SemesterProject.controller;
 
+import dev.tunalime.SemesterProject.dto.Customer360DTO;
+import dev.tunalime.SemesterProject.dto.CustomerCohort;
 import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.DuplicateCandidateDTO;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import dev.tunalime.SemesterProject.service.Customer360Service;
+import dev.tunalime.SemesterProject.service.CustomerDeduplicationService;
+import dev.tunalime.SemesterProject.service.CustomerSegmentationService;
 import dev.tunalime.SemesterProject.service.CustomerService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -13,7 +22,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller for customer operations
@@ -23,10 +34,19 @@ import java.util.List;
 public class CustomerController {
     
     private final CustomerService customerService;
+    private final CustomerDeduplicationService customerDeduplicationService;
+    private final Customer360Service customer360Service;
+    private final CustomerSegmentationService customerSegmentationService;
     
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService,
+                            CustomerDeduplicationService customerDeduplicationService,
+                            Customer360Service customer360Service,
+                            CustomerSegmentationService customerSegmentationService) {
         this.customerService = customerService;
+        this.customerDeduplicationService = customerDeduplicationService;
+        this.customer360Service = customer360Service;
+        this.customerSegmentationService = customerSegmentationService;
     }
     
     /**
@@ -151,6 +171,21 @@ public class CustomerController {
         }
     }
     
+    /**
+     * Get customer profile with recent sales, test drives and interactions as JSON
+     */
+    @GetMapping("/api/{id}/360")
+    @ResponseBody
+    public ResponseEntity<Customer360DTO> getCustomer360Api(@PathVariable Long id,
+                                                            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Customer360DTO customer360 = customer360Service.getCustomer360(id, limit);
+            return new ResponseEntity<>(customer360, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+    
     /**
      * Search customers by name as JSON
      */
@@ -165,4 +200,98 @@ public class CustomerController {
         List<CustomerDTO> customers = customerService.advancedSearch(firstName, lastName, email, phone);
         return new ResponseEntity<>(customers, HttpStatus.OK);
     }
+    
+    /**
+     * Find likely duplicate customers as JSON
+     */
+    @GetMapping("/api/duplicates")
+    @ResponseBody
+    public ResponseEntity<List<DuplicateCandidateDTO>> findDuplicatesApi(
+            @RequestParam(defaultValue = "0.85") double minScore) {
+        List<DuplicateCandidateDTO> candidates = customerDeduplicationService.findDuplicateCandidates(minScore);
+        return new ResponseEntity<>(candidates, HttpStatus.OK);
+    }
+    
+    /**
+     * Merge a duplicate customer into another customer via API
+     */
+    @PostMapping("/api/{targetId}/merge/{sourceId}")
+    @ResponseBody
+    public ResponseEntity<CustomerDTO> mergeCustomersApi(@PathVariable Long targetId, @PathVariable Long sourceId) {
+        try {
+            CustomerDTO merged = customerDeduplicationService.mergeCustomers(targetId, sourceId);
+            return new ResponseEntity<>(merged, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * Get the number of customers per RFM segment as JSON
+     */
+    @GetMapping("/api/segments")
+    @ResponseBody
+    public ResponseEntity<Map<CustomerSegmentType, Long>> getSegmentSizesApi() {
+        return new ResponseEntity<>(customerSegmentationService.getSegmentSizes(), HttpStatus.OK);
+    }
+    
+    /**
+     * Get customers of an RFM segment as JSON
+     */
+    @GetMapping("/api/segments/{segment}")
+    @ResponseBody
+    public ResponseEntity<Page<CustomerDTO>> getCustomersBySegmentApi(@PathVariable CustomerSegmentType segment,
+                                                                      @RequestParam(defaultValue = "0") int page,
+                                                                      @RequestParam(defaultValue = "50") int size) {
+        Page<CustomerDTO> customers = customerService.getCustomersBySegment(segment, page, size);
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+    
+    /**
+     * Get customers with minimum RFM scores as JSON
+     */
+    @GetMapping("/api/segments/rfm")
+    @ResponseBody
+    public ResponseEntity<Page<CustomerDTO>> getCustomersByRfmScoresApi(@RequestParam(defaultValue = "1") int minRecency,
+                                                                        @RequestParam(defaultValue = "1") int minFrequency,
+                                                                        @RequestParam(defaultValue = "1") int minMonetary,
+                                                                        @RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "50") int size) {
+        Page<CustomerDTO> customers = customerService.getCustomersByRfmScores(
+                minRecency, minFrequency, minMonetary, page, size);
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+    
+    /**
+     * Refresh the RFM segments via API (incrementally unless a full refresh is requested)
+     */
+    @PostMapping("/api/segments/refresh")
+    @ResponseBody
+    public ResponseEntity<Map<String, Integer>> refreshSegmentsApi(@RequestParam(defaultValue = "false") boolean full) {
+        int refreshed = full ? customerSegmentationService.refreshAll() : customerSegmentationService.refreshIncremental();
+        return new ResponseEntity<>(Map.of("refreshedCustomers", refreshed), HttpStatus.OK);
+    }
+    
+    /**
+     * Get customers of a cohort as JSON
+     */
+    @GetMapping("/api/cohorts/{cohort}")
+    @ResponseBody
+    public ResponseEntity<Page<CustomerDTO>> getCustomerCohortApi(@PathVariable CustomerCohort cohort,
+                                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                                  @RequestParam(defaultValue = "0") int page,
+                                                                  @RequestParam(defaultValue = "50") int size) {
+        Page<CustomerDTO> customers = customerService.getCustomerCohort(cohort, since, page, size);
+        return new ResponseEntity<>(customers, HttpStatus.OK);
+    }
+    
+    /**
+     * Get the number of customers in a cohort as JSON
+     */
+    @GetMapping("/api/cohorts/{cohort}/count")
+    @ResponseBody
+    public ResponseEntity<Map<String, Long>> countCustomerCohortApi(@PathVariable CustomerCohort cohort,
+                                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
+        return new ResponseEntity<>(Map.of("count", customerService.countCustomerCohort(cohort, since)), HttpStatus.OK);
+    }
 } 
\ No newline at end of file
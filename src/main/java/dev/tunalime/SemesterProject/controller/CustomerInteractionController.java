@@ -0,0 +1,145 @@
+package dev.tunalime.SemesterProject.controller;
+
+import dev.tunalime.SemesterProject.dto.ActivityGranularity;
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.dto.InteractionActivityDTO;
+import dev.tunalime.SemesterProject.dto.InteractionIngestionResultDTO;
+import dev.tunalime.SemesterProject.dto.InteractionIngestionStatsDTO;
+import dev.tunalime.SemesterProject.dto.InteractionTimelinePageDTO;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.service.InteractionActivityService;
+import dev.tunalime.SemesterProject.service.InteractionArchiveService;
+import dev.tunalime.SemesterProject.service.InteractionIngestionService;
+import dev.tunalime.SemesterProject.service.InteractionTimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller for customer interaction operations
+ */
+@Controller
+@RequestMapping("/interactions")
+public class CustomerInteractionController {
+
+    private final InteractionIngestionService interactionIngestionService;
+    private final InteractionActivityService interactionActivityService;
+    private final InteractionArchiveService interactionArchiveService;
+    private final InteractionTimelineService interactionTimelineService;
+
+    @Autowired
+    public CustomerInteractionController(InteractionIngestionService interactionIngestionService,
+                                         InteractionActivityService interactionActivityService,
+                                         InteractionArchiveService interactionArchiveService,
+                                         InteractionTimelineService interactionTimelineService) {
+        this.interactionIngestionService = interactionIngestionService;
+        this.interactionActivityService = interactionActivityService;
+        this.interactionArchiveService = interactionArchiveService;
+        this.interactionTimelineService = interactionTimelineService;
+    }
+
+    /**
+     * Ingest a burst of interactions asynchronously via API
+     * Responds 202 when anything was accepted and 503 when the buffer is full
+     */
+    @PostMapping("/api/ingest")
+    @ResponseBody
+    public ResponseEntity<InteractionIngestionResultDTO> ingestInteractionsApi(
+            @RequestBody List<CustomerInteractionDTO> interactions) {
+        InteractionIngestionResultDTO result = interactionIngestionService.ingest(interactions);
+        HttpStatus status = result.getAccepted() == 0 && result.getDropped() > 0 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.ACCEPTED;
+        return new ResponseEntity<>(result, status);
+    }
+
+    /**
+     * Get the ingestion pipeline counters as JSON
+     */
+    @GetMapping("/api/ingest/stats")
+    @ResponseBody
+    public ResponseEntity<InteractionIngestionStatsDTO> getIngestionStatsApi() {
+        return new ResponseEntity<>(interactionIngestionService.getStats(), HttpStatus.OK);
+    }
+
+    /**
+     * Get interaction counts per hour, day or month for a time range as JSON
+     */
+    @GetMapping("/api/activity")
+    @ResponseBody
+    public ResponseEntity<List<InteractionActivityDTO>> getActivityApi(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "DAY") ActivityGranularity granularity) {
+        try {
+            List<InteractionActivityDTO> activity = interactionActivityService.getActivity(from, to, granularity);
+            return new ResponseEntity<>(activity, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get the number of interactions per type as JSON
+     */
+    @GetMapping("/api/activity/types")
+    @ResponseBody
+    public ResponseEntity<Map<InteractionType, Long>> getTotalsByTypeApi() {
+        return new ResponseEntity<>(interactionActivityService.getTotalsByType(), HttpStatus.OK);
+    }
+
+    /**
+     * Rebuild the activity counters from the database via API
+     */
+    @PostMapping("/api/activity/rebuild")
+    @ResponseBody
+    public ResponseEntity<Map<InteractionType, Long>> rebuildActivityApi() {
+        interactionActivityService.rebuild();
+        return new ResponseEntity<>(interactionActivityService.getTotalsByType(), HttpStatus.OK);
+    }
+
+    /**
+     * Get one page of a customer's interaction timeline as JSON (pass the returned cursor to get the next page)
+     */
+    @GetMapping("/api/customers/{customerId}/timeline")
+    @ResponseBody
+    public ResponseEntity<InteractionTimelinePageDTO> getTimelinePageApi(@PathVariable Long customerId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "20") int size,
+                                                                         @RequestParam(required = false) Set<InteractionType> types) {
+        try {
+            return new ResponseEntity<>(interactionTimelineService.getTimelinePage(customerId, cursor, size, types), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Get the full interaction timeline of a customer, including archived interactions, as JSON
+     */
+    @GetMapping("/api/customers/{customerId}/timeline/full")
+    @ResponseBody
+    public ResponseEntity<List<CustomerInteractionDTO>> getFullTimelineApi(@PathVariable Long customerId) {
+        try {
+            return new ResponseEntity<>(interactionArchiveService.getFullTimeline(customerId), HttpStatus.OK);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Archive interactions older than the given number of days via API
+     */
+    @PostMapping("/api/archive")
+    @ResponseBody
+    public ResponseEntity<Map<String, Integer>> archiveInteractionsApi(@RequestParam int olderThanDays) {
+        int archived = interactionArchiveService.archiveOlderThan(LocalDateTime.now().minusDays(olderThanDays));
+        return new ResponseEntity<>(Map.of("archivedInteractions", archived), HttpStatus.OK);
+    }
+}
@@ -1,15 +1,20 @@
 package dev.tunalime.SemesterProject.controller;
 
 import dev.tunalime.SemesterProject.config.SampleDataInitializer;
+import dev.tunalime.SemesterProject.config.SyntheticDataGenerator;
+import dev.tunalime.SemesterProject.dto.SyntheticDataSpecDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
 
 /**
- * Controller for sample data initialization
+ * Controller for sample and synthetic data initialization
  */
 @RestController
 public class DataInitializerController {
@@ -17,6 +22,9 @@ public class DataInitializerController {
     @Autowired
     private SampleDataInitializer sampleDataInitializer;
 
+    @Autowired
+    private SyntheticDataGenerator syntheticDataGenerator;
+
     /**
      * Endpoint to initialize sample data for development and testing
      * @return Summary of data created
@@ -26,4 +34,22 @@ public class DataInitializerController {
         Map<String, Integer> result = sampleDataInitializer.initializeData();
         return ResponseEntity.ok(result);
     }
+
+    /**
+     * Endpoint to generate a large seeded data set for load testing, into the empty database or into CSV files
+     * @param spec Target sizes and settings, missing values fall back to the app.synthetic-data properties
+     * @return Number of rows per table and the elapsed time
+     */
+    @PostMapping("/createSyntheticData")
+    public ResponseEntity<Map<String, Long>> createSyntheticData(@RequestBody(required = false) SyntheticDataSpecDTO spec) {
+        try {
+            Map<String, Long> result = syntheticDataGenerator.generate(spec != null ? spec : new SyntheticDataSpecDTO());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            // Tables already contain data
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+    }
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package dev.tunalime.SemesterProject.controller;
 
 import dev.tunalime.SemesterProject.dto.SalesForecastDTO;
+import dev.tunalime.SemesterProject.dto.StaffingForecastDTO;
 import dev.tunalime.SemesterProject.entity.SalesForecast;
 import dev.tunalime.SemesterProject.repository.VehicleRepository;
 import dev.tunalime.SemesterProject.service.ForecastService;
@@ -72,6 +73,21 @@ public class ForecastController {
         return new ResponseEntity<>(packages, HttpStatus.OK);
     }
     
+    /**
+     * Get the hourly test drive demand and staffing forecast as JSON
+     */
+    @GetMapping("/api/test-drives/staffing")
+    @ResponseBody
+    public ResponseEntity<List<StaffingForecastDTO>> getTestDriveStaffingForecast(
+            @RequestParam(defaultValue = "8") int numberOfPeriods, @RequestParam(defaultValue = "2") int weeks) {
+        try {
+            List<StaffingForecastDTO> forecast = forecastService.forecastTestDriveStaffing(numberOfPeriods, weeks);
+            return new ResponseEntity<>(forecast, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+    
     /**
      * Generate forecast
      */
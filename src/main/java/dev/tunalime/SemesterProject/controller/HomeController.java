@@ -72,7 +72,7 @@ public class HomeController {
         int currentYear = Year.now().getValue();
         Map<String, Long> monthlySales = new HashMap<>();
         
-        saleRepository.countSalesByMonthForYear(currentYear).forEach(data -> {
+        saleRepository.countSalesByMonthBetween(LocalDate.of(currentYear, 1, 1), LocalDate.of(currentYear + 1, 1, 1)).forEach(data -> {
             int month = ((Number) data[0]).intValue();
             long count = ((Number) data[1]).longValue();
             
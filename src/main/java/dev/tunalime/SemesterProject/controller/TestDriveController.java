@@ -1,23 +1,32 @@
 package dev.tunalime.SemesterProject.controller;
 
+import dev.tunalime.SemesterProject.dto.BulkScheduleResultDTO;
 import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.ResourceCalendarDTO;
+import dev.tunalime.SemesterProject.dto.StaffWorkloadDTO;
 import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.dto.TodayBoardDTO;
 import dev.tunalime.SemesterProject.dto.VehicleDTO;
 import dev.tunalime.SemesterProject.entity.TestDriveStatus;
 import dev.tunalime.SemesterProject.service.CustomerService;
+import dev.tunalime.SemesterProject.service.TestDriveCalendarService;
 import dev.tunalime.SemesterProject.service.TestDriveService;
+import dev.tunalime.SemesterProject.service.TodayBoardService;
 import dev.tunalime.SemesterProject.service.VehicleService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -31,14 +40,20 @@ public class TestDriveController {
     private final TestDriveService testDriveService;
     private final CustomerService customerService;
     private final VehicleService vehicleService;
+    private final TestDriveCalendarService testDriveCalendarService;
+    private final TodayBoardService todayBoardService;
 
     @Autowired
     public TestDriveController(TestDriveService testDriveService,
                                CustomerService customerService,
-                               VehicleService vehicleService) {
+                               VehicleService vehicleService,
+                               TestDriveCalendarService testDriveCalendarService,
+                               TodayBoardService todayBoardService) {
         this.testDriveService = testDriveService;
         this.customerService = customerService;
         this.vehicleService = vehicleService;
+        this.testDriveCalendarService = testDriveCalendarService;
+        this.todayBoardService = todayBoardService;
     }
 
     /**
@@ -243,8 +258,94 @@ public class TestDriveController {
         try {
             TestDriveDTO savedTestDrive = testDriveService.scheduleTestDrive(testDriveDTO);
             return new ResponseEntity<>(savedTestDrive, HttpStatus.CREATED);
+        } catch (IllegalStateException e) {
+            // Vehicle, customer or staff member already booked at that time
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Schedule several test drives at once via API, with one result per test drive
+     */
+    @PostMapping("/api/schedule/bulk")
+    @ResponseBody
+    public ResponseEntity<List<BulkScheduleResultDTO>> scheduleTestDrivesApi(@RequestBody List<TestDriveDTO> testDriveDTOs) {
+        try {
+            List<BulkScheduleResultDTO> results = testDriveService.scheduleTestDrives(testDriveDTOs);
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+    
+    /**
+     * Get the next free test drive slots as JSON
+     */
+    @GetMapping("/api/slots")
+    @ResponseBody
+    public ResponseEntity<List<LocalDateTime>> getAvailableSlotsApi(
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) Long customerId,
+            @RequestParam(required = false) String staffMemberName,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) Integer durationMinutes,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<LocalDateTime> slots = testDriveService.getAvailableSlots(vehicleId, customerId, staffMemberName,
+                from != null ? from : LocalDateTime.now(), durationMinutes, Math.min(limit, 100));
+        return new ResponseEntity<>(slots, HttpStatus.OK);
+    }
+    
+    /**
+     * Get busy and free intervals per vehicle (default) or per staff member as JSON
+     */
+    @GetMapping("/api/calendar")
+    @ResponseBody
+    public ResponseEntity<List<ResourceCalendarDTO>> getCalendarApi(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long vehicleId,
+            @RequestParam(required = false) String staffMemberName,
+            @RequestParam(defaultValue = "false") boolean byStaff) {
+        try {
+            List<ResourceCalendarDTO> calendars = byStaff || staffMemberName != null
+                    ? testDriveCalendarService.getStaffCalendars(from, to, staffMemberName)
+                    : testDriveCalendarService.getVehicleCalendars(from, to, vehicleId);
+            return new ResponseEntity<>(calendars, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (RuntimeException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+    
+    /**
+     * Get today's scheduled test drives as JSON (served from memory)
+     */
+    @GetMapping("/api/today")
+    @ResponseBody
+    public ResponseEntity<TodayBoardDTO> getTodayBoardApi() {
+        return new ResponseEntity<>(todayBoardService.getBoard(), HttpStatus.OK);
+    }
+    
+    /**
+     * Stream today's scheduled test drives to showroom displays as server-sent events
+     */
+    @GetMapping(value = "/api/today/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter streamTodayBoard() {
+        return todayBoardService.subscribe();
+    }
+    
+    /**
+     * Get the booked test drive minutes per staff member for a day as JSON
+     */
+    @GetMapping("/api/staff/workload")
+    @ResponseBody
+    public ResponseEntity<List<StaffWorkloadDTO>> getStaffWorkloadApi(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        List<StaffWorkloadDTO> workload = testDriveService.getStaffWorkload(date != null ? date : LocalDate.now());
+        return new ResponseEntity<>(workload, HttpStatus.OK);
+    }
+}
\ No newline at end of file
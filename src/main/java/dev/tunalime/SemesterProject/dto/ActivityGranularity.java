@@ -0,0 +1,10 @@
+package dev.tunalime.SemesterProject.dto;
+
+/**
+ * Enum representing the bucket sizes of the interaction activity counters
+ */
+public enum ActivityGranularity {
+    HOUR,   // One bucket per hour
+    DAY,    // One bucket per calendar day
+    MONTH   // One bucket per calendar month
+}
@@ -0,0 +1,18 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of one test drive in a bulk scheduling request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkScheduleResultDTO {
+    private int index; // Position of the test drive in the request
+    private boolean scheduled;
+    private TestDriveDTO testDrive; // Saved test drive, null if not scheduled
+    private String error; // Reason the test drive was not scheduled, null if scheduled
+}
@@ -0,0 +1,19 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the hit and miss counts of one second-level or query cache region
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio; // Hits over lookups, 0 without lookups
+}
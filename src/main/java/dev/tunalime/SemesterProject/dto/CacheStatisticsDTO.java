@@ -0,0 +1,23 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for second-level and query cache statistics since startup or the last reset
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatisticsDTO {
+    private long statementsPrepared; // JDBC statements, i.e. database round trips
+    private long entityLoads; // Entities loaded from the database
+    private long secondLevelCacheHits;
+    private long secondLevelCacheMisses;
+    private long queryCacheHits;
+    private long queryCacheMisses;
+    private List<CacheRegionStatsDTO> regions;
+}
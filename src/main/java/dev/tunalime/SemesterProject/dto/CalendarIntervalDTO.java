@@ -0,0 +1,19 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a busy or free interval in an availability calendar
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalendarIntervalDTO {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Long testDriveId; // Test drive occupying the interval, null for free intervals
+}
@@ -0,0 +1,23 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO combining a customer profile with the recent sales, test drives and interactions
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Customer360DTO {
+    private CustomerDTO customer;
+    private long totalSales;
+    private List<SaleDTO> recentSales;
+    private long totalTestDrives;
+    private List<TestDriveDTO> recentTestDrives;
+    private long totalInteractions;
+    private List<CustomerInteractionDTO> recentInteractions;
+}
@@ -0,0 +1,12 @@
+package dev.tunalime.SemesterProject.dto;
+
+/**
+ * Enum representing the customer cohorts available for marketing pulls
+ */
+public enum CustomerCohort {
+    WITH_PURCHASES,       // Customers with at least one sale
+    WITHOUT_PURCHASES,    // Customers without any sale
+    WITH_TEST_DRIVES,     // Customers with at least one test drive
+    REPEAT_CUSTOMERS,     // Customers with more than one sale
+    RECENT_INTERACTIONS   // Customers with an interaction since a given date
+}
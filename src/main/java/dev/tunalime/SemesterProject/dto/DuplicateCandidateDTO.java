@@ -0,0 +1,21 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a pair of customers that are likely to be the same person
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidateDTO {
+    private Long customerId;
+    private String customerName; // Combined first and last name for display
+    private String customerEmail;
+    private Long duplicateCustomerId;
+    private String duplicateCustomerName;
+    private String duplicateCustomerEmail;
+    private double score; // Similarity score between 0 and 1
+}
@@ -0,0 +1,24 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the interaction to test drive to sale funnel of one brand and model
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FunnelStepDTO {
+    private String brand;
+    private String model;
+    private long interested; // Customers with an interaction about the model in the window
+    private long testDriven; // ... who then test drove it
+    private long purchased; // ... who then bought it
+    private double interactionToTestDriveRate;
+    private double testDriveToSaleRate;
+    private double overallConversionRate;
+    private Double medianHoursToTestDrive; // From first interaction to first test drive, null without data
+    private Double medianHoursToSale; // From first test drive to sale, null without data
+}
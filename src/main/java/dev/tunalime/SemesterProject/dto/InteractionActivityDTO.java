@@ -0,0 +1,21 @@
+package dev.tunalime.SemesterProject.dto;
+
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO for the interaction counts of one time bucket
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionActivityDTO {
+    private LocalDateTime bucketStart;
+    private long total;
+    private Map<InteractionType, Long> countsByType;
+}
@@ -0,0 +1,17 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of a single interaction ingestion request
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionIngestionResultDTO {
+    private int accepted; // Enqueued for writing
+    private int rejected; // Invalid (missing customer or type)
+    private int dropped; // Buffer stayed full for longer than the offer timeout
+}
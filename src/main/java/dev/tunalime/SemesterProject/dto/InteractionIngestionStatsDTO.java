@@ -0,0 +1,22 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the counters of the interaction ingestion pipeline
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionIngestionStatsDTO {
+    private int queued; // Interactions waiting in the buffer
+    private int capacity; // Size of the buffer
+    private long accepted; // Enqueued for writing
+    private long rejected; // Invalid (missing customer or type)
+    private long dropped; // Buffer stayed full for longer than the offer timeout
+    private long written; // Inserted into the database
+    private long failed; // Insert failed (e.g. unknown customer or vehicle)
+    private long batches; // JDBC batches executed
+}
@@ -0,0 +1,19 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of a customer's interaction timeline
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionTimelinePageDTO {
+    private List<CustomerInteractionDTO> interactions;
+    private String nextCursor; // Opaque cursor of the next page, null on the last page
+    private boolean hasMore;
+}
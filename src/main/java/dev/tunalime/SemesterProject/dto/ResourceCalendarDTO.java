@@ -0,0 +1,21 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the busy and free intervals of one vehicle or staff member
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceCalendarDTO {
+    private Long vehicleId; // Set for vehicle calendars
+    private String staffMemberName; // Set for staff calendars
+    private String displayName;
+    private List<CalendarIntervalDTO> busy;
+    private List<CalendarIntervalDTO> free;
+}
@@ -0,0 +1,21 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the test drive workload of a staff member on one day
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaffWorkloadDTO {
+    private String staffMemberName;
+    private long bookedMinutes; // Scheduled and completed test drives
+    private long testDrives;
+    private boolean onRoster; // False for names typed in by hand that are not on the configured roster
+    private List<String> brands; // Brands the staff member may present, empty for every brand
+}
@@ -0,0 +1,22 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the forecast test drive demand and staffing of one opening hour
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StaffingForecastDTO {
+    private LocalDateTime hourStart;
+    private DayOfWeek dayOfWeek;
+    private double expectedTestDrives; // Moving average of test drives starting in this hour
+    private double expectedStaffMinutes; // Expected test drives times the average duration
+    private int requiredStaff; // Staff members needed to cover the expected minutes
+}
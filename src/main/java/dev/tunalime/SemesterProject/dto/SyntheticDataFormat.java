@@ -0,0 +1,9 @@
+package dev.tunalime.SemesterProject.dto;
+
+/**
+ * Where the synthetic data generator writes its rows
+ */
+public enum SyntheticDataFormat {
+    DATABASE, // Batched JDBC inserts into the configured datasource
+    CSV       // One CSV file per table and partition, plus load scripts
+}
@@ -0,0 +1,25 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for the target sizes and settings of a synthetic data run; missing values fall back to app.synthetic-data.*
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyntheticDataSpecDTO {
+    private Long customers;
+    private Long vehicles; // Vehicles in the inventory; every sale adds its own sold vehicle
+    private Long sales;
+    private Long interactions;
+    private Long seed; // Same seed, sizes and reference date always give the same rows
+    private LocalDate referenceDate; // "Today" for sale dates and depreciation, defaults to app.synthetic-data.reference-date
+    private Integer partitions; // ID ranges generated in parallel
+    private SyntheticDataFormat format;
+    private String outputDirectory; // Target directory of CSV files
+}
@@ -20,6 +20,7 @@ public class TestDriveDTO {
     private Long vehicleId;
     private String vehicleInfo;
     private LocalDateTime scheduledDateTime;
+    private Integer durationMinutes; // Defaults to one scheduling slot
     private LocalDateTime actualStartTime;
     private LocalDateTime actualEndTime;
     private TestDriveStatus status;
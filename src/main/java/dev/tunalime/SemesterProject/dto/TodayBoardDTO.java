@@ -0,0 +1,20 @@
+package dev.tunalime.SemesterProject.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for the showroom board of test drives scheduled for a day
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TodayBoardDTO {
+    private LocalDate date;
+    private long version; // Incremented on every change, lets clients skip redundant redraws
+    private List<TestDriveDTO> testDrives;
+}
@@ -3,7 +3,11 @@ package dev.tunalime.SemesterProject.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -14,13 +18,16 @@ import java.util.List;
  */
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Customer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customers_seq")
+    @SequenceGenerator(name = "customers_seq", sequenceName = "customers_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
@@ -39,15 +46,24 @@ public class Customer {
     @Column(nullable = false)
     private LocalDate registrationDate;
     
+    // The collections below are lazy and excluded from toString/equals/hashCode,
+    // so logging or comparing a customer never loads them
+    
     // A customer can have many interactions
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<CustomerInteraction> interactions = new ArrayList<>();
     
     // A customer can have many test drives
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<TestDrive> testDrives = new ArrayList<>();
     
     // A customer can make many sales
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Sale> sales = new ArrayList<>();
 } 
\ No newline at end of file
@@ -18,14 +18,15 @@ import java.time.LocalDateTime;
 public class CustomerInteraction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_interactions_seq")
+    @SequenceGenerator(name = "customer_interactions_seq", sequenceName = "customer_interactions_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
     
-    @Column(nullable = false)
+    @Column(name = "interaction_date", nullable = false)
     private LocalDateTime interactionDate;
     
     @Enumerated(EnumType.STRING)
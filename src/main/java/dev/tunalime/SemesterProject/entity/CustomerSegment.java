@@ -0,0 +1,64 @@
+package dev.tunalime.SemesterProject.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Entity representing the RFM (recency, frequency, monetary) scores and segment of a customer
+ */
+@Entity
+@Table(name = "customer_segments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CustomerSegment {
+    
+    // Same as the ID of the customer the scores belong to
+    @Id
+    private Long customerId;
+    
+    // Raw values the scores are computed from
+    @Column(name = "last_purchase_date")
+    private LocalDate lastPurchaseDate;
+    
+    @Column(nullable = false)
+    private Integer purchaseCount;
+    
+    @Column(nullable = false)
+    private BigDecimal monetaryValue;
+    
+    @Column(nullable = false)
+    private Integer interactionCount;
+    
+    @Column(nullable = false)
+    private Integer testDriveCount;
+    
+    private LocalDateTime lastActivityDate;
+    
+    // Scores from 1 (lowest) to 5 (highest)
+    @Column(name = "recency_score", nullable = false)
+    private Integer recencyScore;
+    
+    @Column(name = "frequency_score", nullable = false)
+    private Integer frequencyScore;
+    
+    @Column(name = "monetary_score", nullable = false)
+    private Integer monetaryScore;
+    
+    @Column(nullable = false)
+    private Integer engagementScore;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "segment", nullable = false)
+    private CustomerSegmentType segment;
+    
+    // When the scores were last computed
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
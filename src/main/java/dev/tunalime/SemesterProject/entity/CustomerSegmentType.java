@@ -0,0 +1,15 @@
+package dev.tunalime.SemesterProject.entity;
+
+/**
+ * Enum representing the RFM segment of a customer
+ */
+public enum CustomerSegmentType {
+    CHAMPION,            // Bought recently, buys often and spends the most
+    LOYAL,               // Buys regularly
+    NEW_CUSTOMER,        // First purchase was recent
+    POTENTIAL_LOYALIST,  // Recent customer with average frequency
+    AT_RISK,             // Used to buy often or spend a lot, but not recently
+    HIBERNATING,         // Last purchase was long ago
+    PROSPECT,            // No purchase yet, but engaged through interactions or test drives
+    INACTIVE             // No purchase and little or no engagement
+}
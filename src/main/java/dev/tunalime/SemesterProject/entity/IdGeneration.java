@@ -0,0 +1,13 @@
+package dev.tunalime.SemesterProject.entity;
+
+/**
+ * Shared settings of the pooled sequence ID generators
+ */
+public final class IdGeneration {
+
+    // IDs handed out per sequence call; database sequences must be created with the same increment
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGeneration() {
+    }
+}
@@ -19,14 +19,15 @@ import java.time.LocalDate;
 public class Sale {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
     
-    @OneToOne
+    @ManyToOne // A vehicle may be sold again after a cancelled sale
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
     
@@ -18,7 +18,8 @@ import java.time.LocalDate;
 public class SalesForecast {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_forecasts_seq")
+    @SequenceGenerator(name = "sales_forecasts_seq", sequenceName = "sales_forecasts_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     // The vehicle model and package being forecasted
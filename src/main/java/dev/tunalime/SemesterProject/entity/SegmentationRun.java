@@ -0,0 +1,29 @@
+package dev.tunalime.SemesterProject.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity recording a full or incremental customer segmentation run
+ */
+@Entity
+@Table(name = "segmentation_runs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SegmentationRun {
+    
+    // Computation time of the run; the next incremental run picks up activity from here on
+    @Id
+    private LocalDateTime runAt;
+    
+    @Column(nullable = false)
+    private Integer customersScored;
+    
+    @Column(nullable = false)
+    private boolean fullRefresh;
+}
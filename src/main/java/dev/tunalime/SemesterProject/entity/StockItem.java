@@ -3,7 +3,11 @@ package dev.tunalime.SemesterProject.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
@@ -14,6 +18,8 @@ import java.util.List;
  */
 @Entity
 @Table(name = "stock_items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "stock-items")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +27,8 @@ public class
 StockItem {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_items_seq")
+    @SequenceGenerator(name = "stock_items_seq", sequenceName = "stock_items_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
@@ -46,6 +53,9 @@ StockItem {
     private String specifications;
     
     // One stock item (model type) can have many physical vehicles
+    // Excluded from toString/equals/hashCode: the vehicles point back here and would load the collection or recurse
     @OneToMany(mappedBy = "stockItem", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<Vehicle> vehicles = new ArrayList<>();
 } 
\ No newline at end of file
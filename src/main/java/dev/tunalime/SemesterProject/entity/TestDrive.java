@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 public class TestDrive {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "test_drives_seq")
+    @SequenceGenerator(name = "test_drives_seq", sequenceName = "test_drives_seq", allocationSize = IdGeneration.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne
@@ -29,9 +30,12 @@ public class TestDrive {
     @JoinColumn(name = "vehicle_id", nullable = false)
     private Vehicle vehicle;
     
-    @Column(nullable = false)
+    @Column(name = "scheduled_date_time", nullable = false)
     private LocalDateTime scheduledDateTime;
     
+    // Planned length of the test drive in minutes
+    private Integer durationMinutes;
+    
     private LocalDateTime actualStartTime;
     
     private LocalDateTime actualEndTime;
@@ -0,0 +1,8 @@
+package dev.tunalime.SemesterProject.event;
+
+/**
+ * Event published when a duplicate customer has been merged into another customer and deleted.
+ * Listeners keeping in-memory views handle it once the merge is committed.
+ */
+public record CustomersMergedEvent(Long sourceCustomerId, Long targetCustomerId) {
+}
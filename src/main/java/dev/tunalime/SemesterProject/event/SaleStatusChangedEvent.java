@@ -0,0 +1,10 @@
+package dev.tunalime.SemesterProject.event;
+
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+
+/**
+ * Event published when a sale is initiated or its status changes.
+ * {@code before} is null for a new sale.
+ */
+public record SaleStatusChangedEvent(Long saleId, Long customerId, SaleStatus before, SaleStatus after) {
+}
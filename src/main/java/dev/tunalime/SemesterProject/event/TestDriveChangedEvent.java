@@ -0,0 +1,11 @@
+package dev.tunalime.SemesterProject.event;
+
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+
+/**
+ * Event published after a test drive has been scheduled, updated or deleted.
+ * Listeners keeping in-memory views handle it once the change is committed.
+ * {@code before} is null for a new test drive and {@code after} is null for a deleted one.
+ */
+public record TestDriveChangedEvent(TestDriveDTO before, TestDriveDTO after) {
+}
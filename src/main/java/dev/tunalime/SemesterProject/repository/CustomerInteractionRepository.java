@@ -1,13 +1,21 @@
 package dev.tunalime.SemesterProject.repository;
 
+import dev.tunalime.SemesterProject.entity.Customer;
 import dev.tunalime.SemesterProject.entity.CustomerInteraction;
 import dev.tunalime.SemesterProject.entity.InteractionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerInteractionRepository extends JpaRepository<CustomerInteraction, Long> {
@@ -33,4 +41,70 @@ public interface CustomerInteractionRepository extends JpaRepository<CustomerInt
     // Count interactions per day for a date range
     @Query("SELECT FUNCTION('DATE', i.interactionDate) as date, COUNT(i) FROM CustomerInteraction i WHERE i.interactionDate BETWEEN ?1 AND ?2 GROUP BY FUNCTION('DATE', i.interactionDate) ORDER BY date")
     List<Object[]> countInteractionsByDateForRange(LocalDateTime startDateTime, LocalDateTime endDateTime);
+    
+    // Re-point all rows of one customer to another in a single bulk update (used when merging duplicates)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE CustomerInteraction i SET i.customer = ?2 WHERE i.customer = ?1")
+    int reassignCustomer(Customer source, Customer target);
+    
+    long countByCustomerId(Long customerId);
+    
+    // Latest interactions of a customer with the optional vehicle fetched in the same query
+    @Query("SELECT i FROM CustomerInteraction i JOIN FETCH i.customer LEFT JOIN FETCH i.vehicle v LEFT JOIN FETCH v.stockItem WHERE i.customer.id = ?1 ORDER BY i.interactionDate DESC, i.id DESC")
+    List<CustomerInteraction> findRecentByCustomerIdWithDetails(Long customerId, Pageable pageable);
+    
+    // Interaction count and latest interaction date per customer, ordered by customer ID for streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.customer.id, COUNT(i), MAX(i.interactionDate) FROM CustomerInteraction i GROUP BY i.customer.id ORDER BY i.customer.id")
+    Stream<Object[]> streamInteractionTotalsByCustomer();
+    
+    @Query("SELECT i.customer.id, COUNT(i), MAX(i.interactionDate) FROM CustomerInteraction i WHERE i.customer.id IN ?1 GROUP BY i.customer.id ORDER BY i.customer.id")
+    List<Object[]> findInteractionTotalsForCustomers(Collection<Long> customerIds);
+    
+    @Query("SELECT DISTINCT i.customer.id FROM CustomerInteraction i WHERE i.interactionDate >= ?1")
+    List<Long> findCustomerIdsWithInteractionsSince(LocalDateTime since);
+    
+    // Interaction counts per type and hour / day / month, used to warm up the in-memory activity counters
+    @Query("SELECT i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate), EXTRACT(DAY FROM i.interactionDate), EXTRACT(HOUR FROM i.interactionDate), COUNT(i) " +
+            "FROM CustomerInteraction i WHERE i.interactionDate >= ?1 " +
+            "GROUP BY i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate), EXTRACT(DAY FROM i.interactionDate), EXTRACT(HOUR FROM i.interactionDate)")
+    List<Object[]> countInteractionsByTypeAndHourSince(LocalDateTime since);
+    
+    @Query("SELECT i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate), EXTRACT(DAY FROM i.interactionDate), COUNT(i) " +
+            "FROM CustomerInteraction i WHERE i.interactionDate >= ?1 " +
+            "GROUP BY i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate), EXTRACT(DAY FROM i.interactionDate)")
+    List<Object[]> countInteractionsByTypeAndDaySince(LocalDateTime since);
+    
+    @Query("SELECT i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate), COUNT(i) " +
+            "FROM CustomerInteraction i WHERE i.interactionDate >= ?1 " +
+            "GROUP BY i.type, EXTRACT(YEAR FROM i.interactionDate), EXTRACT(MONTH FROM i.interactionDate)")
+    List<Object[]> countInteractionsByTypeAndMonthSince(LocalDateTime since);
+    
+    // Interactions older than the cutoff as (id, customer ID, date, type, vehicle ID), ordered for writing archive segments
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.id, i.customer.id, i.interactionDate, i.type, v.id FROM CustomerInteraction i LEFT JOIN i.vehicle v " +
+            "WHERE i.interactionDate < ?1 ORDER BY i.customer.id, i.id")
+    Stream<Object[]> streamForArchive(LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM CustomerInteraction i WHERE i.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
+    
+    // Keyset page of a customer's timeline: interactions strictly before the (date, id) cursor, newest first
+    @Query("SELECT i FROM CustomerInteraction i JOIN FETCH i.customer LEFT JOIN FETCH i.vehicle v LEFT JOIN FETCH v.stockItem " +
+            "WHERE i.customer.id = ?1 AND (i.interactionDate < ?2 OR (i.interactionDate = ?2 AND i.id < ?3)) " +
+            "ORDER BY i.interactionDate DESC, i.id DESC")
+    List<CustomerInteraction> findTimelinePage(Long customerId, LocalDateTime beforeDate, Long beforeId, Pageable pageable);
+    
+    @Query("SELECT i FROM CustomerInteraction i JOIN FETCH i.customer LEFT JOIN FETCH i.vehicle v LEFT JOIN FETCH v.stockItem " +
+            "WHERE i.customer.id = ?1 AND (i.interactionDate < ?2 OR (i.interactionDate = ?2 AND i.id < ?3)) AND i.type IN ?4 " +
+            "ORDER BY i.interactionDate DESC, i.id DESC")
+    List<CustomerInteraction> findTimelinePageByTypes(Long customerId, LocalDateTime beforeDate, Long beforeId,
+                                                      Collection<InteractionType> types, Pageable pageable);
+    
+    // Vehicle-related interactions as (customer ID, brand, model, date) in a time range, ordered by customer for the funnel merge
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT i.customer.id, v.brand, v.model, i.interactionDate FROM CustomerInteraction i JOIN i.vehicle v " +
+            "WHERE i.interactionDate >= ?1 AND i.interactionDate < ?2 ORDER BY i.customer.id, i.interactionDate")
+    Stream<Object[]> streamFunnelEvents(LocalDateTime start, LocalDateTime end);
 } 
\ No newline at end of file
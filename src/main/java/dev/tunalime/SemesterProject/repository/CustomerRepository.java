@@ -1,14 +1,22 @@
 package dev.tunalime.SemesterProject.repository;
 
 import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
@@ -21,18 +29,39 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, JpaSp
     
     List<Customer> findByRegistrationDateBetween(LocalDate startDate, LocalDate endDate);
     
-    @Query("SELECT c FROM Customer c JOIN c.sales s GROUP BY c HAVING COUNT(s) > 0")
+    // The cohort queries below are semi-joins: EXISTS stops at the first matching row of the (customer_id) index
+    
+    @Query("SELECT c FROM Customer c WHERE EXISTS (SELECT s.id FROM Sale s WHERE s.customer = c)")
     List<Customer> findCustomersWithPurchases();
     
-    @Query("SELECT c FROM Customer c LEFT JOIN c.sales s GROUP BY c HAVING COUNT(s) = 0")
+    @Query("SELECT c FROM Customer c WHERE NOT EXISTS (SELECT s.id FROM Sale s WHERE s.customer = c)")
     List<Customer> findCustomersWithoutPurchases();
     
-    @Query("SELECT c FROM Customer c JOIN c.testDrives t GROUP BY c HAVING COUNT(t) > 0")
+    @Query("SELECT c FROM Customer c WHERE EXISTS (SELECT t.id FROM TestDrive t WHERE t.customer = c)")
     List<Customer> findCustomersWithTestDrives();
     
-    @Query("SELECT c FROM Customer c JOIN c.interactions i WHERE i.interactionDate >= ?1 GROUP BY c")
-    List<Customer> findCustomersWithRecentInteractions(LocalDate sinceDate);
+    @Query("SELECT c FROM Customer c WHERE EXISTS (SELECT i.id FROM CustomerInteraction i WHERE i.customer = c AND i.interactionDate >= ?1)")
+    List<Customer> findCustomersWithRecentInteractions(LocalDateTime since);
     
-    @Query("SELECT c FROM Customer c JOIN c.sales s GROUP BY c HAVING COUNT(s) > 1")
+    @Query("SELECT c FROM Customer c WHERE EXISTS (SELECT s.id FROM Sale s WHERE s.customer = c " +
+            "AND EXISTS (SELECT s2.id FROM Sale s2 WHERE s2.customer = c AND s2.id <> s.id))")
     List<Customer> findRepeatCustomers();
+    
+    // Lightweight projection (id, first name, last name, email, phone) used by duplicate detection
+    @Query("SELECT c.id, c.firstName, c.lastName, c.email, c.phone FROM Customer c")
+    List<Object[]> findAllForDuplicateDetection();
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id FROM Customer c ORDER BY c.id")
+    Stream<Long> streamAllIds();
+    
+    // Customers that have not been scored by the segmentation yet
+    @Query("SELECT c.id FROM Customer c WHERE NOT EXISTS (SELECT s.customerId FROM CustomerSegment s WHERE s.customerId = c.id)")
+    List<Long> findIdsWithoutSegment();
+    
+    @Query("SELECT c FROM Customer c WHERE c.id IN (SELECT s.customerId FROM CustomerSegment s WHERE s.segment = ?1)")
+    Page<Customer> findBySegment(CustomerSegmentType segment, Pageable pageable);
+    
+    @Query("SELECT c FROM Customer c WHERE c.id IN (SELECT s.customerId FROM CustomerSegment s WHERE s.recencyScore >= ?1 AND s.frequencyScore >= ?2 AND s.monetaryScore >= ?3)")
+    Page<Customer> findByMinimumRfmScores(int minRecency, int minFrequency, int minMonetary, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,31 @@
+package dev.tunalime.SemesterProject.repository;
+
+import dev.tunalime.SemesterProject.entity.CustomerSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface CustomerSegmentRepository extends JpaRepository<CustomerSegment, Long> {
+    
+    // Customers whose last purchase falls in [fromDate, toDate)
+    @Query("SELECT s.customerId FROM CustomerSegment s WHERE s.lastPurchaseDate >= ?1 AND s.lastPurchaseDate < ?2")
+    List<Long> findCustomerIdsWithLastPurchaseBetween(LocalDate fromDate, LocalDate toDate);
+    
+    @Query("SELECT s.segment, COUNT(s) FROM CustomerSegment s GROUP BY s.segment")
+    List<Object[]> countCustomersBySegment();
+    
+    @Modifying
+    @Query("DELETE FROM CustomerSegment s WHERE s.customerId IN ?1")
+    int deleteByCustomerIdIn(Collection<Long> customerIds);
+    
+    // Remove scores of customers that no longer exist
+    @Modifying
+    @Query("DELETE FROM CustomerSegment s WHERE NOT EXISTS (SELECT c.id FROM Customer c WHERE c.id = s.customerId)")
+    int deleteOrphans();
+}
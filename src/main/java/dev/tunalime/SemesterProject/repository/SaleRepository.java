@@ -1,13 +1,21 @@
 package dev.tunalime.SemesterProject.repository;
 
+import dev.tunalime.SemesterProject.entity.Customer;
 import dev.tunalime.SemesterProject.entity.Sale;
 import dev.tunalime.SemesterProject.entity.SaleStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleRepository extends JpaRepository<Sale, Long> {
@@ -50,11 +58,47 @@ public interface SaleRepository extends JpaRepository<Sale, Long> {
     @Query("SELECT COUNT(s) FROM Sale s WHERE s.vehicle.brand = ?1 AND s.vehicle.model = ?2 AND s.vehicle.year = ?3 AND s.vehicle.packageType = ?4")
     Long countSalesByBrandAndModelAndYearAndPackage(String brand, String model, Integer year, String packageType);
     
-    // Count sales per month for a specific year
-    @Query("SELECT FUNCTION('MONTH', s.saleDate) as month, COUNT(s) FROM Sale s WHERE FUNCTION('YEAR', s.saleDate) = ?1 GROUP BY FUNCTION('MONTH', s.saleDate) ORDER BY month")
-    List<Object[]> countSalesByMonthForYear(Integer year);
+    // Count sales per month in a date range (start inclusive, end exclusive); a plain range on saleDate can use
+    // the sale date index and, on PostgreSQL, skip the monthly partitions outside the range
+    @Query("SELECT FUNCTION('MONTH', s.saleDate) as month, COUNT(s) FROM Sale s WHERE s.saleDate >= ?1 AND s.saleDate < ?2 GROUP BY FUNCTION('MONTH', s.saleDate) ORDER BY month")
+    List<Object[]> countSalesByMonthBetween(LocalDate startDate, LocalDate endDate);
     
     // Get sales data for moving average calculation
     @Query("SELECT COUNT(s) FROM Sale s WHERE s.vehicle.brand = ?1 AND s.vehicle.model = ?2 AND s.vehicle.packageType = ?3 AND s.saleDate BETWEEN ?4 AND ?5")
     Long countSalesForPeriod(String brand, String model, String packageType, LocalDate startDate, LocalDate endDate);
+    
+    // Re-point all rows of one customer to another in a single bulk update (used when merging duplicates)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Sale s SET s.customer = ?2 WHERE s.customer = ?1")
+    int reassignCustomer(Customer source, Customer target);
+    
+    long countByCustomerId(Long customerId);
+    
+    // Whether a vehicle has a sale in another status, e.g. any sale that is not cancelled
+    boolean existsByVehicleIdAndStatusNot(Long vehicleId, SaleStatus status);
+    
+    // Most recent sales of a customer with vehicle and stock item fetched in the same query
+    @Query("SELECT s FROM Sale s JOIN FETCH s.customer JOIN FETCH s.vehicle v LEFT JOIN FETCH v.stockItem WHERE s.customer.id = ?1 ORDER BY s.saleDate DESC, s.id DESC")
+    List<Sale> findRecentByCustomerIdWithDetails(Long customerId, Pageable pageable);
+    
+    // Purchase totals (last sale date, count, sum of prices) per customer, ordered by customer ID for streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.customer.id, MAX(s.saleDate), COUNT(s), SUM(s.salePrice) FROM Sale s WHERE s.status IN ?1 GROUP BY s.customer.id ORDER BY s.customer.id")
+    Stream<Object[]> streamPurchaseTotalsByCustomer(Collection<SaleStatus> statuses);
+    
+    @Query("SELECT s.customer.id, MAX(s.saleDate), COUNT(s), SUM(s.salePrice) FROM Sale s WHERE s.status IN ?1 AND s.customer.id IN ?2 GROUP BY s.customer.id ORDER BY s.customer.id")
+    List<Object[]> findPurchaseTotalsForCustomers(Collection<SaleStatus> statuses, Collection<Long> customerIds);
+    
+    @Query("SELECT DISTINCT s.customer.id FROM Sale s WHERE s.saleDate >= ?1")
+    List<Long> findCustomerIdsWithSalesSince(LocalDate since);
+    
+    // Sales as (customer ID, brand, model, date) in a date range, ordered by customer for the funnel merge
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT s.customer.id, v.brand, v.model, s.saleDate FROM Sale s JOIN s.vehicle v " +
+            "WHERE s.status IN ?3 AND s.saleDate >= ?1 AND s.saleDate < ?2 ORDER BY s.customer.id, s.saleDate")
+    Stream<Object[]> streamFunnelEvents(LocalDate start, LocalDate end, Collection<SaleStatus> statuses);
+
+    // Sales list with customer, vehicle and stock item in one query instead of one per sale
+    @Query("SELECT s FROM Sale s JOIN FETCH s.customer JOIN FETCH s.vehicle v LEFT JOIN FETCH v.stockItem ORDER BY s.id")
+    List<Sale> findAllWithDetails();
 } 
\ No newline at end of file
@@ -0,0 +1,16 @@
+package dev.tunalime.SemesterProject.repository;
+
+import dev.tunalime.SemesterProject.entity.SegmentationRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SegmentationRunRepository extends JpaRepository<SegmentationRun, LocalDateTime> {
+    
+    // Time of the most recent segmentation run
+    @Query("SELECT MAX(r.runAt) FROM SegmentationRun r")
+    LocalDateTime findLastRunAt();
+}
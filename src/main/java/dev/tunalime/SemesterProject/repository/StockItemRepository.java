@@ -1,8 +1,11 @@
 package dev.tunalime.SemesterProject.repository;
 
 import dev.tunalime.SemesterProject.entity.StockItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -19,21 +22,28 @@ public interface StockItemRepository extends JpaRepository<StockItem, Long> {
     
     List<StockItem> findByPackageType(String packageType);
     
+    // Looked up on every vehicle added, served from the query cache until the table changes
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "stock-item-lookups")})
     Optional<StockItem> findByBrandAndModelAndYearAndPackageType(
             String brand, String model, Integer year, String packageType);
     
     @Query("SELECT s FROM StockItem s JOIN s.vehicles v WHERE v.status = 'IN_STOCK' OR v.status = 'IN_SHOWROOM' GROUP BY s")
     List<StockItem> findAllWithAvailableVehicles();
     
+    // Facet values for the cascading dropdowns, served from the query cache until the table changes
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT s.brand FROM StockItem s ORDER BY s.brand")
     List<String> findAllDistinctBrands();
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT s.model FROM StockItem s WHERE s.brand = ?1 ORDER BY s.model")
     List<String> findAllDistinctModelsByBrand(String brand);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT s.year FROM StockItem s WHERE s.brand = ?1 AND s.model = ?2 ORDER BY s.year DESC")
     List<Integer> findAllDistinctYearsByBrandAndModel(String brand, String model);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT s.packageType FROM StockItem s WHERE s.brand = ?1 AND s.model = ?2 AND s.year = ?3 ORDER BY s.packageType")
     List<String> findAllDistinctPackageTypesByBrandAndModelAndYear(String brand, String model, Integer year);
 } 
\ No newline at end of file
@@ -1,13 +1,21 @@
 package dev.tunalime.SemesterProject.repository;
 
+import dev.tunalime.SemesterProject.entity.Customer;
 import dev.tunalime.SemesterProject.entity.TestDrive;
 import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TestDriveRepository extends JpaRepository<TestDrive, Long> {
@@ -35,4 +43,49 @@ public interface TestDriveRepository extends JpaRepository<TestDrive, Long> {
     // Find test drives scheduled for today that are not completed
     @Query("SELECT t FROM TestDrive t WHERE t.scheduledDateTime BETWEEN ?1 AND ?2 AND t.status = 'SCHEDULED'")
     List<TestDrive> findScheduledTestDrivesForToday(LocalDateTime startOfDay, LocalDateTime endOfDay);
+    
+    // Re-point all rows of one customer to another in a single bulk update (used when merging duplicates)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE TestDrive t SET t.customer = ?2 WHERE t.customer = ?1")
+    int reassignCustomer(Customer source, Customer target);
+    
+    long countByCustomerId(Long customerId);
+    
+    // Most recent test drives of a customer with vehicle and stock item fetched in the same query
+    @Query("SELECT t FROM TestDrive t JOIN FETCH t.customer JOIN FETCH t.vehicle v LEFT JOIN FETCH v.stockItem WHERE t.customer.id = ?1 ORDER BY t.scheduledDateTime DESC, t.id DESC")
+    List<TestDrive> findRecentByCustomerIdWithDetails(Long customerId, Pageable pageable);
+    
+    // Test drive count and latest test drive date per customer, ordered by customer ID for streaming
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.customer.id, COUNT(t), MAX(t.scheduledDateTime) FROM TestDrive t WHERE t.status NOT IN ?1 GROUP BY t.customer.id ORDER BY t.customer.id")
+    Stream<Object[]> streamTestDriveTotalsByCustomer(Collection<TestDriveStatus> excludedStatuses);
+    
+    @Query("SELECT t.customer.id, COUNT(t), MAX(t.scheduledDateTime) FROM TestDrive t WHERE t.status NOT IN ?1 AND t.customer.id IN ?2 GROUP BY t.customer.id ORDER BY t.customer.id")
+    List<Object[]> findTestDriveTotalsForCustomers(Collection<TestDriveStatus> excludedStatuses, Collection<Long> customerIds);
+    
+    @Query("SELECT DISTINCT t.customer.id FROM TestDrive t WHERE t.scheduledDateTime >= ?1")
+    List<Long> findCustomerIdsWithTestDrivesSince(LocalDateTime since);
+    
+    // Bookings (id, vehicle ID, customer ID, staff member, start, duration) of test drives with a status from a date on
+    @Query("SELECT t.id, t.vehicle.id, t.customer.id, t.staffMemberName, t.scheduledDateTime, t.durationMinutes FROM TestDrive t WHERE t.status = ?1 AND t.scheduledDateTime >= ?2")
+    List<Object[]> findBookingsFrom(TestDriveStatus status, LocalDateTime from);
+    
+    // Test drives with one of the given statuses in a time range, with customer and vehicle fetched (served by the scheduled_date_time index)
+    @Query("SELECT t FROM TestDrive t JOIN FETCH t.customer JOIN FETCH t.vehicle WHERE t.scheduledDateTime >= ?1 AND t.scheduledDateTime < ?2 AND t.status IN ?3 ORDER BY t.scheduledDateTime")
+    List<TestDrive> findInRangeWithDetails(LocalDateTime start, LocalDateTime end, Collection<TestDriveStatus> statuses);
+    
+    // Test drives as (customer ID, brand, model, date) in a time range, ordered by customer for the funnel merge
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.customer.id, v.brand, v.model, t.scheduledDateTime FROM TestDrive t JOIN t.vehicle v " +
+            "WHERE t.status IN ?3 AND t.scheduledDateTime >= ?1 AND t.scheduledDateTime < ?2 ORDER BY t.customer.id, t.scheduledDateTime")
+    Stream<Object[]> streamFunnelEvents(LocalDateTime start, LocalDateTime end, Collection<TestDriveStatus> statuses);
+    
+    // Start time and duration of test drives in a time range, for the staffing histogram (served by the scheduled_date_time index)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.scheduledDateTime, t.durationMinutes FROM TestDrive t WHERE t.scheduledDateTime >= ?1 AND t.scheduledDateTime < ?2 AND t.status IN ?3")
+    Stream<Object[]> streamScheduleHistory(LocalDateTime start, LocalDateTime end, Collection<TestDriveStatus> statuses);
+
+    // Test drive list with customer and vehicle in one query instead of one per test drive
+    @Query("SELECT t FROM TestDrive t JOIN FETCH t.customer JOIN FETCH t.vehicle v LEFT JOIN FETCH v.stockItem ORDER BY t.id")
+    List<TestDrive> findAllWithDetails();
 } 
\ No newline at end of file
@@ -2,12 +2,18 @@ package dev.tunalime.SemesterProject.repository;
 
 import dev.tunalime.SemesterProject.entity.Vehicle;
 import dev.tunalime.SemesterProject.entity.VehicleStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, Long>, JpaSpecificationExecutor<Vehicle> {
@@ -35,15 +41,25 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long>, JpaSpec
     
     List<Vehicle> findByIsAvailableForTestDriveTrue();
     
+    // Row lock held until the transaction ends, so concurrent sales of one vehicle are serialized
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM Vehicle v WHERE v.id = ?1")
+    Optional<Vehicle> findByIdForUpdate(Long id);
+    
+    // Facet values for the cascading dropdowns, served from the query cache until the table changes
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT v.brand FROM Vehicle v ORDER BY v.brand")
     List<String> findAllDistinctBrands();
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT v.model FROM Vehicle v WHERE v.brand = ?1 ORDER BY v.model")
     List<String> findAllDistinctModelsByBrand(String brand);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT v.year FROM Vehicle v WHERE v.brand = ?1 AND v.model = ?2 ORDER BY v.year DESC")
     List<Integer> findAllDistinctYearsByBrandAndModel(String brand, String model);
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "facet-queries")})
     @Query("SELECT DISTINCT v.packageType FROM Vehicle v WHERE v.brand = ?1 AND v.model = ?2 AND v.year = ?3 ORDER BY v.packageType")
     List<String> findAllDistinctPackageTypesByBrandAndModelAndYear(String brand, String model, Integer year);
     
@@ -0,0 +1,70 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CacheRegionStatsDTO;
+import dev.tunalime.SemesterProject.dto.CacheStatisticsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service exposing the Hibernate second-level and query cache statistics.
+ * Comparing the prepared statement count before and after a page load shows how many
+ * database round trips the caches saved.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Get the cache statistics
+     *
+     * @return Overall and per-region statistics
+     */
+    public CacheStatisticsDTO getStatistics() {
+        List<CacheRegionStatsDTO> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            long lookups = region.getHitCount() + region.getMissCount();
+            regions.add(new CacheRegionStatsDTO(
+                    regionName,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    lookups == 0 ? 0.0 : (double) region.getHitCount() / lookups));
+        }
+
+        return new CacheStatisticsDTO(
+                statistics.getPrepareStatementCount(),
+                statistics.getEntityLoadCount(),
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(),
+                regions);
+    }
+
+    /**
+     * Reset all counters, e.g. before measuring a page
+     */
+    public void resetStatistics() {
+        statistics.clear();
+    }
+}
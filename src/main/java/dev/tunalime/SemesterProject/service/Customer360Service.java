@@ -0,0 +1,138 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.Customer360DTO;
+import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.dto.SaleDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Service assembling the customer 360 view.
+ * The view is built from a fixed set of queries (profile, three fetch-joined lists and three counts),
+ * independent of how much history the customer has.
+ */
+@Service
+public class Customer360Service {
+
+    // Upper bound for the number of recent items returned per section
+    private static final int MAX_LIMIT = 100;
+
+    private final CustomerService customerService;
+    private final SaleService saleService;
+    private final TestDriveService testDriveService;
+    private final InteractionTimelineService interactionTimelineService;
+    private final SaleRepository saleRepository;
+    private final TestDriveRepository testDriveRepository;
+    private final CustomerInteractionRepository customerInteractionRepository;
+
+    // Run the queries concurrently on virtual threads instead of one after another
+    @Value("${app.customer360.parallel:false}")
+    private boolean parallel;
+
+    @Autowired
+    public Customer360Service(CustomerService customerService,
+                              SaleService saleService,
+                              TestDriveService testDriveService,
+                              InteractionTimelineService interactionTimelineService,
+                              SaleRepository saleRepository,
+                              TestDriveRepository testDriveRepository,
+                              CustomerInteractionRepository customerInteractionRepository) {
+        this.customerService = customerService;
+        this.saleService = saleService;
+        this.testDriveService = testDriveService;
+        this.interactionTimelineService = interactionTimelineService;
+        this.saleRepository = saleRepository;
+        this.testDriveRepository = testDriveRepository;
+        this.customerInteractionRepository = customerInteractionRepository;
+    }
+
+    /**
+     * Get the customer 360 view
+     *
+     * @param customerId Customer ID
+     * @param limit Maximum number of recent sales, test drives and interactions to include
+     * @return Customer 360 DTO
+     */
+    public Customer360DTO getCustomer360(Long customerId, int limit) {
+        Pageable recent = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+        Callable<CustomerDTO> profile = () -> customerService.getCustomerById(customerId);
+        Callable<Long> salesCount = () -> saleRepository.countByCustomerId(customerId);
+        Callable<List<SaleDTO>> sales = () -> saleRepository.findRecentByCustomerIdWithDetails(customerId, recent).stream()
+                .map(saleService::convertToDTO)
+                .collect(Collectors.toList());
+        Callable<Long> testDrivesCount = () -> testDriveRepository.countByCustomerId(customerId);
+        Callable<List<TestDriveDTO>> testDrives = () -> testDriveRepository.findRecentByCustomerIdWithDetails(customerId, recent).stream()
+                .map(testDriveService::convertToDTO)
+                .collect(Collectors.toList());
+        Callable<Long> interactionsCount = () -> customerInteractionRepository.countByCustomerId(customerId);
+        Callable<List<CustomerInteractionDTO>> interactions = () -> customerInteractionRepository.findRecentByCustomerIdWithDetails(customerId, recent).stream()
+                .map(interactionTimelineService::convertToDTO)
+                .collect(Collectors.toList());
+
+        if (!parallel) {
+            return new Customer360DTO(
+                    call(profile),
+                    call(salesCount), call(sales),
+                    call(testDrivesCount), call(testDrives),
+                    call(interactionsCount), call(interactions));
+        }
+
+        // Each task runs its query in its own short read transaction; everything it maps is fetch-joined
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<CustomerDTO> profileFuture = executor.submit(profile);
+            Future<Long> salesCountFuture = executor.submit(salesCount);
+            Future<List<SaleDTO>> salesFuture = executor.submit(sales);
+            Future<Long> testDrivesCountFuture = executor.submit(testDrivesCount);
+            Future<List<TestDriveDTO>> testDrivesFuture = executor.submit(testDrives);
+            Future<Long> interactionsCountFuture = executor.submit(interactionsCount);
+            Future<List<CustomerInteractionDTO>> interactionsFuture = executor.submit(interactions);
+
+            return new Customer360DTO(
+                    await(profileFuture),
+                    await(salesCountFuture), await(salesFuture),
+                    await(testDrivesCountFuture), await(testDrivesFuture),
+                    await(interactionsCountFuture), await(interactionsFuture));
+        }
+    }
+
+    private <T> T call(Callable<T> task) {
+        try {
+            return task.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while loading customer details", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
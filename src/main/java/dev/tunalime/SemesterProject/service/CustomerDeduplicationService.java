@@ -0,0 +1,390 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.DuplicateCandidateDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.event.CustomersMergedEvent;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.CustomerSegmentRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for detecting and merging duplicate customer records
+ */
+@Service
+public class CustomerDeduplicationService {
+
+    // Blocks larger than this are compared with a sliding window instead of all pairs
+    private static final int MAX_BLOCK_SIZE = 200;
+    private static final int WINDOW_SIZE = 20;
+
+    // Weights of the individual field similarities in the pair score
+    private static final double NAME_WEIGHT = 0.5;
+    private static final double EMAIL_WEIGHT = 0.2;
+    private static final double PHONE_WEIGHT = 0.3;
+
+    private final CustomerRepository customerRepository;
+    private final SaleRepository saleRepository;
+    private final TestDriveRepository testDriveRepository;
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final CustomerSegmentRepository customerSegmentRepository;
+    private final CustomerService customerService;
+    private final InteractionArchiveService interactionArchiveService;
+    private final TestDriveService testDriveService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public CustomerDeduplicationService(CustomerRepository customerRepository,
+                                        SaleRepository saleRepository,
+                                        TestDriveRepository testDriveRepository,
+                                        CustomerInteractionRepository customerInteractionRepository,
+                                        CustomerSegmentRepository customerSegmentRepository,
+                                        CustomerService customerService,
+                                        InteractionArchiveService interactionArchiveService,
+                                        TestDriveService testDriveService,
+                                        ApplicationEventPublisher eventPublisher) {
+        this.customerRepository = customerRepository;
+        this.saleRepository = saleRepository;
+        this.testDriveRepository = testDriveRepository;
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.customerSegmentRepository = customerSegmentRepository;
+        this.customerService = customerService;
+        this.interactionArchiveService = interactionArchiveService;
+        this.testDriveService = testDriveService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Find pairs of customers that are likely to be the same person.
+     * Only customers sharing a phonetic name key or a normalized phone number are compared.
+     *
+     * @param minScore Minimum similarity score (0-1) for a pair to be reported
+     * @return Candidate pairs ordered by descending score
+     */
+    public List<DuplicateCandidateDTO> findDuplicateCandidates(double minScore) {
+        List<CustomerRecord> records = customerRepository.findAllForDuplicateDetection().stream()
+                .map(CustomerRecord::from)
+                .toList();
+
+        // Build the blocks
+        Map<String, List<CustomerRecord>> blocks = new HashMap<>();
+        for (CustomerRecord record : records) {
+            blocks.computeIfAbsent("N:" + record.nameKey(), k -> new ArrayList<>()).add(record);
+            if (record.phone() != null) {
+                blocks.computeIfAbsent("P:" + record.phone(), k -> new ArrayList<>()).add(record);
+            }
+        }
+
+        // Score blocks in parallel; a pair found in both a name and a phone block is reported once
+        Map<PairKey, DuplicateCandidateDTO> candidates = blocks.values().parallelStream()
+                .filter(block -> block.size() > 1)
+                .flatMap(block -> scoreBlock(block, minScore).stream())
+                .collect(Collectors.toConcurrentMap(
+                        candidate -> new PairKey(candidate.getCustomerId(), candidate.getDuplicateCustomerId()),
+                        candidate -> candidate,
+                        (first, second) -> first));
+
+        return candidates.values().stream()
+                .sorted(Comparator.comparingDouble(DuplicateCandidateDTO::getScore).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Merge a duplicate customer into another customer.
+     * Sales, test drives and interactions of the duplicate, including archived interactions, are moved to the target
+     * and the duplicate is deleted.
+     *
+     * @param targetId ID of the customer to keep
+     * @param sourceId ID of the duplicate customer to merge and remove
+     * @return Merged customer
+     */
+    @Transactional
+    public CustomerDTO mergeCustomers(Long targetId, Long sourceId) {
+        if (targetId.equals(sourceId)) {
+            throw new RuntimeException("A customer cannot be merged into itself");
+        }
+
+        Customer target = customerRepository.findById(targetId)
+                .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + targetId));
+        Customer source = customerRepository.findById(sourceId)
+                .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + sourceId));
+
+        // Keep the target profile, filling in what is missing from the duplicate
+        if (isBlank(target.getPhone())) {
+            target.setPhone(source.getPhone());
+        }
+        if (isBlank(target.getAddress())) {
+            target.setAddress(source.getAddress());
+        }
+        if (source.getRegistrationDate().isBefore(target.getRegistrationDate())) {
+            target.setRegistrationDate(source.getRegistrationDate());
+        }
+
+        // The bulk update below bypasses the entities, so the views of the moved test drives are updated from events
+        List<TestDriveDTO> movedTestDrives = testDriveRepository.findRecentByCustomerIdWithDetails(sourceId, Pageable.unpaged())
+                .stream()
+                .map(testDriveService::convertToDTO)
+                .toList();
+        String targetName = target.getFirstName() + " " + target.getLastName();
+
+        // Re-point the history in bulk; the updates flush the changes above and clear the persistence context
+        saleRepository.reassignCustomer(source, target);
+        testDriveRepository.reassignCustomer(source, target);
+        customerInteractionRepository.reassignCustomer(source, target);
+        
+        // Both customers are re-scored by the next segmentation run
+        customerSegmentRepository.deleteByCustomerIdIn(List.of(targetId, sourceId));
+
+        // The duplicate is reloaded with empty collections, so removing it does not cascade to the moved rows
+        customerRepository.deleteById(sourceId);
+
+        // Last, so a failure above leaves the archive untouched; the archived copies are re-keyed to the target
+        interactionArchiveService.reassignCustomer(sourceId, targetId);
+
+        // Delivered after commit: the scheduling engine re-keys the bookings, the other views move the test drives
+        eventPublisher.publishEvent(new CustomersMergedEvent(sourceId, targetId));
+        for (TestDriveDTO before : movedTestDrives) {
+            TestDriveDTO after = new TestDriveDTO(before.getId(), targetId, targetName, before.getVehicleId(),
+                    before.getVehicleInfo(), before.getScheduledDateTime(), before.getDurationMinutes(),
+                    before.getActualStartTime(), before.getActualEndTime(), before.getStatus(),
+                    before.getCustomerFeedback(), before.getStaffMemberName());
+            eventPublisher.publishEvent(new TestDriveChangedEvent(before, after));
+        }
+
+        return customerService.getCustomerById(targetId);
+    }
+
+    /**
+     * Score all candidate pairs inside a block
+     *
+     * @param block Customers sharing a blocking key
+     * @param minScore Minimum similarity score
+     * @return Pairs scoring at least the minimum score
+     */
+    private List<DuplicateCandidateDTO> scoreBlock(List<CustomerRecord> block, double minScore) {
+        List<DuplicateCandidateDTO> result = new ArrayList<>();
+
+        if (block.size() <= MAX_BLOCK_SIZE) {
+            for (int i = 0; i < block.size(); i++) {
+                for (int j = i + 1; j < block.size(); j++) {
+                    addIfSimilar(block.get(i), block.get(j), minScore, result);
+                }
+            }
+        } else {
+            // Very common names: only compare records that are close to each other in name order
+            List<CustomerRecord> sorted = new ArrayList<>(block);
+            sorted.sort(Comparator.comparing(CustomerRecord::fullName).thenComparing(CustomerRecord::emailLocalPart));
+            for (int i = 0; i < sorted.size(); i++) {
+                int end = Math.min(sorted.size(), i + 1 + WINDOW_SIZE);
+                for (int j = i + 1; j < end; j++) {
+                    addIfSimilar(sorted.get(i), sorted.get(j), minScore, result);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void addIfSimilar(CustomerRecord a, CustomerRecord b, double minScore, List<DuplicateCandidateDTO> result) {
+        double score = score(a, b);
+        if (score < minScore) {
+            return;
+        }
+
+        // Always report the older record (lower ID) first so that pairs from different blocks match
+        CustomerRecord first = a.id() < b.id() ? a : b;
+        CustomerRecord second = first == a ? b : a;
+        result.add(new DuplicateCandidateDTO(
+                first.id(), first.displayName(), first.email(),
+                second.id(), second.displayName(), second.email(),
+                Math.round(score * 1000) / 1000.0));
+    }
+
+    /**
+     * Weighted similarity of two customers; the phone only counts when both customers have one
+     */
+    private double score(CustomerRecord a, CustomerRecord b) {
+        double total = NAME_WEIGHT * jaroWinkler(a.fullName(), b.fullName())
+                + EMAIL_WEIGHT * jaroWinkler(a.emailLocalPart(), b.emailLocalPart());
+        double weights = NAME_WEIGHT + EMAIL_WEIGHT;
+
+        if (a.phone() != null && b.phone() != null) {
+            total += PHONE_WEIGHT * (a.phone().equals(b.phone()) ? 1.0 : 0.0);
+            weights += PHONE_WEIGHT;
+        }
+
+        return total / weights;
+    }
+
+    /**
+     * Jaro-Winkler similarity between two strings (1 = identical)
+     */
+    static double jaroWinkler(String s1, String s2) {
+        if (s1.equals(s2)) {
+            return 1.0;
+        }
+        if (s1.isEmpty() || s2.isEmpty()) {
+            return 0.0;
+        }
+
+        int matchDistance = Math.max(0, Math.max(s1.length(), s2.length()) / 2 - 1);
+        boolean[] s1Matches = new boolean[s1.length()];
+        boolean[] s2Matches = new boolean[s2.length()];
+
+        int matches = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            int start = Math.max(0, i - matchDistance);
+            int end = Math.min(i + matchDistance + 1, s2.length());
+            for (int j = start; j < end; j++) {
+                if (!s2Matches[j] && s1.charAt(i) == s2.charAt(j)) {
+                    s1Matches[i] = true;
+                    s2Matches[j] = true;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+
+        int transpositions = 0;
+        int k = 0;
+        for (int i = 0; i < s1.length(); i++) {
+            if (s1Matches[i]) {
+                while (!s2Matches[k]) {
+                    k++;
+                }
+                if (s1.charAt(i) != s2.charAt(k)) {
+                    transpositions++;
+                }
+                k++;
+            }
+        }
+
+        double m = matches;
+        double jaro = (m / s1.length() + m / s2.length() + (m - transpositions / 2.0) / m) / 3.0;
+
+        // Winkler bonus for a common prefix of up to 4 characters
+        int prefix = 0;
+        while (prefix < Math.min(4, Math.min(s1.length(), s2.length())) && s1.charAt(prefix) == s2.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * 0.1 * (1.0 - jaro);
+    }
+
+    /**
+     * Soundex code of an already normalized (lowercase a-z) string
+     */
+    static String soundex(String value) {
+        if (value.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder code = new StringBuilder().append(Character.toUpperCase(value.charAt(0)));
+        char previous = soundexDigit(value.charAt(0));
+        for (int i = 1; i < value.length() && code.length() < 4; i++) {
+            char c = value.charAt(i);
+            char digit = soundexDigit(c);
+            if (digit != '0' && digit != previous) {
+                code.append(digit);
+            }
+            // 'h' and 'w' do not separate letters with the same code, vowels do
+            if (c != 'h' && c != 'w') {
+                previous = digit;
+            }
+        }
+        while (code.length() < 4) {
+            code.append('0');
+        }
+        return code.toString();
+    }
+
+    private static char soundexDigit(char c) {
+        return switch (c) {
+            case 'b', 'f', 'p', 'v' -> '1';
+            case 'c', 'g', 'j', 'k', 'q', 's', 'x', 'z' -> '2';
+            case 'd', 't' -> '3';
+            case 'l' -> '4';
+            case 'm', 'n' -> '5';
+            case 'r' -> '6';
+            default -> '0';
+        };
+    }
+
+    /**
+     * Fold Turkish and other accented letters to plain lowercase a-z and drop everything else
+     */
+    static String normalizeText(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .replace('\u0131', 'i'); // dotless i has no decomposition
+        return decomposed.toLowerCase(Locale.ROOT).replaceAll("[^a-z]", "");
+    }
+
+    /**
+     * Keep the last 10 digits of a phone number so that +90 / 0 prefixes compare equal
+     */
+    static String normalizePhone(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        if (digits.length() < 7) {
+            return null;
+        }
+        return digits.length() > 10 ? digits.substring(digits.length() - 10) : digits;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * Customer fields prepared once for blocking and scoring
+     */
+    private record CustomerRecord(Long id, String displayName, String email,
+                                  String fullName, String emailLocalPart, String nameKey, String phone) {
+
+        static CustomerRecord from(Object[] row) {
+            String firstName = normalizeText((String) row[1]);
+            String lastName = normalizeText((String) row[2]);
+            String email = (String) row[3];
+            int at = email.indexOf('@');
+            String localPart = normalizeText(at >= 0 ? email.substring(0, at) : email);
+
+            return new CustomerRecord(
+                    (Long) row[0],
+                    row[1] + " " + row[2],
+                    email,
+                    firstName + " " + lastName,
+                    localPart,
+                    soundex(lastName) + soundex(firstName),
+                    normalizePhone((String) row[4]));
+        }
+    }
+
+    private record PairKey(Long first, Long second) {
+    }
+}
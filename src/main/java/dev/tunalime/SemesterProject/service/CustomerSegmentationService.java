@@ -0,0 +1,399 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.CustomerSegment;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import dev.tunalime.SemesterProject.entity.SegmentationRun;
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.SaleStatusChangedEvent;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.CustomerSegmentRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.SegmentationRunRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Service computing RFM (recency, frequency, monetary) scores and engagement for customers.
+ * A full refresh merges four customer-ordered streams (customers, purchase totals, interaction totals and
+ * test drive totals) in a single pass; the nightly refresh only recomputes customers with new activity since the
+ * last recorded run, and a customer is re-scored as soon as the status of one of their sales changes.
+ */
+@Service
+public class CustomerSegmentationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSegmentationService.class);
+
+    // Segments are flushed in batches of this size, customers are refreshed incrementally in chunks of this size
+    private static final int BATCH_SIZE = 500;
+    private static final int CHUNK_SIZE = 1000;
+
+    // A purchase at most this many days ago scores 5, 4, 3, 2 respectively; older purchases score 1
+    private static final int[] RECENCY_DAYS = {90, 180, 365, 730};
+
+    // A value at or above each threshold adds one point to a base score of 1
+    private static final long[] FREQUENCY_THRESHOLDS = {1, 2, 3, 5};
+    private static final long[] MONETARY_THRESHOLDS = {750_000, 1_500_000, 2_500_000, 5_000_000};
+    private static final long[] ENGAGEMENT_THRESHOLDS = {1, 3, 5, 10};
+
+    // Only sales that went through count as purchases, as in the funnel; test drives that did not happen do not count
+    private static final Set<SaleStatus> PURCHASE_STATUSES = EnumSet.of(SaleStatus.COMPLETED, SaleStatus.DELIVERED);
+    private static final List<TestDriveStatus> EXCLUDED_TEST_DRIVE_STATUSES =
+            List.of(TestDriveStatus.CANCELLED, TestDriveStatus.NO_SHOW);
+
+    private final CustomerRepository customerRepository;
+    private final SaleRepository saleRepository;
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final TestDriveRepository testDriveRepository;
+    private final CustomerSegmentRepository customerSegmentRepository;
+    private final SegmentationRunRepository segmentationRunRepository;
+    private final TransactionTemplate rescoreTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    public CustomerSegmentationService(CustomerRepository customerRepository,
+                                       SaleRepository saleRepository,
+                                       CustomerInteractionRepository customerInteractionRepository,
+                                       TestDriveRepository testDriveRepository,
+                                       CustomerSegmentRepository customerSegmentRepository,
+                                       SegmentationRunRepository segmentationRunRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.customerRepository = customerRepository;
+        this.saleRepository = saleRepository;
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.testDriveRepository = testDriveRepository;
+        this.customerSegmentRepository = customerSegmentRepository;
+        this.segmentationRunRepository = segmentationRunRepository;
+        // Runs after the sale's transaction has committed, so it needs a transaction of its own
+        this.rescoreTransaction = new TransactionTemplate(transactionManager);
+        this.rescoreTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Nightly refresh of the customer segments
+     */
+    @Scheduled(cron = "${app.segmentation.cron:0 30 2 * * *}")
+    @Transactional
+    public void scheduledRefresh() {
+        int refreshed = refreshIncremental();
+        logger.info("Customer segmentation refreshed {} customers", refreshed);
+    }
+
+    /**
+     * Recompute the segments of all customers
+     *
+     * @return Number of customers scored
+     */
+    @Transactional
+    public int refreshAll() {
+        LocalDateTime now = LocalDateTime.now();
+        customerSegmentRepository.deleteAllInBatch();
+
+        int scored;
+        try (Stream<Long> customerIds = customerRepository.streamAllIds();
+             Stream<Object[]> purchases = saleRepository.streamPurchaseTotalsByCustomer(PURCHASE_STATUSES);
+             Stream<Object[]> interactions = customerInteractionRepository.streamInteractionTotalsByCustomer();
+             Stream<Object[]> testDrives = testDriveRepository.streamTestDriveTotalsByCustomer(EXCLUDED_TEST_DRIVE_STATUSES)) {
+            scored = score(customerIds.iterator(), purchases.iterator(), interactions.iterator(), testDrives.iterator(), now);
+        }
+        segmentationRunRepository.save(new SegmentationRun(now, scored, true));
+        return scored;
+    }
+
+    /**
+     * Recompute the segments of customers with activity since the last run.
+     * Customers whose last purchase has aged past a recency threshold and customers without
+     * a segment yet are recomputed as well. Falls back to a full refresh on the first run.
+     *
+     * @return Number of customers scored
+     */
+    @Transactional
+    public int refreshIncremental() {
+        LocalDateTime lastRun = segmentationRunRepository.findLastRunAt();
+        if (lastRun == null) {
+            return refreshAll();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate lastRunDate = lastRun.toLocalDate();
+        customerSegmentRepository.deleteOrphans();
+
+        Set<Long> customerIds = new TreeSet<>();
+        customerIds.addAll(saleRepository.findCustomerIdsWithSalesSince(lastRunDate));
+        customerIds.addAll(customerInteractionRepository.findCustomerIdsWithInteractionsSince(lastRun));
+        customerIds.addAll(testDriveRepository.findCustomerIdsWithTestDrivesSince(lastRun));
+        customerIds.addAll(customerRepository.findIdsWithoutSegment());
+        for (int days : RECENCY_DAYS) {
+            customerIds.addAll(customerSegmentRepository.findCustomerIdsWithLastPurchaseBetween(
+                    lastRunDate.minusDays(days), now.toLocalDate().minusDays(days)));
+        }
+
+        // Sorted IDs keep the chunk queries and the merge in the same order
+        int scored = rescore(new ArrayList<>(customerIds), now);
+        segmentationRunRepository.save(new SegmentationRun(now, scored, false));
+        return scored;
+    }
+
+    /**
+     * Re-score the customer of a sale whose status changed, once the change is committed.
+     * The incremental refresh finds customers by sale date, which a later status change does not move.
+     * No run is recorded, so the next incremental refresh still picks up every other customer's activity.
+     *
+     * @param event Sale status change
+     */
+    @TransactionalEventListener
+    public void onSaleStatusChanged(SaleStatusChangedEvent event) {
+        if (!PURCHASE_STATUSES.contains(event.before()) && !PURCHASE_STATUSES.contains(event.after())) {
+            return;
+        }
+        try {
+            rescoreTransaction.executeWithoutResult(status -> rescore(List.of(event.customerId()), LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // The sale itself is committed; the segment stays stale until the next full refresh
+            logger.warn("Could not re-score customer {} after sale {} changed to {}",
+                    event.customerId(), event.saleId(), event.after(), e);
+        }
+    }
+
+    /**
+     * Replace the segments of the given customers
+     *
+     * @param sortedIds Customer IDs in ascending order
+     * @param now Computation time
+     * @return Number of customers scored
+     */
+    private int rescore(List<Long> sortedIds, LocalDateTime now) {
+        int scored = 0;
+        for (int from = 0; from < sortedIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + CHUNK_SIZE, sortedIds.size()));
+            customerSegmentRepository.deleteByCustomerIdIn(chunk);
+            scored += score(chunk.iterator(),
+                    saleRepository.findPurchaseTotalsForCustomers(PURCHASE_STATUSES, chunk).iterator(),
+                    customerInteractionRepository.findInteractionTotalsForCustomers(chunk).iterator(),
+                    testDriveRepository.findTestDriveTotalsForCustomers(EXCLUDED_TEST_DRIVE_STATUSES, chunk).iterator(),
+                    now);
+        }
+        return scored;
+    }
+
+    /**
+     * Get the number of customers in each segment
+     *
+     * @return Customer count per segment
+     */
+    public Map<CustomerSegmentType, Long> getSegmentSizes() {
+        Map<CustomerSegmentType, Long> sizes = new EnumMap<>(CustomerSegmentType.class);
+        for (CustomerSegmentType segment : CustomerSegmentType.values()) {
+            sizes.put(segment, 0L);
+        }
+        customerSegmentRepository.countCustomersBySegment()
+                .forEach(row -> sizes.put((CustomerSegmentType) row[0], ((Number) row[1]).longValue()));
+        return sizes;
+    }
+
+    /**
+     * Merge the customer-ordered streams and persist one segment per customer
+     *
+     * @param customerIds Customer IDs in ascending order
+     * @param purchases (customer ID, last sale date, sale count, sale total) rows in ascending customer order
+     * @param interactions (customer ID, interaction count, last interaction date) rows in ascending customer order
+     * @param testDrives (customer ID, test drive count, last test drive date) rows in ascending customer order
+     * @param now Computation time
+     * @return Number of customers scored
+     */
+    private int score(Iterator<Long> customerIds, Iterator<Object[]> purchases,
+                      Iterator<Object[]> interactions, Iterator<Object[]> testDrives, LocalDateTime now) {
+        RowCursor purchaseCursor = new RowCursor(purchases);
+        RowCursor interactionCursor = new RowCursor(interactions);
+        RowCursor testDriveCursor = new RowCursor(testDrives);
+        Accumulator accumulator = new Accumulator();
+        long today = now.toLocalDate().toEpochDay();
+
+        int scored = 0;
+        while (customerIds.hasNext()) {
+            accumulator.reset(customerIds.next());
+
+            Object[] row = purchaseCursor.advanceTo(accumulator.customerId);
+            if (row != null) {
+                accumulator.lastPurchaseDay = ((LocalDate) row[1]).toEpochDay();
+                accumulator.purchaseCount = ((Number) row[2]).intValue();
+                accumulator.monetaryValue = row[3] != null ? ((BigDecimal) row[3]).longValue() : 0L;
+                accumulator.touch(((LocalDate) row[1]).atStartOfDay());
+            }
+
+            row = interactionCursor.advanceTo(accumulator.customerId);
+            if (row != null) {
+                accumulator.interactionCount = ((Number) row[1]).intValue();
+                accumulator.touch((LocalDateTime) row[2]);
+            }
+
+            row = testDriveCursor.advanceTo(accumulator.customerId);
+            if (row != null) {
+                accumulator.testDriveCount = ((Number) row[1]).intValue();
+                accumulator.touch((LocalDateTime) row[2]);
+            }
+
+            entityManager.persist(toSegment(accumulator, today, now));
+            if (++scored % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return scored;
+    }
+
+    private CustomerSegment toSegment(Accumulator accumulator, long today, LocalDateTime now) {
+        boolean hasPurchased = accumulator.purchaseCount > 0;
+        int recency = hasPurchased ? recencyScore(today - accumulator.lastPurchaseDay) : 1;
+        int frequency = thresholdScore(accumulator.purchaseCount, FREQUENCY_THRESHOLDS);
+        int monetary = thresholdScore(accumulator.monetaryValue, MONETARY_THRESHOLDS);
+        // A test drive shows more intent than an interaction
+        int engagement = thresholdScore(accumulator.interactionCount + 2L * accumulator.testDriveCount, ENGAGEMENT_THRESHOLDS);
+
+        CustomerSegment segment = new CustomerSegment();
+        segment.setCustomerId(accumulator.customerId);
+        segment.setLastPurchaseDate(hasPurchased ? LocalDate.ofEpochDay(accumulator.lastPurchaseDay) : null);
+        segment.setPurchaseCount(accumulator.purchaseCount);
+        segment.setMonetaryValue(BigDecimal.valueOf(accumulator.monetaryValue));
+        segment.setInteractionCount(accumulator.interactionCount);
+        segment.setTestDriveCount(accumulator.testDriveCount);
+        segment.setLastActivityDate(accumulator.lastActivity);
+        segment.setRecencyScore(recency);
+        segment.setFrequencyScore(frequency);
+        segment.setMonetaryScore(monetary);
+        segment.setEngagementScore(engagement);
+        segment.setSegment(classify(hasPurchased, recency, frequency, monetary, engagement));
+        segment.setComputedAt(now);
+        return segment;
+    }
+
+    static CustomerSegmentType classify(boolean hasPurchased, int recency, int frequency, int monetary, int engagement) {
+        if (!hasPurchased) {
+            return engagement >= 3 ? CustomerSegmentType.PROSPECT : CustomerSegmentType.INACTIVE;
+        }
+        if (recency >= 4 && frequency >= 4) {
+            return CustomerSegmentType.CHAMPION;
+        }
+        if (recency >= 3 && frequency >= 3) {
+            return CustomerSegmentType.LOYAL;
+        }
+        if (recency >= 4 && frequency <= 2) {
+            return CustomerSegmentType.NEW_CUSTOMER;
+        }
+        if (recency >= 3) {
+            return CustomerSegmentType.POTENTIAL_LOYALIST;
+        }
+        if (frequency >= 3 || monetary >= 4) {
+            return CustomerSegmentType.AT_RISK;
+        }
+        return CustomerSegmentType.HIBERNATING;
+    }
+
+    static int recencyScore(long daysSinceLastPurchase) {
+        int score = 5;
+        for (int days : RECENCY_DAYS) {
+            if (daysSinceLastPurchase <= days) {
+                return score;
+            }
+            score--;
+        }
+        return 1;
+    }
+
+    static int thresholdScore(long value, long[] thresholds) {
+        int score = 1;
+        for (long threshold : thresholds) {
+            if (value >= threshold) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Primitive per-customer totals, reused for every customer of a run
+     */
+    private static final class Accumulator {
+        long customerId;
+        long lastPurchaseDay;
+        int purchaseCount;
+        long monetaryValue;
+        int interactionCount;
+        int testDriveCount;
+        LocalDateTime lastActivity;
+
+        void reset(long customerId) {
+            this.customerId = customerId;
+            this.lastPurchaseDay = 0;
+            this.purchaseCount = 0;
+            this.monetaryValue = 0;
+            this.interactionCount = 0;
+            this.testDriveCount = 0;
+            this.lastActivity = null;
+        }
+
+        void touch(LocalDateTime activity) {
+            if (activity != null && (lastActivity == null || activity.isAfter(lastActivity))) {
+                lastActivity = activity;
+            }
+        }
+    }
+
+    /**
+     * Forward-only cursor over rows ordered by the customer ID in the first column
+     */
+    private static final class RowCursor {
+        private final Iterator<Object[]> rows;
+        private Object[] current;
+
+        RowCursor(Iterator<Object[]> rows) {
+            this.rows = rows;
+            this.current = rows.hasNext() ? rows.next() : null;
+        }
+
+        /**
+         * Skip rows of lower customer IDs and return the row of the given customer, if any
+         */
+        Object[] advanceTo(long customerId) {
+            while (current != null && ((Number) current[0]).longValue() < customerId) {
+                current = rows.hasNext() ? rows.next() : null;
+            }
+            if (current != null && ((Number) current[0]).longValue() == customerId) {
+                Object[] row = current;
+                current = rows.hasNext() ? rows.next() : null;
+                return row;
+            }
+            return null;
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package dev.tunalime.SemesterProject.service;
 
+import dev.tunalime.SemesterProject.dto.CustomerCohort;
 import dev.tunalime.SemesterProject.dto.CustomerDTO;
 import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import dev.tunalime.SemesterProject.entity.Sale;
+import dev.tunalime.SemesterProject.entity.TestDrive;
 import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +35,9 @@ import jakarta.persistence.criteria.Predicate;
 @Service
 public class CustomerService {
     
+    // Upper bound for the page size of the segment and cohort listings
+    private static final int MAX_PAGE_SIZE = 100;
+    
     private final CustomerRepository customerRepository;
     
     @Autowired
@@ -31,6 +50,7 @@ public class CustomerService {
      * 
      * @return List of all customers
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getAllCustomers() {
         return customerRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -43,6 +63,7 @@ public class CustomerService {
      * @param id Customer ID
      * @return Customer DTO
      */
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomerById(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
@@ -55,6 +76,7 @@ public class CustomerService {
      * @param email Customer email
      * @return Customer DTO or null if not found
      */
+    @Transactional(readOnly = true)
     public CustomerDTO getCustomerByEmail(String email) {
         Optional<Customer> customer = customerRepository.findByEmail(email);
         return customer.map(this::convertToDTO).orElse(null);
@@ -66,6 +88,7 @@ public class CustomerService {
      * @param customerDTO Customer information
      * @return Added customer
      */
+    @Transactional
     public CustomerDTO addCustomer(CustomerDTO customerDTO) {
         // Check if email already exists
         Optional<Customer> existingCustomer = customerRepository.findByEmail(customerDTO.getEmail());
@@ -93,6 +116,7 @@ public class CustomerService {
      * @param customerDTO Updated customer information
      * @return Updated customer
      */
+    @Transactional
     public CustomerDTO updateCustomer(Long id, CustomerDTO customerDTO) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
@@ -121,6 +145,7 @@ public class CustomerService {
      * 
      * @param id Customer ID
      */
+    @Transactional
     public void deleteCustomer(Long id) {
         Customer customer = customerRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + id));
@@ -135,6 +160,7 @@ public class CustomerService {
      * @param lastName Last name (optional)
      * @return List of matching customers
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> searchCustomersByName(String firstName, String lastName) {
         List<Customer> customers;
         
@@ -163,6 +189,7 @@ public class CustomerService {
      * 
      * @return List of customers who have made purchases
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getCustomersWithPurchases() {
         return customerRepository.findCustomersWithPurchases().stream()
                 .map(this::convertToDTO)
@@ -174,6 +201,7 @@ public class CustomerService {
      * 
      * @return List of repeat customers
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getRepeatCustomers() {
         return customerRepository.findRepeatCustomers().stream()
                 .map(this::convertToDTO)
@@ -187,6 +215,7 @@ public class CustomerService {
      * @param endDate End date
      * @return List of customers registered between the specified dates
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> getCustomersRegisteredBetween(LocalDate startDate, LocalDate endDate) {
         return customerRepository.findByRegistrationDateBetween(startDate, endDate).stream()
                 .map(this::convertToDTO)
@@ -202,6 +231,7 @@ public class CustomerService {
      * @param phone Phone (optional)
      * @return List of matching customers
      */
+    @Transactional(readOnly = true)
     public List<CustomerDTO> advancedSearch(String firstName, String lastName, String email, 
                                            String phone) {
         List<Customer> customers = customerRepository.findAll((root, query, cb) -> {
@@ -231,6 +261,119 @@ public class CustomerService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get customers in an RFM segment
+     * 
+     * @param segment Customer segment
+     * @param page Page number (zero-based)
+     * @param size Page size (capped at 100)
+     * @return Page of customers in the segment
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getCustomersBySegment(CustomerSegmentType segment, int page, int size) {
+        return customerRepository.findBySegment(segment, pageById(page, size)).map(this::convertToDTO);
+    }
+    
+    /**
+     * Get customers whose RFM scores are at least the given values
+     * 
+     * @param minRecency Minimum recency score (1-5)
+     * @param minFrequency Minimum frequency score (1-5)
+     * @param minMonetary Minimum monetary score (1-5)
+     * @param page Page number (zero-based)
+     * @param size Page size (capped at 100)
+     * @return Page of matching customers
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getCustomersByRfmScores(int minRecency, int minFrequency, int minMonetary, int page, int size) {
+        return customerRepository.findByMinimumRfmScores(minRecency, minFrequency, minMonetary, pageById(page, size))
+                .map(this::convertToDTO);
+    }
+    
+    /**
+     * Get a page of customers in a cohort
+     * 
+     * @param cohort Customer cohort
+     * @param since Start of the interaction window for RECENT_INTERACTIONS (optional, defaults to 30 days ago)
+     * @param page Page number (zero-based)
+     * @param size Page size (capped at 100)
+     * @return Page of customers in the cohort
+     */
+    @Transactional(readOnly = true)
+    public Page<CustomerDTO> getCustomerCohort(CustomerCohort cohort, LocalDateTime since, int page, int size) {
+        return customerRepository.findAll(cohortSpecification(cohort, since), pageById(page, size))
+                .map(this::convertToDTO);
+    }
+    
+    /**
+     * Build a page request ordered by customer ID, so pages are stable and do not overlap
+     */
+    private static Pageable pageById(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, MAX_PAGE_SIZE)), Sort.by("id"));
+    }
+    
+    /**
+     * Count the customers in a cohort without loading them
+     * 
+     * @param cohort Customer cohort
+     * @param since Start of the interaction window for RECENT_INTERACTIONS (optional, defaults to 30 days ago)
+     * @return Number of customers in the cohort
+     */
+    @Transactional(readOnly = true)
+    public long countCustomerCohort(CustomerCohort cohort, LocalDateTime since) {
+        return customerRepository.count(cohortSpecification(cohort, since));
+    }
+    
+    /**
+     * Build the EXISTS / NOT EXISTS specification of a cohort
+     * 
+     * @param cohort Customer cohort
+     * @param since Start of the interaction window for RECENT_INTERACTIONS
+     * @return Specification selecting the customers of the cohort
+     */
+    private Specification<Customer> cohortSpecification(CustomerCohort cohort, LocalDateTime since) {
+        LocalDateTime interactionsSince = since != null ? since : LocalDateTime.now().minusDays(30);
+        
+        return (root, query, cb) -> switch (cohort) {
+            case WITH_PURCHASES -> cb.exists(relatedRows(Sale.class, root, query, cb));
+            case WITHOUT_PURCHASES -> cb.not(cb.exists(relatedRows(Sale.class, root, query, cb)));
+            case WITH_TEST_DRIVES -> cb.exists(relatedRows(TestDrive.class, root, query, cb));
+            case REPEAT_CUSTOMERS -> {
+                // A sale exists for which another sale of the same customer exists
+                Subquery<Long> firstSale = query.subquery(Long.class);
+                Root<Sale> first = firstSale.from(Sale.class);
+                Subquery<Long> secondSale = firstSale.subquery(Long.class);
+                Root<Sale> second = secondSale.from(Sale.class);
+                secondSale.select(second.get("id")).where(
+                        cb.equal(second.get("customer"), root),
+                        cb.notEqual(second.get("id"), first.get("id")));
+                firstSale.select(first.get("id")).where(
+                        cb.equal(first.get("customer"), root),
+                        cb.exists(secondSale));
+                yield cb.exists(firstSale);
+            }
+            case RECENT_INTERACTIONS -> {
+                Subquery<Long> interactions = query.subquery(Long.class);
+                Root<CustomerInteraction> interaction = interactions.from(CustomerInteraction.class);
+                interactions.select(interaction.get("id")).where(
+                        cb.equal(interaction.get("customer"), root),
+                        cb.greaterThanOrEqualTo(interaction.get("interactionDate"), interactionsSince));
+                yield cb.exists(interactions);
+            }
+        };
+    }
+    
+    /**
+     * Correlated subquery selecting the rows of an entity that belong to the customer
+     */
+    private <T> Subquery<Long> relatedRows(Class<T> entityClass, Root<Customer> customer,
+                                           CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<T> related = subquery.from(entityClass);
+        subquery.select(related.get("id")).where(cb.equal(related.get("customer"), customer));
+        return subquery;
+    }
+    
     /**
      * Convert Customer entity to DTO
      * 
@@ -1,29 +1,53 @@
 package dev.tunalime.SemesterProject.service;
 
+import dev.tunalime.SemesterProject.dto.StaffingForecastDTO;
 import dev.tunalime.SemesterProject.entity.SalesForecast;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
 import dev.tunalime.SemesterProject.repository.SaleRepository;
 import dev.tunalime.SemesterProject.repository.SalesForecastRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
- * Service for forecasting sales using Moving Average method
+ * Service for forecasting sales and test drive staffing using Moving Average method
  */
 @Service
 public class ForecastService {
     
+    // Bounds for test drive staffing forecasts
+    private static final int MAX_STAFFING_PERIODS = 52;
+    private static final int MAX_STAFFING_WEEKS_AHEAD = 12;
+    
+    // Test drives that needed a staff member, whether or not the customer showed up
+    private static final Set<TestDriveStatus> DEMAND_STATUSES = EnumSet.of(
+            TestDriveStatus.SCHEDULED, TestDriveStatus.COMPLETED, TestDriveStatus.NO_SHOW);
+    
     private final SaleRepository saleRepository;
     private final SalesForecastRepository salesForecastRepository;
+    private final TestDriveRepository testDriveRepository;
+    private final TestDriveSchedulingEngine schedulingEngine;
     
     @Autowired
-    public ForecastService(SaleRepository saleRepository, SalesForecastRepository salesForecastRepository) {
+    public ForecastService(SaleRepository saleRepository, SalesForecastRepository salesForecastRepository,
+                           TestDriveRepository testDriveRepository, TestDriveSchedulingEngine schedulingEngine) {
         this.saleRepository = saleRepository;
         this.salesForecastRepository = salesForecastRepository;
+        this.testDriveRepository = testDriveRepository;
+        this.schedulingEngine = schedulingEngine;
     }
     
     /**
@@ -32,6 +56,7 @@ public class ForecastService {
      * @param id Forecast ID
      * @return The forecast
      */
+    @Transactional(readOnly = true)
     public SalesForecast getSalesForecastById(Long id) {
         return salesForecastRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Forecast not found with ID: " + id));
@@ -91,8 +116,20 @@ public class ForecastService {
      * @return Forecasted sales quantity
      */
     private int calculateMovingAverage(List<Long> salesData, int n) {
+        // Round to nearest integer
+        return (int) Math.round(movingAverage(salesData, n));
+    }
+    
+    /**
+     * Calculate the unrounded moving average of the most recent periods
+     * 
+     * @param data List of past quantities, most recent first
+     * @param n Number of periods to include
+     * @return Average quantity per period
+     */
+    private double movingAverage(List<Long> data, int n) {
         // Ensure we have enough data
-        int dataSize = salesData.size();
+        int dataSize = data.size();
         if (dataSize < n) {
             n = dataSize; // Use all available data if we don't have enough periods
         }
@@ -100,11 +137,75 @@ public class ForecastService {
         // Sum the most recent n periods
         long sum = 0;
         for (int i = 0; i < n; i++) {
-            sum += salesData.get(i);
+            sum += data.get(i);
         }
         
-        // Calculate average and round to nearest integer
-        return (int) Math.round((double) sum / n);
+        return (double) sum / n;
+    }
+    
+    /**
+     * Forecasts test drive demand and staffing per opening hour for the coming weeks using the Moving Average method.
+     * The test drives of the past weeks are counted into a week, day-of-week and hour histogram in a single pass,
+     * and each hour of the forecast averages the same day-of-week and hour over those weeks.
+     * 
+     * @param numberOfPeriods The number of previous weeks to include in the average
+     * @param weeksAhead The number of weeks to forecast, starting with the current week
+     * @return Forecast per opening hour from today on, in time order
+     */
+    @Transactional(readOnly = true)
+    public List<StaffingForecastDTO> forecastTestDriveStaffing(int numberOfPeriods, int weeksAhead) {
+        if (numberOfPeriods < 1 || numberOfPeriods > MAX_STAFFING_PERIODS || weeksAhead < 1 || weeksAhead > MAX_STAFFING_WEEKS_AHEAD) {
+            throw new IllegalArgumentException("Staffing forecasts use 1 to " + MAX_STAFFING_PERIODS
+                    + " past weeks and cover 1 to " + MAX_STAFFING_WEEKS_AHEAD + " weeks");
+        }
+        
+        LocalDate today = LocalDate.now();
+        LocalDate currentWeekStart = today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate historyStart = currentWeekStart.minusWeeks(numberOfPeriods);
+        
+        // histogram[w][d][h] counts the test drives starting in hour h of day d, w weeks before the last full week
+        long[][][] histogram = new long[numberOfPeriods][7][24];
+        long totalTestDrives = 0;
+        long totalMinutes = 0;
+        try (Stream<Object[]> rows = testDriveRepository.streamScheduleHistory(
+                historyStart.atStartOfDay(), currentWeekStart.atStartOfDay(), DEMAND_STATUSES)) {
+            Iterator<Object[]> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                LocalDateTime start = (LocalDateTime) row[0];
+                int weeksBack = (int) ((ChronoUnit.DAYS.between(start.toLocalDate(), currentWeekStart) - 1) / 7);
+                histogram[weeksBack][start.getDayOfWeek().getValue() - 1][start.getHour()]++;
+                totalTestDrives++;
+                totalMinutes += schedulingEngine.normalizeDuration((Integer) row[1]);
+            }
+        }
+        double averageDuration = totalTestDrives > 0
+                ? (double) totalMinutes / totalTestDrives
+                : schedulingEngine.normalizeDuration(null);
+        
+        List<StaffingForecastDTO> forecast = new ArrayList<>();
+        for (int week = 0; week < weeksAhead; week++) {
+            for (int day = 0; day < 7; day++) {
+                LocalDate date = currentWeekStart.plusWeeks(week).plusDays(day);
+                if (date.isBefore(today)) {
+                    continue;
+                }
+                for (int hour = schedulingEngine.getOpeningHour(); hour < schedulingEngine.getClosingHour(); hour++) {
+                    List<Long> hourlyTestDrives = new ArrayList<>(numberOfPeriods);
+                    for (int weeksBack = 0; weeksBack < numberOfPeriods; weeksBack++) {
+                        hourlyTestDrives.add(histogram[weeksBack][day][hour]);
+                    }
+                    double expectedTestDrives = movingAverage(hourlyTestDrives, numberOfPeriods);
+                    
+                    // Every expected test drive keeps one staff member busy for the average duration
+                    double expectedStaffMinutes = expectedTestDrives * averageDuration;
+                    int requiredStaff = (int) Math.ceil(expectedStaffMinutes / 60.0);
+                    forecast.add(new StaffingForecastDTO(date.atTime(hour, 0), date.getDayOfWeek(),
+                            expectedTestDrives, expectedStaffMinutes, requiredStaff));
+                }
+            }
+        }
+        return forecast;
     }
     
     /**
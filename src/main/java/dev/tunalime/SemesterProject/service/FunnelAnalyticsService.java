@@ -0,0 +1,248 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.FunnelStepDTO;
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Service for interaction to test drive to sale funnel analytics.
+ * The three event streams are read once, each ordered by customer, and merged customer by customer;
+ * within a customer the events are grouped by brand and model, so the whole history is processed
+ * in a single pass holding only one customer's events at a time.
+ */
+@Service
+public class FunnelAnalyticsService {
+
+    private static final Set<TestDriveStatus> TEST_DRIVE_STATUSES = EnumSet.of(TestDriveStatus.COMPLETED);
+    private static final Set<SaleStatus> SALE_STATUSES = EnumSet.of(SaleStatus.COMPLETED, SaleStatus.DELIVERED);
+
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final TestDriveRepository testDriveRepository;
+    private final SaleRepository saleRepository;
+
+    @Autowired
+    public FunnelAnalyticsService(CustomerInteractionRepository customerInteractionRepository,
+                                  TestDriveRepository testDriveRepository,
+                                  SaleRepository saleRepository) {
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.testDriveRepository = testDriveRepository;
+        this.saleRepository = saleRepository;
+    }
+
+    /**
+     * Compute the funnel per brand and model.
+     * Customers enter the funnel with a vehicle-related interaction in the window; their completed test drives
+     * and completed or delivered sales count when they follow that interaction within the follow-up period.
+     *
+     * @param from Start of the window (inclusive)
+     * @param to End of the window (exclusive)
+     * @param followUpDays Days after the window during which test drives and sales are still counted
+     * @param brand Brand filter (optional)
+     * @param model Model filter (optional)
+     * @return Funnel per brand and model, largest first
+     */
+    @Transactional(readOnly = true)
+    public List<FunnelStepDTO> getFunnel(LocalDate from, LocalDate to, int followUpDays, String brand, String model) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Start of the window must be before its end");
+        }
+        LocalDate followUpEnd = to.plusDays(Math.max(0, followUpDays));
+        Map<String, FunnelAccumulator> funnels = new HashMap<>();
+
+        try (Stream<Object[]> interactions = customerInteractionRepository.streamFunnelEvents(from.atStartOfDay(), to.atStartOfDay());
+             Stream<Object[]> testDrives = testDriveRepository.streamFunnelEvents(from.atStartOfDay(), followUpEnd.atStartOfDay(), TEST_DRIVE_STATUSES);
+             Stream<Object[]> sales = saleRepository.streamFunnelEvents(from, followUpEnd, SALE_STATUSES)) {
+            EventCursor interactionCursor = new EventCursor(interactions.iterator());
+            EventCursor testDriveCursor = new EventCursor(testDrives.iterator());
+            EventCursor saleCursor = new EventCursor(sales.iterator());
+
+            // Only customers with an interaction can enter the funnel, so the interaction stream drives the merge
+            while (interactionCursor.hasCurrent()) {
+                long customerId = interactionCursor.currentCustomerId();
+                Map<String, LocalDateTime> firstInteraction = new HashMap<>();
+                for (Object[] row : interactionCursor.takeCustomer(customerId)) {
+                    firstInteraction.putIfAbsent(key(row), eventTime(row[3]));
+                }
+                List<Object[]> customerTestDrives = testDriveCursor.takeCustomer(customerId);
+                List<Object[]> customerSales = saleCursor.takeCustomer(customerId);
+
+                for (Map.Entry<String, LocalDateTime> entry : firstInteraction.entrySet()) {
+                    String modelKey = entry.getKey();
+                    if (!matches(modelKey, brand, model)) {
+                        continue;
+                    }
+                    FunnelAccumulator funnel = funnels.computeIfAbsent(modelKey, FunnelAccumulator::new);
+                    funnel.interested++;
+
+                    LocalDateTime testDriveTime = firstAtOrAfter(customerTestDrives, modelKey, entry.getValue());
+                    if (testDriveTime == null) {
+                        continue;
+                    }
+                    funnel.testDriven++;
+                    funnel.minutesToTestDrive.add(Duration.between(entry.getValue(), testDriveTime).toMinutes());
+
+                    // Sales only carry a date, so a sale on the day of the test drive counts
+                    LocalDateTime saleTime = firstAtOrAfter(customerSales, modelKey, testDriveTime.toLocalDate().atStartOfDay());
+                    if (saleTime != null) {
+                        funnel.purchased++;
+                        funnel.minutesToSale.add(Math.max(0, Duration.between(testDriveTime, saleTime).toMinutes()));
+                    }
+                }
+            }
+        }
+
+        List<FunnelStepDTO> result = new ArrayList<>();
+        for (FunnelAccumulator funnel : funnels.values()) {
+            result.add(funnel.toDTO());
+        }
+        result.sort(Comparator.comparingLong(FunnelStepDTO::getInterested).reversed()
+                .thenComparing(FunnelStepDTO::getBrand)
+                .thenComparing(FunnelStepDTO::getModel));
+        return result;
+    }
+
+    private static String key(Object[] row) {
+        return row[1] + "\u0000" + row[2];
+    }
+
+    private static boolean matches(String modelKey, String brand, String model) {
+        String[] parts = modelKey.split("\u0000", 2);
+        return (brand == null || brand.isBlank() || parts[0].equalsIgnoreCase(brand.trim()))
+                && (model == null || model.isBlank() || parts[1].equalsIgnoreCase(model.trim()));
+    }
+
+    private static LocalDateTime eventTime(Object value) {
+        return value instanceof LocalDate date ? date.atStartOfDay() : (LocalDateTime) value;
+    }
+
+    // Events of a customer are ordered by time, so the first match is the earliest
+    private static LocalDateTime firstAtOrAfter(List<Object[]> events, String modelKey, LocalDateTime since) {
+        for (Object[] row : events) {
+            LocalDateTime time = eventTime(row[3]);
+            if (!time.isBefore(since) && key(row).equals(modelKey)) {
+                return time;
+            }
+        }
+        return null;
+    }
+
+    private static double rate(long part, long whole) {
+        return whole == 0 ? 0.0 : (double) part / whole;
+    }
+
+    /**
+     * Cursor over a stream of (customer ID, brand, model, time) rows ordered by customer ID
+     */
+    private static final class EventCursor {
+        private final Iterator<Object[]> rows;
+        private Object[] current;
+
+        EventCursor(Iterator<Object[]> rows) {
+            this.rows = rows;
+            this.current = rows.hasNext() ? rows.next() : null;
+        }
+
+        boolean hasCurrent() {
+            return current != null;
+        }
+
+        long currentCustomerId() {
+            return ((Number) current[0]).longValue();
+        }
+
+        /**
+         * Skip rows of lower customer IDs and return all rows of the given customer
+         */
+        List<Object[]> takeCustomer(long customerId) {
+            while (current != null && currentCustomerId() < customerId) {
+                current = rows.hasNext() ? rows.next() : null;
+            }
+            List<Object[]> customerRows = new ArrayList<>();
+            while (current != null && currentCustomerId() == customerId) {
+                customerRows.add(current);
+                current = rows.hasNext() ? rows.next() : null;
+            }
+            return customerRows;
+        }
+    }
+
+    /**
+     * Running counts and stage durations of one brand and model
+     */
+    private static final class FunnelAccumulator {
+        private final String brand;
+        private final String model;
+        private long interested;
+        private long testDriven;
+        private long purchased;
+        private final LongList minutesToTestDrive = new LongList();
+        private final LongList minutesToSale = new LongList();
+
+        FunnelAccumulator(String modelKey) {
+            String[] parts = modelKey.split("\u0000", 2);
+            this.brand = parts[0];
+            this.model = parts[1];
+        }
+
+        FunnelStepDTO toDTO() {
+            return new FunnelStepDTO(
+                    brand,
+                    model,
+                    interested,
+                    testDriven,
+                    purchased,
+                    rate(testDriven, interested),
+                    rate(purchased, testDriven),
+                    rate(purchased, interested),
+                    minutesToTestDrive.medianHours(),
+                    minutesToSale.medianHours());
+        }
+    }
+
+    /**
+     * Growable list of primitive longs
+     */
+    private static final class LongList {
+        private long[] values = new long[16];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        Double medianHours() {
+            if (size == 0) {
+                return null;
+            }
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            double medianMinutes = size % 2 == 1
+                    ? sorted[size / 2]
+                    : (sorted[size / 2 - 1] + sorted[size / 2]) / 2.0;
+            return medianMinutes / 60.0;
+        }
+    }
+}
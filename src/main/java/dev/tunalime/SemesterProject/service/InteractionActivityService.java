@@ -0,0 +1,345 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.ActivityGranularity;
+import dev.tunalime.SemesterProject.dto.InteractionActivityDTO;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service keeping rolling per-type interaction counters in memory.
+ * Counters are kept per hour, per day and per month in fixed-size rings, warmed up from the
+ * database and the interaction archive at startup and incremented by the ingestion writer as interactions are inserted,
+ * so activity charts are served from a few arrays of longs instead of grouping the table.
+ */
+@Service
+public class InteractionActivityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionActivityService.class);
+
+    private static final InteractionType[] TYPES = InteractionType.values();
+
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final InteractionArchiveStore interactionArchiveStore;
+    private final BucketRing hourly;
+    private final BucketRing daily;
+    private final BucketRing monthly;
+    private final AtomicLongArray totals = new AtomicLongArray(TYPES.length);
+
+    // Writes hold the read lock (they may overlap each other), a rebuild holds the write lock
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    @Autowired
+    public InteractionActivityService(CustomerInteractionRepository customerInteractionRepository,
+                                      InteractionArchiveStore interactionArchiveStore,
+                                      @Value("${app.interaction-activity.hours:168}") int hours,
+                                      @Value("${app.interaction-activity.days:400}") int days,
+                                      @Value("${app.interaction-activity.months:120}") int months) {
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.interactionArchiveStore = interactionArchiveStore;
+        this.hourly = new BucketRing(hours);
+        this.daily = new BucketRing(days);
+        this.monthly = new BucketRing(months);
+    }
+
+    /**
+     * Rebuild the counters from the database once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild all counters from the database and the archive.
+     * Interaction writes going through {@link #recordingWrites(Runnable)} wait until the rebuild is done,
+     * so no interaction is counted twice or missed.
+     */
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            long start = System.currentTimeMillis();
+            LocalDateTime now = LocalDateTime.now();
+            hourly.clear();
+            daily.clear();
+            monthly.clear();
+            for (int i = 0; i < TYPES.length; i++) {
+                totals.set(i, 0);
+            }
+
+            long currentHour = hourUnit(now);
+            for (Object[] row : customerInteractionRepository.countInteractionsByTypeAndHourSince(hourStart(currentHour - hourly.size() + 1))) {
+                LocalDate date = LocalDate.of(toInt(row[1]), toInt(row[2]), toInt(row[3]));
+                hourly.add(date.toEpochDay() * 24 + toInt(row[4]), ((InteractionType) row[0]).ordinal(), ((Number) row[5]).longValue());
+            }
+
+            long currentDay = now.toLocalDate().toEpochDay();
+            for (Object[] row : customerInteractionRepository.countInteractionsByTypeAndDaySince(dayStart(currentDay - daily.size() + 1))) {
+                LocalDate date = LocalDate.of(toInt(row[1]), toInt(row[2]), toInt(row[3]));
+                daily.add(date.toEpochDay(), ((InteractionType) row[0]).ordinal(), ((Number) row[4]).longValue());
+            }
+
+            long currentMonth = monthUnit(now);
+            for (Object[] row : customerInteractionRepository.countInteractionsByTypeAndMonthSince(monthStart(currentMonth - monthly.size() + 1))) {
+                monthly.add(toInt(row[1]) * 12L + toInt(row[2]) - 1, ((InteractionType) row[0]).ordinal(), ((Number) row[3]).longValue());
+            }
+
+            for (Object[] row : customerInteractionRepository.countInteractionsByType()) {
+                totals.set(((InteractionType) row[0]).ordinal(), ((Number) row[1]).longValue());
+            }
+
+            // Archived interactions are no longer in the table; their counts come from the archive summaries
+            long firstDay = currentDay - daily.size() + 1;
+            long firstMonth = currentMonth - monthly.size() + 1;
+            for (Map.Entry<Long, long[]> day : interactionArchiveStore.countByDayAndType().entrySet()) {
+                long month = monthUnit(dayStart(day.getKey()));
+                for (int i = 0; i < TYPES.length; i++) {
+                    long count = day.getValue()[i];
+                    if (count == 0) {
+                        continue;
+                    }
+                    if (day.getKey() >= firstDay) {
+                        daily.add(day.getKey(), i, count);
+                    }
+                    if (month >= firstMonth) {
+                        monthly.add(month, i, count);
+                    }
+                    totals.addAndGet(i, count);
+                }
+            }
+
+            logger.info("Rebuilt interaction activity counters in {} ms", System.currentTimeMillis() - start);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Run a database write whose interactions are passed to {@link #record(LocalDateTime, InteractionType)},
+     * excluding a concurrent rebuild
+     *
+     * @param write Write that inserts interactions and records them
+     */
+    public void recordingWrites(Runnable write) {
+        rebuildLock.readLock().lock();
+        try {
+            write.run();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Count a written interaction
+     *
+     * @param interactionDate Interaction date
+     * @param type Interaction type
+     */
+    public void record(LocalDateTime interactionDate, InteractionType type) {
+        int typeIndex = type.ordinal();
+        hourly.add(hourUnit(interactionDate), typeIndex, 1);
+        daily.add(interactionDate.toLocalDate().toEpochDay(), typeIndex, 1);
+        monthly.add(monthUnit(interactionDate), typeIndex, 1);
+        totals.incrementAndGet(typeIndex);
+    }
+
+    /**
+     * Get interaction counts per bucket for a time range.
+     * Buckets that have already been rotated out of the counters are returned as zero, and
+     * at most as many buckets as the counters retain are returned.
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (inclusive)
+     * @param granularity Bucket size
+     * @return Counts per bucket, oldest first
+     */
+    public List<InteractionActivityDTO> getActivity(LocalDateTime from, LocalDateTime to, ActivityGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start of the range must not be after its end");
+        }
+
+        BucketRing ring;
+        long first;
+        long last;
+        switch (granularity) {
+            case HOUR -> {
+                ring = hourly;
+                first = hourUnit(from);
+                last = hourUnit(to);
+            }
+            case DAY -> {
+                ring = daily;
+                first = from.toLocalDate().toEpochDay();
+                last = to.toLocalDate().toEpochDay();
+            }
+            default -> {
+                ring = monthly;
+                first = monthUnit(from);
+                last = monthUnit(to);
+            }
+        }
+        // A ring cannot hold more buckets than its size
+        first = Math.max(first, last - ring.size() + 1);
+
+        List<InteractionActivityDTO> result = new ArrayList<>();
+        long[] counts = new long[TYPES.length];
+        for (long unit = first; unit <= last; unit++) {
+            ring.read(unit, counts);
+            Map<InteractionType, Long> countsByType = new EnumMap<>(InteractionType.class);
+            long total = 0;
+            for (int i = 0; i < TYPES.length; i++) {
+                countsByType.put(TYPES[i], counts[i]);
+                total += counts[i];
+            }
+            LocalDateTime bucketStart = switch (granularity) {
+                case HOUR -> hourStart(unit);
+                case DAY -> dayStart(unit);
+                case MONTH -> monthStart(unit);
+            };
+            result.add(new InteractionActivityDTO(bucketStart, total, countsByType));
+        }
+        return result;
+    }
+
+    /**
+     * Get the all-time number of interactions per type
+     *
+     * @return Map of interaction type to count
+     */
+    public Map<InteractionType, Long> getTotalsByType() {
+        Map<InteractionType, Long> result = new EnumMap<>(InteractionType.class);
+        for (int i = 0; i < TYPES.length; i++) {
+            result.put(TYPES[i], totals.get(i));
+        }
+        return result;
+    }
+
+    private static long hourUnit(LocalDateTime dateTime) {
+        return dateTime.toLocalDate().toEpochDay() * 24 + dateTime.getHour();
+    }
+
+    private static long monthUnit(LocalDateTime dateTime) {
+        return dateTime.getYear() * 12L + dateTime.getMonthValue() - 1;
+    }
+
+    private static LocalDateTime hourStart(long hourUnit) {
+        return LocalDate.ofEpochDay(Math.floorDiv(hourUnit, 24)).atTime((int) Math.floorMod(hourUnit, 24), 0);
+    }
+
+    private static LocalDateTime dayStart(long dayUnit) {
+        return LocalDate.ofEpochDay(dayUnit).atStartOfDay();
+    }
+
+    private static LocalDateTime monthStart(long monthUnit) {
+        return LocalDate.of((int) Math.floorDiv(monthUnit, 12), (int) Math.floorMod(monthUnit, 12) + 1, 1).atTime(LocalTime.MIDNIGHT);
+    }
+
+    private static int toInt(Object value) {
+        return ((Number) value).intValue();
+    }
+
+    /**
+     * Fixed number of consecutive time buckets, each holding one counter per interaction type.
+     * A slot is reused by a newer bucket once the window has moved past the bucket it held;
+     * counts for buckets older than the one a slot currently holds are ignored.
+     */
+    private static final class BucketRing {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final int size;
+        private final AtomicLongArray units; // Bucket currently held by each slot
+        private final AtomicLongArray counts; // size x types counters
+
+        // Adds and reads hold the read lock (they may overlap each other), a rollover holds the write lock,
+        // so no add for the old bucket can land after the slot has been reset for the new one
+        private final ReentrantReadWriteLock rolloverLock = new ReentrantReadWriteLock();
+
+        BucketRing(int size) {
+            this.size = size;
+            this.units = new AtomicLongArray(size);
+            this.counts = new AtomicLongArray(size * TYPES.length);
+            clear();
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            rolloverLock.writeLock().lock();
+            try {
+                for (int slot = 0; slot < size; slot++) {
+                    units.set(slot, EMPTY);
+                }
+                for (int i = 0; i < counts.length(); i++) {
+                    counts.set(i, 0);
+                }
+            } finally {
+                rolloverLock.writeLock().unlock();
+            }
+        }
+
+        void add(long unit, int typeIndex, long delta) {
+            int slot = (int) Math.floorMod(unit, (long) size);
+            rolloverLock.readLock().lock();
+            try {
+                if (units.get(slot) == unit) {
+                    counts.addAndGet(slot * TYPES.length + typeIndex, delta);
+                    return;
+                }
+            } finally {
+                rolloverLock.readLock().unlock();
+            }
+            rollover(slot, unit, typeIndex, delta);
+        }
+
+        void read(long unit, long[] target) {
+            int slot = (int) Math.floorMod(unit, (long) size);
+            rolloverLock.readLock().lock();
+            try {
+                boolean present = units.get(slot) == unit;
+                for (int i = 0; i < target.length; i++) {
+                    target[i] = present ? counts.get(slot * TYPES.length + i) : 0;
+                }
+            } finally {
+                rolloverLock.readLock().unlock();
+            }
+        }
+
+        private void rollover(int slot, long unit, int typeIndex, long delta) {
+            rolloverLock.writeLock().lock();
+            try {
+                long held = units.get(slot);
+                if (held > unit) {
+                    return;
+                }
+                if (held < unit) {
+                    for (int i = 0; i < TYPES.length; i++) {
+                        counts.set(slot * TYPES.length + i, 0);
+                    }
+                    units.set(slot, unit);
+                }
+                counts.addAndGet(slot * TYPES.length + typeIndex, delta);
+            } finally {
+                rolloverLock.writeLock().unlock();
+            }
+        }
+    }
+}
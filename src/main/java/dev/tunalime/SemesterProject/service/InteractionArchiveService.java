@@ -0,0 +1,173 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service moving old customer interactions out of the database into the local segment archive
+ * and assembling full customer timelines from both tiers.
+ */
+@Service
+public class InteractionArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionArchiveService.class);
+
+    // Number of archived interaction IDs deleted per statement
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final VehicleRepository vehicleRepository;
+    private final CustomerService customerService;
+    private final InteractionArchiveStore interactionArchiveStore;
+    private final InteractionTimelineService interactionTimelineService;
+    private final VehicleService vehicleService;
+
+    // Interactions older than this are moved to the archive
+    @Value("${app.archive.max-age-days:365}")
+    private int maxAgeDays;
+
+    @Autowired
+    public InteractionArchiveService(CustomerInteractionRepository customerInteractionRepository,
+                                     VehicleRepository vehicleRepository,
+                                     CustomerService customerService,
+                                     InteractionArchiveStore interactionArchiveStore,
+                                     InteractionTimelineService interactionTimelineService,
+                                     VehicleService vehicleService) {
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.customerService = customerService;
+        this.interactionArchiveStore = interactionArchiveStore;
+        this.interactionTimelineService = interactionTimelineService;
+        this.vehicleService = vehicleService;
+    }
+
+    /**
+     * Nightly archival of interactions older than the configured age
+     */
+    @Scheduled(cron = "${app.archive.cron:0 0 3 * * *}")
+    @Transactional
+    public void scheduledArchive() {
+        int archived = archiveOlderThan(LocalDateTime.now().minusDays(maxAgeDays));
+        logger.info("Nightly interaction archival moved {} interactions", archived);
+    }
+
+    /**
+     * Move all interactions older than the cutoff into a new archive segment and delete them from the database.
+     * The segment is durable on disk before the rows are deleted; if the deletion fails the rows stay in the
+     * database and are archived again by the next run, which the timeline tolerates by de-duplicating on ID.
+     *
+     * @param cutoff Interactions strictly before this date are archived
+     * @return Number of interactions archived
+     */
+    @Transactional
+    public int archiveOlderThan(LocalDateTime cutoff) {
+        List<Long> archivedIds = new ArrayList<>();
+        int archived;
+        try (Stream<Object[]> rows = customerInteractionRepository.streamForArchive(cutoff)) {
+            Stream<InteractionArchiveStore.ArchivedInteraction> interactions = rows
+                    .map(this::toArchivedInteraction)
+                    .peek(interaction -> archivedIds.add(interaction.id()));
+            archived = interactionArchiveStore.writeSegment(interactions::iterator);
+        }
+
+        for (int from = 0; from < archivedIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = archivedIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, archivedIds.size()));
+            customerInteractionRepository.deleteByIdIn(chunk);
+        }
+        return archived;
+    }
+
+    /**
+     * Get the full interaction timeline of a customer, including archived interactions
+     *
+     * @param customerId Customer ID
+     * @return Interactions of the customer, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<CustomerInteractionDTO> getFullTimeline(Long customerId) {
+        CustomerDTO customer = customerService.getCustomerById(customerId);
+        String customerName = customer.getFirstName() + " " + customer.getLastName();
+
+        List<CustomerInteractionDTO> timeline = new ArrayList<>();
+        Set<Long> seenIds = new HashSet<>();
+        for (CustomerInteraction interaction : customerInteractionRepository.findByCustomerIdOrderByInteractionDateDesc(customerId)) {
+            seenIds.add(interaction.getId());
+            timeline.add(interactionTimelineService.convertToDTO(interaction));
+        }
+
+        List<InteractionArchiveStore.ArchivedInteraction> archived = interactionArchiveStore.findByCustomerId(customerId);
+        if (!archived.isEmpty()) {
+            // Vehicles of archived interactions are loaded with one IN query
+            Set<Long> vehicleIds = archived.stream()
+                    .map(InteractionArchiveStore.ArchivedInteraction::vehicleId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet());
+            Map<Long, Vehicle> vehicles = vehicleRepository.findAllById(vehicleIds).stream()
+                    .collect(Collectors.toMap(Vehicle::getId, Function.identity()));
+
+            for (InteractionArchiveStore.ArchivedInteraction interaction : archived) {
+                if (!seenIds.add(interaction.id())) {
+                    continue;
+                }
+                Vehicle vehicle = interaction.vehicleId() != null ? vehicles.get(interaction.vehicleId()) : null;
+                timeline.add(new CustomerInteractionDTO(
+                        interaction.id(),
+                        customerId,
+                        customerName,
+                        interaction.interactionDate(),
+                        interaction.type(),
+                        null,
+                        interaction.vehicleId(),
+                        vehicle != null ? vehicleService.getVehicleInfo(vehicle) : null));
+            }
+            timeline.sort(Comparator.comparing(CustomerInteractionDTO::getInteractionDate)
+                    .thenComparing(CustomerInteractionDTO::getId)
+                    .reversed());
+        }
+        return timeline;
+    }
+
+    /**
+     * Move the archived interactions of a customer to another customer
+     *
+     * @param fromCustomerId Customer the interactions belong to
+     * @param toCustomerId Customer the interactions are moved to
+     * @return Number of interactions moved
+     */
+    public int reassignCustomer(Long fromCustomerId, Long toCustomerId) {
+        return interactionArchiveStore.reassignCustomer(fromCustomerId, toCustomerId);
+    }
+
+    private InteractionArchiveStore.ArchivedInteraction toArchivedInteraction(Object[] row) {
+        return new InteractionArchiveStore.ArchivedInteraction(
+                (Long) row[0],
+                (Long) row[1],
+                (LocalDateTime) row[2],
+                (InteractionType) row[3],
+                (Long) row[4]);
+    }
+}
@@ -0,0 +1,438 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Append-only store of archived customer interactions on local disk.
+ * Each archive run writes one immutable segment: a {@code .seg} file holding one deflate-compressed
+ * block per customer, a {@code .idx} file of fixed-size entries
+ * (customer ID, block offset, block length, interaction count) sorted by customer ID
+ * and a {@code .sum} file of interaction counts per day and type, so activity counters can be rebuilt
+ * without decompressing the blocks.
+ * A segment written for a merge also has a {@code .mov} file listing the customers it moved away;
+ * their blocks in older segments are no longer read.
+ * Segments are memory-mapped and a customer's blocks are found by binary search in each index.
+ */
+@Service
+public class InteractionArchiveStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionArchiveStore.class);
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String SUMMARY_SUFFIX = ".sum";
+    private static final String MOVED_SUFFIX = ".mov";
+    private static final int INDEX_ENTRY_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final InteractionType[] TYPES = InteractionType.values();
+    private static final DateTimeFormatter SEGMENT_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final Path directory;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public InteractionArchiveStore(@Value("${app.archive.directory:./data/interaction-archive}") String directory) {
+        this.directory = Paths.get(directory);
+        openSegments();
+    }
+
+    /**
+     * Write a new segment
+     *
+     * @param rows Archived interactions ordered by customer ID
+     * @return Number of interactions written
+     */
+    public int writeSegment(Iterable<ArchivedInteraction> rows) {
+        return write(rows, true, null);
+    }
+
+    /**
+     * Move all archived interactions of a customer to another customer, e.g. when duplicates are merged.
+     * Segments are immutable, so the interactions are written again under the new customer in a segment
+     * that does not add to the daily counts, and the segment marks the old customer as moved so its blocks
+     * in the older segments are skipped by {@link #findByCustomerId}. The daily counts hold each interaction once.
+     *
+     * @param fromCustomerId Customer the interactions belong to
+     * @param toCustomerId Customer the interactions are moved to
+     * @return Number of interactions moved
+     */
+    public int reassignCustomer(long fromCustomerId, long toCustomerId) {
+        List<ArchivedInteraction> moved = findByCustomerId(fromCustomerId).stream()
+                .map(row -> new ArchivedInteraction(row.id(), toCustomerId, row.interactionDate(), row.type(), row.vehicleId()))
+                .toList();
+        return moved.isEmpty() ? 0 : write(moved, false, fromCustomerId);
+    }
+
+    /**
+     * Get the number of archived interactions per day and type, over all segments
+     *
+     * @return Counts keyed by epoch day, each holding one count per interaction type ordinal
+     */
+    public SortedMap<Long, long[]> countByDayAndType() {
+        SortedMap<Long, long[]> result = new TreeMap<>();
+        for (Segment segment : segments) {
+            segment.summary().forEach((day, counts) -> {
+                long[] total = result.computeIfAbsent(day, d -> new long[TYPES.length]);
+                for (int i = 0; i < TYPES.length; i++) {
+                    total[i] += counts[i];
+                }
+            });
+        }
+        return result;
+    }
+
+    private synchronized int write(Iterable<ArchivedInteraction> rows, boolean counted, Long movedCustomerId) {
+        String baseName = "segment-" + LocalDateTime.now().format(SEGMENT_NAME_FORMAT);
+        String name = baseName;
+        // A merge can write right after an archive run; never reuse the name of an existing segment
+        for (int n = 1; Files.exists(directory.resolve(name + SEGMENT_SUFFIX)); n++) {
+            name = baseName + "-" + n;
+        }
+        Path segmentFile = directory.resolve(name + SEGMENT_SUFFIX);
+        Path indexFile = directory.resolve(name + INDEX_SUFFIX);
+        Path summaryFile = directory.resolve(name + SUMMARY_SUFFIX);
+        Path movedFile = directory.resolve(name + MOVED_SUFFIX);
+        Path segmentTemp = directory.resolve(name + SEGMENT_SUFFIX + ".tmp");
+        Path indexTemp = directory.resolve(name + INDEX_SUFFIX + ".tmp");
+        Path summaryTemp = directory.resolve(name + SUMMARY_SUFFIX + ".tmp");
+        Path movedTemp = directory.resolve(name + MOVED_SUFFIX + ".tmp");
+
+        int written = 0;
+        SortedMap<Long, long[]> summary = new TreeMap<>();
+        try {
+            Files.createDirectories(directory);
+            try (OutputStream segmentOut = new BufferedOutputStream(Files.newOutputStream(segmentTemp));
+                 DataOutputStream indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexTemp)))) {
+                BlockWriter block = new BlockWriter();
+                long offset = 0;
+                long currentCustomer = Long.MIN_VALUE;
+
+                for (ArchivedInteraction row : rows) {
+                    if (row.customerId() != currentCustomer) {
+                        offset += flushBlock(block, currentCustomer, offset, segmentOut, indexOut);
+                        currentCustomer = row.customerId();
+                    }
+                    block.add(row);
+                    if (counted) {
+                        summary.computeIfAbsent(row.interactionDate().toLocalDate().toEpochDay(), day -> new long[TYPES.length])
+                                [row.type().ordinal()]++;
+                    }
+                    written++;
+                }
+                flushBlock(block, currentCustomer, offset, segmentOut, indexOut);
+            }
+
+            if (written == 0) {
+                Files.delete(segmentTemp);
+                Files.delete(indexTemp);
+                return 0;
+            }
+            writeSummary(summary, summaryTemp);
+            if (movedCustomerId != null) {
+                try (DataOutputStream movedOut = new DataOutputStream(Files.newOutputStream(movedTemp))) {
+                    movedOut.writeLong(movedCustomerId);
+                }
+                force(movedTemp);
+                Files.move(movedTemp, movedFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            // The index is renamed last, so a segment only becomes visible once all files are complete
+            force(segmentTemp);
+            force(summaryTemp);
+            force(indexTemp);
+            Files.move(segmentTemp, segmentFile, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(summaryTemp, summaryFile, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(indexTemp, indexFile, StandardCopyOption.ATOMIC_MOVE);
+            segments.add(Segment.open(segmentFile, indexFile, summaryFile, movedFile));
+            logger.info("Archived {} interactions to {}", written, segmentFile);
+            return written;
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(segmentTemp);
+                Files.deleteIfExists(indexTemp);
+                Files.deleteIfExists(summaryTemp);
+                Files.deleteIfExists(movedTemp);
+                Files.deleteIfExists(movedFile);
+            } catch (IOException ignored) {
+                // The temporary files are skipped when segments are opened
+            }
+            throw new UncheckedIOException("Failed to write interaction archive segment " + segmentFile, e);
+        }
+    }
+
+    /**
+     * Read all archived interactions of a customer
+     *
+     * @param customerId Customer ID
+     * @return Archived interactions of the customer, in no particular order
+     */
+    public List<ArchivedInteraction> findByCustomerId(long customerId) {
+        List<ArchivedInteraction> result = new ArrayList<>();
+        // Newest first, stopping at the segment that moved the customer away
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Segment segment = segments.get(i);
+            if (segment.movedCustomers().contains(customerId)) {
+                break;
+            }
+            segment.read(customerId, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of segments on disk
+     *
+     * @return Number of segments
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private void openSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> indexFiles = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + INDEX_SUFFIX)) {
+            stream.forEach(indexFiles::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list interaction archive " + directory, e);
+        }
+        // Sorted by name without the suffix, so segments are in write order and "-n" names follow their base name
+        indexFiles.sort(Comparator.comparing(InteractionArchiveStore::segmentName));
+        for (Path indexFile : indexFiles) {
+            String name = segmentName(indexFile);
+            Path segmentFile = indexFile.resolveSibling(name + SEGMENT_SUFFIX);
+            try {
+                segments.add(Segment.open(segmentFile, indexFile, indexFile.resolveSibling(name + SUMMARY_SUFFIX),
+                        indexFile.resolveSibling(name + MOVED_SUFFIX)));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open interaction archive segment " + segmentFile, e);
+            }
+        }
+        logger.info("Opened {} interaction archive segments in {}", segments.size(), directory);
+    }
+
+    private static String segmentName(Path indexFile) {
+        String fileName = indexFile.getFileName().toString();
+        return fileName.substring(0, fileName.length() - INDEX_SUFFIX.length());
+    }
+
+    private static int flushBlock(BlockWriter block, long customerId, long offset,
+                                  OutputStream segmentOut, DataOutputStream indexOut) throws IOException {
+        if (block.count == 0) {
+            return 0;
+        }
+        byte[] compressed = block.finish();
+        segmentOut.write(compressed);
+        indexOut.writeLong(customerId);
+        indexOut.writeLong(offset);
+        indexOut.writeInt(compressed.length);
+        indexOut.writeInt(block.count);
+        block.reset();
+        return compressed.length;
+    }
+
+    private static void writeSummary(SortedMap<Long, long[]> summary, Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            for (Map.Entry<Long, long[]> day : summary.entrySet()) {
+                for (int i = 0; i < TYPES.length; i++) {
+                    if (day.getValue()[i] > 0) {
+                        out.writeLong(day.getKey());
+                        out.writeByte(i);
+                        out.writeLong(day.getValue()[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Interaction as stored in the archive
+     */
+    public record ArchivedInteraction(long id, long customerId, LocalDateTime interactionDate,
+                                      InteractionType type, Long vehicleId) {
+    }
+
+    /**
+     * Compresses the interactions of one customer into a block.
+     * Record layout: id (long), epoch second (long), nano (int), type ordinal (byte), vehicle ID (long, -1 when none).
+     */
+    private static final class BlockWriter {
+
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(buffer, deflater));
+        private int count;
+
+        void add(ArchivedInteraction row) throws IOException {
+            out.writeLong(row.id());
+            out.writeLong(row.interactionDate().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(row.interactionDate().getNano());
+            out.writeByte(row.type().ordinal());
+            out.writeLong(row.vehicleId() != null ? row.vehicleId() : -1);
+            count++;
+        }
+
+        byte[] finish() throws IOException {
+            out.close();
+            deflater.end();
+            return buffer.toByteArray();
+        }
+
+        void reset() {
+            buffer.reset();
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            out = new DataOutputStream(new DeflaterOutputStream(buffer, deflater));
+            count = 0;
+        }
+    }
+
+    /**
+     * Memory-mapped segment and index file pair, with the segment's daily counts and moved customers held on the heap
+     */
+    private record Segment(MappedByteBuffer data, MappedByteBuffer index, int entries, SortedMap<Long, long[]> summary,
+                           Set<Long> movedCustomers) {
+
+        static Segment open(Path segmentFile, Path indexFile, Path summaryFile, Path movedFile) throws IOException {
+            try (FileChannel dataChannel = FileChannel.open(segmentFile, StandardOpenOption.READ);
+                 FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                MappedByteBuffer data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+                MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexChannel.size());
+                int entries = (int) (indexChannel.size() / INDEX_ENTRY_BYTES);
+                SortedMap<Long, long[]> summary = Files.exists(summaryFile)
+                        ? readSummary(summaryFile)
+                        : summarize(data, index, entries);
+                return new Segment(data, index, entries, summary, readMovedCustomers(movedFile));
+            }
+        }
+
+        private static Set<Long> readMovedCustomers(Path movedFile) throws IOException {
+            if (!Files.exists(movedFile)) {
+                return Set.of();
+            }
+            Set<Long> movedCustomers = new HashSet<>();
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(movedFile));
+            while (buffer.hasRemaining()) {
+                movedCustomers.add(buffer.getLong());
+            }
+            return movedCustomers;
+        }
+
+        private static SortedMap<Long, long[]> readSummary(Path summaryFile) throws IOException {
+            SortedMap<Long, long[]> summary = new TreeMap<>();
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(summaryFile));
+            while (buffer.hasRemaining()) {
+                long day = buffer.getLong();
+                int typeIndex = buffer.get();
+                summary.computeIfAbsent(day, d -> new long[TYPES.length])[typeIndex] += buffer.getLong();
+            }
+            return summary;
+        }
+
+        /**
+         * Count the interactions of a segment written before summaries existed by decoding all of its blocks
+         */
+        private static SortedMap<Long, long[]> summarize(MappedByteBuffer data, MappedByteBuffer index, int entries) {
+            SortedMap<Long, long[]> summary = new TreeMap<>();
+            List<ArchivedInteraction> rows = new ArrayList<>();
+            for (int i = 0; i < entries; i++) {
+                int entry = i * INDEX_ENTRY_BYTES;
+                rows.clear();
+                decode(index.getLong(entry), data.slice((int) index.getLong(entry + Long.BYTES), index.getInt(entry + 2 * Long.BYTES)),
+                        index.getInt(entry + 2 * Long.BYTES + Integer.BYTES), rows);
+                for (ArchivedInteraction row : rows) {
+                    summary.computeIfAbsent(row.interactionDate().toLocalDate().toEpochDay(), day -> new long[TYPES.length])
+                            [row.type().ordinal()]++;
+                }
+            }
+            return summary;
+        }
+
+        void read(long customerId, List<ArchivedInteraction> target) {
+            int low = 0;
+            int high = entries - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midCustomer = index.getLong(mid * INDEX_ENTRY_BYTES);
+                if (midCustomer < customerId) {
+                    low = mid + 1;
+                } else if (midCustomer > customerId) {
+                    high = mid - 1;
+                } else {
+                    int entry = mid * INDEX_ENTRY_BYTES;
+                    long offset = index.getLong(entry + Long.BYTES);
+                    int length = index.getInt(entry + 2 * Long.BYTES);
+                    int count = index.getInt(entry + 2 * Long.BYTES + Integer.BYTES);
+                    decode(customerId, data.slice((int) offset, length), count, target);
+                    return;
+                }
+            }
+        }
+
+        private static void decode(long customerId, ByteBuffer block, int count, List<ArchivedInteraction> target) {
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(block);
+                ByteBuffer records = ByteBuffer.allocate(count * (Long.BYTES * 3 + Integer.BYTES + 1));
+                while (records.hasRemaining() && !inflater.finished()) {
+                    inflater.inflate(records);
+                }
+                records.flip();
+                for (int i = 0; i < count; i++) {
+                    long id = records.getLong();
+                    LocalDateTime interactionDate = LocalDateTime.ofEpochSecond(records.getLong(), records.getInt(), ZoneOffset.UTC);
+                    InteractionType type = TYPES[records.get()];
+                    long vehicleId = records.getLong();
+                    target.add(new ArchivedInteraction(id, customerId, interactionDate, type, vehicleId >= 0 ? vehicleId : null));
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt interaction archive block for customer " + customerId, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.dto.InteractionIngestionResultDTO;
+import dev.tunalime.SemesterProject.dto.InteractionIngestionStatsDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service for asynchronous customer interaction ingestion.
+ * Request threads only enqueue into a bounded buffer; a single writer thread drains it and
+ * inserts the interactions in JDBC batches. When the buffer stays full the caller is told how
+ * many interactions were dropped instead of being blocked.
+ */
+@Service
+public class InteractionIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionIngestionService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final InteractionActivityService interactionActivityService;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<CustomerInteractionDTO> queue;
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public InteractionIngestionService(TransactionTemplate transactionTemplate,
+                                       InteractionActivityService interactionActivityService,
+                                       @Value("${app.ingestion.queue-capacity:10000}") int queueCapacity,
+                                       @Value("${app.ingestion.batch-size:500}") int batchSize,
+                                       @Value("${app.ingestion.offer-timeout-ms:50}") long offerTimeoutMillis) {
+        this.transactionTemplate = transactionTemplate;
+        this.interactionActivityService = interactionActivityService;
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "interaction-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+
+        // Flush whatever was accepted but not yet written
+        List<CustomerInteractionDTO> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Enqueue interactions for writing
+     *
+     * @param interactions Interactions to ingest (customer ID and type are required, date defaults to now)
+     * @return Number of interactions accepted, rejected as invalid and dropped because the buffer was full
+     */
+    public InteractionIngestionResultDTO ingest(List<CustomerInteractionDTO> interactions) {
+        int acceptedCount = 0;
+        int rejectedCount = 0;
+        int droppedCount = 0;
+
+        for (CustomerInteractionDTO interaction : interactions) {
+            if (interaction == null || interaction.getCustomerId() == null || interaction.getType() == null) {
+                rejectedCount++;
+                continue;
+            }
+            if (interaction.getInteractionDate() == null) {
+                interaction.setInteractionDate(LocalDateTime.now());
+            }
+
+            if (droppedCount == 0 && offer(interaction)) {
+                acceptedCount++;
+            } else {
+                // Once the buffer has stayed full for a whole timeout, do not wait again for the rest of the request
+                droppedCount++;
+            }
+        }
+
+        accepted.addAndGet(acceptedCount);
+        rejected.addAndGet(rejectedCount);
+        dropped.addAndGet(droppedCount);
+        return new InteractionIngestionResultDTO(acceptedCount, rejectedCount, droppedCount);
+    }
+
+    /**
+     * Get the current ingestion counters
+     *
+     * @return Ingestion statistics DTO
+     */
+    public InteractionIngestionStatsDTO getStats() {
+        return new InteractionIngestionStatsDTO(
+                queue.size(),
+                queue.size() + queue.remainingCapacity(),
+                accepted.get(),
+                rejected.get(),
+                dropped.get(),
+                written.get(),
+                failed.get(),
+                batches.get());
+    }
+
+    private boolean offer(CustomerInteractionDTO interaction) {
+        try {
+            return queue.offer(interaction, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void writeLoop() {
+        List<CustomerInteractionDTO> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                CustomerInteractionDTO first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Interrupted by stop(); the remaining interactions are flushed there
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Interaction writer failed on a batch of {} interactions", batch.size(), e);
+                failed.addAndGet(batch.size());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<CustomerInteractionDTO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Interactions are counted in the activity counters as they are inserted
+        interactionActivityService.recordingWrites(() -> insertBatch(batch));
+        batches.incrementAndGet();
+    }
+
+    private void insertBatch(List<CustomerInteractionDTO> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            written.addAndGet(batch.size());
+            batch.forEach(this::recordActivity);
+        } catch (RuntimeException e) {
+            // One bad row (unknown customer or vehicle) fails the whole batch; retry row by row to isolate it
+            logger.warn("Interaction batch of {} failed, retrying row by row: {}", batch.size(), e.getMessage());
+            for (CustomerInteractionDTO interaction : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(interaction)));
+                    written.incrementAndGet();
+                    recordActivity(interaction);
+                } catch (RuntimeException rowError) {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    private void persist(List<CustomerInteractionDTO> interactions) {
+        // IDs come from the pooled sequence, so the inserts of the whole batch go out as JDBC batches
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        for (CustomerInteractionDTO dto : interactions) {
+            CustomerInteraction interaction = new CustomerInteraction();
+            interaction.setCustomer(entityManager.getReference(Customer.class, dto.getCustomerId()));
+            interaction.setInteractionDate(dto.getInteractionDate());
+            interaction.setType(dto.getType());
+            if (dto.getVehicleId() != null) {
+                interaction.setVehicle(entityManager.getReference(Vehicle.class, dto.getVehicleId()));
+            }
+            entityManager.persist(interaction);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void recordActivity(CustomerInteractionDTO interaction) {
+        interactionActivityService.record(interaction.getInteractionDate(), interaction.getType());
+    }
+}
@@ -0,0 +1,117 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.dto.InteractionTimelinePageDTO;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service for keyset-paginated customer interaction timelines.
+ * Pages are addressed by the (interactionDate, id) of the last interaction shown, so every page is a
+ * range scan on the (customer_id, interaction_date, id) index regardless of how deep the client has scrolled.
+ */
+@Service
+public class InteractionTimelineService {
+
+    // Upper bound for the page size
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Cursor of the first page: sorts after every real interaction
+    private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final long FIRST_PAGE_ID = Long.MAX_VALUE;
+
+    private final CustomerInteractionRepository customerInteractionRepository;
+    private final VehicleService vehicleService;
+
+    @Autowired
+    public InteractionTimelineService(CustomerInteractionRepository customerInteractionRepository,
+                                      VehicleService vehicleService) {
+        this.customerInteractionRepository = customerInteractionRepository;
+        this.vehicleService = vehicleService;
+    }
+
+    /**
+     * Get one page of a customer's interactions, newest first
+     *
+     * @param customerId Customer ID
+     * @param cursor Cursor returned with the previous page (null for the first page)
+     * @param size Page size (capped at 100)
+     * @param types Interaction types to include (null or empty for all types)
+     * @return Timeline page with the cursor of the next page
+     */
+    public InteractionTimelinePageDTO getTimelinePage(Long customerId, String cursor, int size, Set<InteractionType> types) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        LocalDateTime beforeDate = FIRST_PAGE_DATE;
+        long beforeId = FIRST_PAGE_ID;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                beforeDate = LocalDateTime.parse(position[0]);
+                beforeId = Long.parseLong(position[1]);
+            } catch (DateTimeParseException | IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid timeline cursor: " + cursor, e);
+            }
+        }
+
+        // One extra row tells whether another page follows
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+        List<CustomerInteraction> interactions = types == null || types.isEmpty()
+                ? customerInteractionRepository.findTimelinePage(customerId, beforeDate, beforeId, limit)
+                : customerInteractionRepository.findTimelinePageByTypes(customerId, beforeDate, beforeId, types, limit);
+
+        boolean hasMore = interactions.size() > pageSize;
+        if (hasMore) {
+            interactions = interactions.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            CustomerInteraction last = interactions.get(interactions.size() - 1);
+            nextCursor = encodeCursor(last.getInteractionDate(), last.getId());
+        }
+
+        List<CustomerInteractionDTO> page = interactions.stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+        return new InteractionTimelinePageDTO(page, nextCursor, hasMore);
+    }
+
+    private String encodeCursor(LocalDateTime interactionDate, Long id) {
+        String position = interactionDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Convert CustomerInteraction entity to DTO; shared by every service returning interactions
+     *
+     * @param interaction CustomerInteraction entity with customer and vehicle fetched
+     * @return CustomerInteraction DTO
+     */
+    public CustomerInteractionDTO convertToDTO(CustomerInteraction interaction) {
+        CustomerInteractionDTO dto = new CustomerInteractionDTO();
+        dto.setId(interaction.getId());
+        dto.setCustomerId(interaction.getCustomer().getId());
+        dto.setCustomerName(interaction.getCustomer().getFirstName() + " " + interaction.getCustomer().getLastName());
+        dto.setInteractionDate(interaction.getInteractionDate());
+        dto.setType(interaction.getType());
+
+        if (interaction.getVehicle() != null) {
+            dto.setVehicleId(interaction.getVehicle().getId());
+            dto.setVehicleInfo(vehicleService.getVehicleInfo(interaction.getVehicle()));
+        }
+
+        return dto;
+    }
+}
@@ -0,0 +1,150 @@
+package dev.tunalime.SemesterProject.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service maintaining the monthly partitions of sales and customer interactions on PostgreSQL.
+ * Partitions for the coming months are created ahead of time; partitions past the retention period are
+ * detached from the live table and stay behind as plain tables, ready to be archived or dropped.
+ * Rows dated outside the monthly partitions land in each table's default partition and are reported here.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.partitioning", name = "enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+
+    // Tables partitioned by month in db/migration/postgresql; partitions are named <table>_YYYY_MM
+    private static final List<String> PARTITIONED_TABLES = List.of("sales", "customer_interactions");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Months after the current one that must already have a partition
+    @Value("${app.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    // Months before the current one that stay attached
+    @Value("${app.partitioning.retention-months:36}")
+    private int retentionMonths;
+
+    @Autowired
+    public PartitionMaintenanceService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Bring the partitions up to date on startup, in case the nightly run was missed over a month boundary
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintainPartitions(YearMonth.now());
+    }
+
+    /**
+     * Nightly partition maintenance
+     */
+    @Scheduled(cron = "${app.partitioning.cron:0 15 1 * * *}")
+    public void scheduledMaintenance() {
+        maintainPartitions(YearMonth.now());
+    }
+
+    /**
+     * Create the missing partitions up to the configured months ahead and detach those older than the retention period
+     *
+     * @param currentMonth Month the window is calculated from
+     * @return Names of the created and detached partitions
+     */
+    public List<String> maintainPartitions(YearMonth currentMonth) {
+        List<String> changed = new ArrayList<>();
+        for (String table : PARTITIONED_TABLES) {
+            Set<String> partitions = new HashSet<>(getAttachedPartitions(table));
+            changed.addAll(createFuturePartitions(table, partitions, currentMonth));
+            changed.addAll(detachExpiredPartitions(table, partitions, currentMonth));
+            reportDefaultPartition(table, partitions);
+        }
+        if (!changed.isEmpty()) {
+            logger.info("Partition maintenance changed {}", changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Get the partitions currently attached to a partitioned table
+     *
+     * @param table Partitioned table
+     * @return Partition names
+     */
+    public List<String> getAttachedPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname", String.class, table);
+    }
+
+    private List<String> createFuturePartitions(String table, Set<String> partitions, YearMonth currentMonth) {
+        List<String> created = new ArrayList<>();
+        for (int offset = 0; offset <= monthsAhead; offset++) {
+            YearMonth month = currentMonth.plusMonths(offset);
+            if (!partitions.contains(partitionName(table, month))) {
+                // Function from the partitioning migration, so the range bounds are defined in one place
+                created.add(jdbcTemplate.queryForObject("SELECT create_monthly_partition(?, ?)", String.class,
+                        table, month.atDay(1)));
+            }
+        }
+        return created;
+    }
+
+    private List<String> detachExpiredPartitions(String table, Set<String> partitions, YearMonth currentMonth) {
+        YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+        Pattern monthlyPartition = Pattern.compile(Pattern.quote(table) + "_(\\d{4})_(\\d{2})");
+        List<String> detached = new ArrayList<>();
+        for (String partition : partitions) {
+            Matcher matcher = monthlyPartition.matcher(partition);
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (month.isBefore(oldestKept)) {
+                // Table and partition names come from the constant list and the catalog, never from input
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                detached.add(partition);
+            }
+        }
+        return detached;
+    }
+
+    private void reportDefaultPartition(String table, Set<String> partitions) {
+        String defaultPartition = table + "_default";
+        if (!partitions.contains(defaultPartition)) {
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + defaultPartition, Long.class);
+        if (rows != null && rows > 0) {
+            logger.warn("{} rows of {} are dated outside the monthly partitions and held in {}", rows, table, defaultPartition);
+        }
+    }
+
+    private static String partitionName(String table, YearMonth month) {
+        return table + "_" + PARTITION_SUFFIX.format(month);
+    }
+}
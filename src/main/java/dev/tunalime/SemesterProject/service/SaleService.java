@@ -1,10 +1,13 @@
 package dev.tunalime.SemesterProject.service;
 
+import dev.tunalime.SemesterProject.dto.SaleDTO;
 import dev.tunalime.SemesterProject.entity.*;
+import dev.tunalime.SemesterProject.event.SaleStatusChangedEvent;
 import dev.tunalime.SemesterProject.repository.CustomerRepository;
 import dev.tunalime.SemesterProject.repository.SaleRepository;
 import dev.tunalime.SemesterProject.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,26 +22,34 @@ public class SaleService {
     private final SaleRepository saleRepository;
     private final CustomerRepository customerRepository;
     private final VehicleRepository vehicleRepository;
+    private final VehicleService vehicleService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @Autowired
     public SaleService(SaleRepository saleRepository, 
                        CustomerRepository customerRepository,
-                       VehicleRepository vehicleRepository) {
+                       VehicleRepository vehicleRepository,
+                       VehicleService vehicleService,
+                       ApplicationEventPublisher eventPublisher) {
         this.saleRepository = saleRepository;
         this.customerRepository = customerRepository;
         this.vehicleRepository = vehicleRepository;
+        this.vehicleService = vehicleService;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
      * Get all sales
      */
+    @Transactional(readOnly = true)
     public List<Sale> getAllSales() {
-        return saleRepository.findAll();
+        return saleRepository.findAllWithDetails();
     }
     
     /**
      * Get sale by id
      */
+    @Transactional(readOnly = true)
     public Optional<Sale> getSaleById(Long id) {
         return saleRepository.findById(id);
     }
@@ -46,6 +57,7 @@ public class SaleService {
     /**
      * Get sales by customer id
      */
+    @Transactional(readOnly = true)
     public List<Sale> getSalesByCustomerId(Long customerId) {
         return saleRepository.findByCustomerId(customerId);
     }
@@ -61,7 +73,8 @@ public class SaleService {
         Customer customer = customerRepository.findById(customerId)
             .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
             
-        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+        // Locked, so a concurrent sale of the same vehicle waits here and then sees it reserved
+        Vehicle vehicle = vehicleRepository.findByIdForUpdate(vehicleId)
             .orElseThrow(() -> new IllegalArgumentException("Vehicle not found"));
             
         // Validate vehicle availability
@@ -69,6 +82,10 @@ public class SaleService {
             vehicle.getStatus() != VehicleStatus.IN_SHOWROOM) {
             throw new IllegalStateException("Vehicle is not available for sale");
         }
+        // Only a cancelled sale releases the vehicle; checked under the lock, as no unique constraint backs it
+        if (saleRepository.existsByVehicleIdAndStatusNot(vehicleId, SaleStatus.CANCELLED)) {
+            throw new IllegalStateException("Vehicle already has an active sale");
+        }
         
         // Create new sale
         Sale sale = new Sale();
@@ -85,7 +102,9 @@ public class SaleService {
         vehicleRepository.save(vehicle);
         
         // Save and return the sale
-        return saleRepository.save(sale);
+        sale = saleRepository.save(sale);
+        eventPublisher.publishEvent(new SaleStatusChangedEvent(sale.getId(), customerId, null, sale.getStatus()));
+        return sale;
     }
     
     /**
@@ -102,6 +121,7 @@ public class SaleService {
         }
         
         // Update sale
+        SaleStatus before = sale.getStatus();
         sale.setStatus(SaleStatus.COMPLETED);
         sale.setSalesEmployeeName(salesEmployeeName);
         
@@ -110,7 +130,7 @@ public class SaleService {
         vehicle.setStatus(VehicleStatus.SOLD);
         vehicleRepository.save(vehicle);
         
-        return saleRepository.save(sale);
+        return saveWithEvent(sale, before);
     }
     
     /**
@@ -127,6 +147,7 @@ public class SaleService {
         }
         
         // Update sale
+        SaleStatus before = sale.getStatus();
         sale.setStatus(SaleStatus.CANCELLED);
         
         // Update vehicle status
@@ -134,7 +155,7 @@ public class SaleService {
         vehicle.setStatus(VehicleStatus.IN_STOCK);
         vehicleRepository.save(vehicle);
         
-        return saleRepository.save(sale);
+        return saveWithEvent(sale, before);
     }
     
     /**
@@ -151,9 +172,10 @@ public class SaleService {
         }
         
         // Update sale
+        SaleStatus before = sale.getStatus();
         sale.setStatus(SaleStatus.DELIVERED);
         
-        return saleRepository.save(sale);
+        return saveWithEvent(sale, before);
     }
     
     /**
@@ -171,6 +193,7 @@ public class SaleService {
     /**
      * Get sales by status
      */
+    @Transactional(readOnly = true)
     public List<Sale> getSalesByStatus(SaleStatus status) {
         return saleRepository.findByStatus(status);
     }
@@ -178,7 +201,39 @@ public class SaleService {
     /**
      * Get sales by date range
      */
+    @Transactional(readOnly = true)
     public List<Sale> getSalesByDateRange(LocalDate startDate, LocalDate endDate) {
         return saleRepository.findBySaleDateBetween(startDate, endDate);
     }
+    
+    /**
+     * Save a sale whose status changed and publish the change
+     */
+    private Sale saveWithEvent(Sale sale, SaleStatus before) {
+        sale = saleRepository.save(sale);
+        eventPublisher.publishEvent(new SaleStatusChangedEvent(sale.getId(), sale.getCustomer().getId(), before, sale.getStatus()));
+        return sale;
+    }
+    
+    /**
+     * Convert Sale entity to DTO
+     * 
+     * @param sale Sale entity with customer and vehicle fetched
+     * @return Sale DTO
+     */
+    public SaleDTO convertToDTO(Sale sale) {
+        SaleDTO dto = new SaleDTO();
+        dto.setId(sale.getId());
+        dto.setCustomerId(sale.getCustomer().getId());
+        dto.setCustomerName(sale.getCustomer().getFirstName() + " " + sale.getCustomer().getLastName());
+        dto.setVehicleId(sale.getVehicle().getId());
+        dto.setVehicleInfo(vehicleService.getVehicleInfo(sale.getVehicle()));
+        dto.setSaleDate(sale.getSaleDate());
+        dto.setSalePrice(sale.getSalePrice());
+        dto.setDiscount(sale.getDiscount());
+        dto.setStatus(sale.getStatus());
+        dto.setSalesEmployeeName(sale.getSalesEmployeeName());
+        dto.setPaymentMethod(sale.getPaymentMethod());
+        return dto;
+    }
 } 
\ No newline at end of file
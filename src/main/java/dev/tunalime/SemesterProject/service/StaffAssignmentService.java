@@ -0,0 +1,316 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.StaffWorkloadDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.entity.TestDrive;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Service assigning test drives to the least-loaded qualified staff member.
+ * The staff roster and brand qualifications come from configuration. For every day a test drive is
+ * assigned on, the staff members are kept in a tree ordered by booked minutes; test drive change events
+ * move a staff member within that tree, so both picking and rebalancing cost O(log n) per change.
+ */
+@Service
+public class StaffAssignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaffAssignmentService.class);
+
+    // Test drives that take up staff time
+    private static final Set<TestDriveStatus> BUSY_STATUSES = EnumSet.of(TestDriveStatus.SCHEDULED, TestDriveStatus.COMPLETED);
+
+    private final TestDriveRepository testDriveRepository;
+    private final TestDriveSchedulingEngine schedulingEngine;
+
+    // Staff key -> staff member, in roster order
+    private final Map<String, StaffMember> roster = new LinkedHashMap<>();
+
+    private final Map<LocalDate, DayLoad> days = new HashMap<>();
+
+    @Autowired
+    public StaffAssignmentService(TestDriveRepository testDriveRepository,
+                                  TestDriveSchedulingEngine schedulingEngine,
+                                  @Value("${app.test-drive.staff:}") String staff) {
+        this.testDriveRepository = testDriveRepository;
+        this.schedulingEngine = schedulingEngine;
+        for (String entry : staff.split(",")) {
+            StaffMember member = parseStaffMember(entry);
+            if (member != null) {
+                roster.put(staffKey(member.name), member);
+            }
+        }
+        logger.info("Test drive staff roster has {} members", roster.size());
+    }
+
+    /**
+     * Check whether a staff roster is configured
+     *
+     * @return true if test drives can be assigned automatically
+     */
+    public boolean hasRoster() {
+        return !roster.isEmpty();
+    }
+
+    /**
+     * Pick the least-loaded staff member who may present the brand and is free for the whole test drive
+     *
+     * @param brand Vehicle brand
+     * @param start Start of the test drive
+     * @param durationMinutes Duration in minutes
+     * @return Staff member name, or null if nobody qualified is free
+     */
+    public synchronized String pickStaffMember(String brand, LocalDateTime start, Integer durationMinutes) {
+        if (roster.isEmpty() || start == null) {
+            return null;
+        }
+        DayLoad day = getDay(start.toLocalDate());
+        for (StaffLoad load : day.queue) {
+            StaffMember member = roster.get(load.staffKey());
+            if (member != null && member.isQualifiedFor(brand)
+                    && schedulingEngine.isStaffFree(member.name, start, durationMinutes)) {
+                return member.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Count the minutes of a test drive that is reserved but not saved yet, so that later picks see them.
+     * The hold is released when the test drive is saved, just before its change event adds the same minutes,
+     * or when saving fails.
+     *
+     * @param staffMemberName Staff member name (optional)
+     * @param start Start of the test drive
+     * @param durationMinutes Duration in minutes
+     * @return Hold to pass to {@link #release}, or null if no staff member is booked
+     */
+    public synchronized StaffHold hold(String staffMemberName, LocalDateTime start, Integer durationMinutes) {
+        String staffKey = staffKey(staffMemberName);
+        if (staffKey == null || start == null) {
+            return null;
+        }
+        DayLoad day = getDay(start.toLocalDate());
+        int minutes = schedulingEngine.normalizeDuration(durationMinutes);
+        day.displayNames.putIfAbsent(staffKey, staffMemberName.trim());
+        day.shift(staffKey, minutes);
+        return new StaffHold(start.toLocalDate(), day, staffKey, minutes);
+    }
+
+    /**
+     * Take back the minutes of a hold
+     *
+     * @param hold Hold returned by {@link #hold} (null is ignored)
+     */
+    public synchronized void release(StaffHold hold) {
+        // A day dropped and reloaded since then does not contain the hold
+        if (hold != null && days.get(hold.date) == hold.day) {
+            hold.day.shift(hold.staffKey, -hold.minutes);
+        }
+    }
+
+    /**
+     * Get the booked minutes of every staff member on a day, least loaded first
+     *
+     * @param date Day
+     * @return Workload per staff member
+     */
+    public synchronized List<StaffWorkloadDTO> getWorkload(LocalDate date) {
+        DayLoad day = getDay(date);
+        List<StaffWorkloadDTO> workload = new ArrayList<>();
+        for (StaffLoad load : day.queue) {
+            StaffMember member = roster.get(load.staffKey());
+            workload.add(new StaffWorkloadDTO(
+                    member != null ? member.name : day.displayNames.get(load.staffKey()),
+                    load.bookedMinutes(),
+                    day.countTestDrives(load.staffKey()),
+                    member != null,
+                    member != null ? member.brandList() : List.of()));
+        }
+        return workload;
+    }
+
+    /**
+     * Move the minutes of a changed test drive between staff members
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onTestDriveChanged(TestDriveChangedEvent event) {
+        TestDriveDTO changed = event.after() != null ? event.after() : event.before();
+        if (changed == null || changed.getId() == null) {
+            return;
+        }
+        if (event.before() != null && event.before().getScheduledDateTime() != null) {
+            DayLoad day = days.get(event.before().getScheduledDateTime().toLocalDate());
+            if (day != null) {
+                day.remove(changed.getId());
+            }
+        }
+        TestDriveDTO after = event.after();
+        if (after != null && after.getScheduledDateTime() != null && BUSY_STATUSES.contains(after.getStatus())) {
+            // Days nobody asked about are loaded from the database when first needed
+            DayLoad day = days.get(after.getScheduledDateTime().toLocalDate());
+            if (day != null) {
+                day.remove(after.getId());
+                day.add(after.getId(), after.getStaffMemberName(),
+                        schedulingEngine.normalizeDuration(after.getDurationMinutes()));
+            }
+        }
+    }
+
+    private DayLoad getDay(LocalDate date) {
+        DayLoad day = days.get(date);
+        if (day != null) {
+            return day;
+        }
+
+        // Past days no longer take assignments
+        days.keySet().removeIf(cached -> cached.isBefore(LocalDate.now()));
+
+        day = new DayLoad();
+        for (String staffKey : roster.keySet()) {
+            day.queue.add(new StaffLoad(staffKey, 0));
+            day.minutes.put(staffKey, 0L);
+        }
+        for (TestDrive testDrive : testDriveRepository.findInRangeWithDetails(
+                date.atStartOfDay(), date.plusDays(1).atStartOfDay(), BUSY_STATUSES)) {
+            day.add(testDrive.getId(), testDrive.getStaffMemberName(),
+                    schedulingEngine.normalizeDuration(testDrive.getDurationMinutes()));
+        }
+        days.put(date, day);
+        return day;
+    }
+
+    private static StaffMember parseStaffMember(String entry) {
+        // "Name" may present every brand, "Name:Brand|Brand" only the listed ones
+        String[] parts = entry.split(":", 2);
+        String name = parts[0].trim();
+        if (name.isEmpty()) {
+            return null;
+        }
+        Set<String> brands = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        if (parts.length > 1) {
+            for (String brand : parts[1].split("\\|")) {
+                if (!brand.isBlank()) {
+                    brands.add(brand.trim());
+                }
+            }
+        }
+        return new StaffMember(name, brands);
+    }
+
+    private static String staffKey(String staffMemberName) {
+        if (staffMemberName == null || staffMemberName.isBlank()) {
+            return null;
+        }
+        return staffMemberName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Staff member from the roster with the brands they may present (empty for every brand)
+     */
+    private record StaffMember(String name, Set<String> brands) {
+
+        boolean isQualifiedFor(String brand) {
+            return brands.isEmpty() || (brand != null && brands.contains(brand));
+        }
+
+        List<String> brandList() {
+            return List.copyOf(brands);
+        }
+    }
+
+    /**
+     * Position of a staff member in a day's queue
+     */
+    private record StaffLoad(String staffKey, long bookedMinutes) {
+    }
+
+    /**
+     * Booked minutes per staff member on one day
+     */
+    private static final class DayLoad {
+        private static final Comparator<StaffLoad> LEAST_LOADED_FIRST = Comparator
+                .comparingLong(StaffLoad::bookedMinutes)
+                .thenComparing(StaffLoad::staffKey);
+
+        private final TreeSet<StaffLoad> queue = new TreeSet<>(LEAST_LOADED_FIRST);
+        private final Map<String, Long> minutes = new HashMap<>();
+        private final Map<String, String> displayNames = new HashMap<>();
+
+        // Test drive ID -> (staff key, minutes) it contributes, so a change is applied only once
+        private final Map<Long, Contribution> contributions = new HashMap<>();
+
+        void add(Long testDriveId, String staffMemberName, int durationMinutes) {
+            String staffKey = staffKey(staffMemberName);
+            if (staffKey == null) {
+                return;
+            }
+            displayNames.putIfAbsent(staffKey, staffMemberName.trim());
+            contributions.put(testDriveId, new Contribution(staffKey, durationMinutes));
+            shift(staffKey, durationMinutes);
+        }
+
+        void remove(Long testDriveId) {
+            Contribution contribution = contributions.remove(testDriveId);
+            if (contribution != null) {
+                shift(contribution.staffKey(), -contribution.minutes());
+            }
+        }
+
+        long countTestDrives(String staffKey) {
+            return contributions.values().stream()
+                    .filter(contribution -> contribution.staffKey().equals(staffKey))
+                    .count();
+        }
+
+        private void shift(String staffKey, long delta) {
+            Long current = minutes.get(staffKey);
+            if (current != null) {
+                queue.remove(new StaffLoad(staffKey, current));
+            }
+            long updated = (current != null ? current : 0) + delta;
+            minutes.put(staffKey, updated);
+            queue.add(new StaffLoad(staffKey, updated));
+        }
+    }
+
+    private record Contribution(String staffKey, int minutes) {
+    }
+
+    /**
+     * Minutes of a reserved test drive counted before it is saved
+     */
+    public static final class StaffHold {
+        private final LocalDate date;
+        private final DayLoad day;
+        private final String staffKey;
+        private final int minutes;
+
+        private StaffHold(LocalDate date, DayLoad day, String staffKey, int minutes) {
+            this.date = date;
+            this.day = day;
+            this.staffKey = staffKey;
+            this.minutes = minutes;
+        }
+    }
+}
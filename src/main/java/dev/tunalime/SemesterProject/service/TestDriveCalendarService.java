@@ -0,0 +1,218 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CalendarIntervalDTO;
+import dev.tunalime.SemesterProject.dto.ResourceCalendarDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.dto.VehicleDTO;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Service for vehicle and staff availability calendars.
+ * Test drives are cached per day; the days missing from the cache for a requested range are
+ * loaded with a single range query on the scheduled time, and a day is evicted whenever a
+ * test drive on it changes.
+ */
+@Service
+public class TestDriveCalendarService {
+
+    // Longest range a single calendar request may cover
+    private static final int MAX_RANGE_DAYS = 31;
+
+    // Cached days beyond this are dropped wholesale
+    private static final int MAX_CACHED_DAYS = 400;
+
+    // Test drives that occupy their slot
+    private static final Set<TestDriveStatus> BUSY_STATUSES = EnumSet.of(TestDriveStatus.SCHEDULED, TestDriveStatus.COMPLETED);
+
+    private final TestDriveService testDriveService;
+    private final VehicleService vehicleService;
+    private final TestDriveSchedulingEngine schedulingEngine;
+
+    private final Map<LocalDate, List<TestDriveDTO>> days = new ConcurrentHashMap<>();
+
+    // Bumped on every eviction, so a load that raced with a change is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public TestDriveCalendarService(TestDriveService testDriveService,
+                                    VehicleService vehicleService,
+                                    TestDriveSchedulingEngine schedulingEngine) {
+        this.testDriveService = testDriveService;
+        this.vehicleService = vehicleService;
+        this.schedulingEngine = schedulingEngine;
+    }
+
+    /**
+     * Get the busy and free intervals of vehicles for a date range
+     *
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param vehicleId Vehicle ID (optional, all vehicles available for test drives when null)
+     * @return One calendar per vehicle
+     */
+    public List<ResourceCalendarDTO> getVehicleCalendars(LocalDate from, LocalDate to, Long vehicleId) {
+        Map<LocalDate, List<TestDriveDTO>> testDrives = getDays(from, to);
+
+        List<VehicleDTO> vehicles = vehicleId != null
+                ? List.of(vehicleService.getVehicleById(vehicleId))
+                : vehicleService.getVehiclesAvailableForTestDrive();
+        Map<Long, List<TestDriveDTO>> byVehicle = testDrives.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.groupingBy(TestDriveDTO::getVehicleId));
+
+        List<ResourceCalendarDTO> calendars = new ArrayList<>();
+        for (VehicleDTO vehicle : vehicles) {
+            String displayName = vehicle.getBrand() + " " + vehicle.getModel() + " " + vehicle.getYear();
+            calendars.add(buildCalendar(vehicle.getId(), null, displayName, from, to,
+                    byVehicle.getOrDefault(vehicle.getId(), List.of())));
+        }
+        return calendars;
+    }
+
+    /**
+     * Get the busy and free intervals of staff members for a date range
+     *
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @param staffMemberName Staff member name (optional, every staff member with a test drive in the range when null)
+     * @return One calendar per staff member
+     */
+    public List<ResourceCalendarDTO> getStaffCalendars(LocalDate from, LocalDate to, String staffMemberName) {
+        Map<LocalDate, List<TestDriveDTO>> testDrives = getDays(from, to);
+
+        // Names are grouped case-insensitively and shown as first written
+        Map<String, List<TestDriveDTO>> byStaff = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        testDrives.values().stream()
+                .flatMap(List::stream)
+                .filter(testDrive -> testDrive.getStaffMemberName() != null && !testDrive.getStaffMemberName().isBlank())
+                .forEach(testDrive -> byStaff.computeIfAbsent(testDrive.getStaffMemberName().trim(), key -> new ArrayList<>()).add(testDrive));
+
+        List<ResourceCalendarDTO> calendars = new ArrayList<>();
+        if (staffMemberName != null && !staffMemberName.isBlank()) {
+            String name = staffMemberName.trim();
+            calendars.add(buildCalendar(null, name, name, from, to, byStaff.getOrDefault(name, List.of())));
+            return calendars;
+        }
+        byStaff.forEach((name, staffTestDrives) ->
+                calendars.add(buildCalendar(null, name, name, from, to, staffTestDrives)));
+        return calendars;
+    }
+
+    /**
+     * Evict the days a changed test drive was and is scheduled on
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTestDriveChanged(TestDriveChangedEvent event) {
+        generation.incrementAndGet();
+        evict(event.before());
+        evict(event.after());
+    }
+
+    private void evict(TestDriveDTO testDrive) {
+        if (testDrive != null && testDrive.getScheduledDateTime() != null) {
+            days.remove(testDrive.getScheduledDateTime().toLocalDate());
+        }
+    }
+
+    private Map<LocalDate, List<TestDriveDTO>> getDays(LocalDate from, LocalDate to) {
+        if (to.isBefore(from) || to.isAfter(from.plusDays(MAX_RANGE_DAYS - 1))) {
+            throw new IllegalArgumentException("Calendar range must cover between 1 and " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<LocalDate, List<TestDriveDTO>> result = new LinkedHashMap<>();
+        LocalDate firstMissing = null;
+        LocalDate lastMissing = null;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            List<TestDriveDTO> cached = days.get(day);
+            result.put(day, cached);
+            if (cached == null) {
+                firstMissing = firstMissing == null ? day : firstMissing;
+                lastMissing = day;
+            }
+        }
+        if (firstMissing == null) {
+            return result;
+        }
+
+        // One range query covers every missing day
+        long loadGeneration = generation.get();
+        Map<LocalDate, List<TestDriveDTO>> loaded = testDriveService.getTestDrivesInRange(
+                        firstMissing.atStartOfDay(), lastMissing.plusDays(1).atStartOfDay(), BUSY_STATUSES).stream()
+                .collect(Collectors.groupingBy(testDrive -> testDrive.getScheduledDateTime().toLocalDate()));
+        for (LocalDate day = firstMissing; !day.isAfter(lastMissing); day = day.plusDays(1)) {
+            List<TestDriveDTO> dayTestDrives = loaded.getOrDefault(day, List.of());
+            if (result.get(day) == null) {
+                result.put(day, dayTestDrives);
+            }
+        }
+
+        if (days.size() > MAX_CACHED_DAYS) {
+            days.clear();
+        }
+        if (generation.get() == loadGeneration) {
+            for (LocalDate day = firstMissing; !day.isAfter(lastMissing); day = day.plusDays(1)) {
+                days.putIfAbsent(day, loaded.getOrDefault(day, List.of()));
+            }
+        }
+        return result;
+    }
+
+    private ResourceCalendarDTO buildCalendar(Long vehicleId, String staffMemberName, String displayName,
+                                              LocalDate from, LocalDate to, List<TestDriveDTO> testDrives) {
+        List<CalendarIntervalDTO> busy = testDrives.stream()
+                .sorted(Comparator.comparing(TestDriveDTO::getScheduledDateTime))
+                .map(testDrive -> new CalendarIntervalDTO(
+                        testDrive.getScheduledDateTime(),
+                        testDrive.getScheduledDateTime().plusMinutes(schedulingEngine.normalizeDuration(testDrive.getDurationMinutes())),
+                        testDrive.getId()))
+                .collect(Collectors.toList());
+
+        // Free intervals are the opening hours of each day minus the busy intervals
+        List<CalendarIntervalDTO> free = new ArrayList<>();
+        Map<LocalDate, List<CalendarIntervalDTO>> busyByDay = busy.stream()
+                .collect(Collectors.groupingBy(interval -> interval.getStart().toLocalDate(), TreeMap::new, Collectors.toList()));
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDateTime cursor = day.atTime(schedulingEngine.getOpeningHour(), 0);
+            LocalDateTime closing = day.atStartOfDay().plusHours(schedulingEngine.getClosingHour());
+            for (CalendarIntervalDTO interval : busyByDay.getOrDefault(day, List.of())) {
+                if (interval.getStart().isAfter(cursor)) {
+                    free.add(new CalendarIntervalDTO(cursor, min(interval.getStart(), closing), null));
+                }
+                if (interval.getEnd().isAfter(cursor)) {
+                    cursor = interval.getEnd();
+                }
+                if (!cursor.isBefore(closing)) {
+                    break;
+                }
+            }
+            if (cursor.isBefore(closing)) {
+                free.add(new CalendarIntervalDTO(cursor, closing, null));
+            }
+        }
+        free.removeIf(interval -> !interval.getEnd().isAfter(interval.getStart()));
+
+        return new ResourceCalendarDTO(vehicleId, staffMemberName, displayName, busy, free);
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
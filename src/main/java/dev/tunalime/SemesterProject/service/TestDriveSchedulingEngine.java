@@ -0,0 +1,434 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.CustomersMergedEvent;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Scheduling engine for test drives.
+ * Keeps the scheduled test drives in per-vehicle, per-customer and per-staff interval indexes
+ * (tree maps of non-overlapping bookings keyed by start time), so a conflict check is two
+ * O(log n) lookups per resource. Booking is serialized on the engine, which makes the
+ * check-then-reserve step atomic for concurrent requests.
+ */
+@Service
+public class TestDriveSchedulingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestDriveSchedulingEngine.class);
+
+    // How far ahead the next available slots are searched
+    private static final int SEARCH_HORIZON_DAYS = 30;
+
+    private final TestDriveRepository testDriveRepository;
+    private final int slotMinutes;
+    private final int openingHour;
+    private final int closingHour;
+
+    private final Map<Long, TreeMap<LocalDateTime, Booking>> vehicleBookings = new HashMap<>();
+    private final Map<Long, TreeMap<LocalDateTime, Booking>> customerBookings = new HashMap<>();
+    private final Map<String, TreeMap<LocalDateTime, Booking>> staffBookings = new HashMap<>();
+    private final Map<Long, Booking> bookingsByTestDrive = new HashMap<>();
+
+    @Autowired
+    public TestDriveSchedulingEngine(TestDriveRepository testDriveRepository,
+                                     @Value("${app.test-drive.slot-minutes:30}") int slotMinutes,
+                                     @Value("${app.test-drive.opening-hour:9}") int openingHour,
+                                     @Value("${app.test-drive.closing-hour:19}") int closingHour) {
+        this.testDriveRepository = testDriveRepository;
+        this.slotMinutes = slotMinutes;
+        this.openingHour = openingHour;
+        this.closingHour = closingHour;
+    }
+
+    /**
+     * Load the scheduled test drives from today on once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadBookings() {
+        vehicleBookings.clear();
+        customerBookings.clear();
+        staffBookings.clear();
+        bookingsByTestDrive.clear();
+
+        int loaded = 0;
+        for (Object[] row : testDriveRepository.findBookingsFrom(TestDriveStatus.SCHEDULED, LocalDate.now().atStartOfDay())) {
+            LocalDateTime start = (LocalDateTime) row[4];
+            Booking booking = new Booking((Long) row[1], (Long) row[2], staffKey((String) row[3]),
+                    start, start.plusMinutes(normalizeDuration((Integer) row[5])));
+            if (findConflict(booking.vehicleId, booking.customerId, booking.staffKey, booking.start, booking.end) != null) {
+                // Bookings made before the engine existed may overlap; keep the first one indexed
+                logger.warn("Test drive {} overlaps an earlier booking and is not indexed", row[0]);
+                continue;
+            }
+            index(booking);
+            booking.testDriveId = (Long) row[0];
+            bookingsByTestDrive.put(booking.testDriveId, booking);
+            loaded++;
+        }
+        logger.info("Loaded {} scheduled test drives into the scheduling engine", loaded);
+    }
+
+    /**
+     * Drop bookings of past days from the indexes
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public synchronized void pruneBookings() {
+        LocalDateTime cutoff = LocalDate.now().atStartOfDay();
+        bookingsByTestDrive.values().removeIf(booking -> {
+            if (booking.end.isAfter(cutoff)) {
+                return false;
+            }
+            unindex(booking);
+            return true;
+        });
+    }
+
+    public int getOpeningHour() {
+        return openingHour;
+    }
+
+    public int getClosingHour() {
+        return closingHour;
+    }
+
+    /**
+     * Round a requested duration up to whole slots
+     *
+     * @param durationMinutes Requested duration in minutes (null for one slot)
+     * @return Duration in minutes
+     */
+    public int normalizeDuration(Integer durationMinutes) {
+        if (durationMinutes == null || durationMinutes <= 0) {
+            return slotMinutes;
+        }
+        return (durationMinutes + slotMinutes - 1) / slotMinutes * slotMinutes;
+    }
+
+    /**
+     * Reserve a vehicle, customer and staff member for a time interval
+     *
+     * @param vehicleId Vehicle ID
+     * @param customerId Customer ID
+     * @param staffMemberName Staff member name (optional)
+     * @param start Start of the test drive
+     * @param durationMinutes Duration in minutes (rounded up to whole slots)
+     * @return Reservation to confirm with the saved test drive ID, or to release if saving fails
+     */
+    public synchronized Booking reserve(Long vehicleId, Long customerId, String staffMemberName,
+                                        LocalDateTime start, Integer durationMinutes) {
+        return reserve(vehicleId, customerId, staffMemberName, start, durationMinutes, true);
+    }
+
+    private Booking reserve(Long vehicleId, Long customerId, String staffMemberName,
+                            LocalDateTime start, Integer durationMinutes, boolean checkOpeningHours) {
+        if (start == null) {
+            throw new IllegalArgumentException("Test drive date and time is required");
+        }
+        LocalDateTime end = start.plusMinutes(normalizeDuration(durationMinutes));
+        LocalDate day = start.toLocalDate();
+        if (checkOpeningHours
+                && (start.isBefore(day.atTime(openingHour, 0)) || end.isAfter(day.atStartOfDay().plusHours(closingHour)))) {
+            throw new IllegalArgumentException("Test drives must take place between " + openingHour + ":00 and " + closingHour + ":00");
+        }
+
+        String staffKey = staffKey(staffMemberName);
+        Booking conflict = findConflict(vehicleId, customerId, staffKey, start, end);
+        if (conflict != null) {
+            throw new IllegalStateException(describeConflict(conflict, vehicleId, customerId, staffKey, staffMemberName));
+        }
+
+        Booking booking = new Booking(vehicleId, customerId, staffKey, start, end);
+        index(booking);
+        return booking;
+    }
+
+    /**
+     * Attach a reservation to the test drive it was saved as
+     *
+     * @param booking Reservation returned by {@link #reserve}
+     * @param testDriveId Saved test drive ID
+     */
+    public synchronized void confirm(Booking booking, Long testDriveId) {
+        booking.testDriveId = testDriveId;
+        bookingsByTestDrive.put(testDriveId, booking);
+    }
+
+    /**
+     * Release a reservation that was not saved
+     *
+     * @param booking Reservation returned by {@link #reserve}
+     */
+    public synchronized void release(Booking booking) {
+        unindex(booking);
+        if (booking.testDriveId != null) {
+            bookingsByTestDrive.remove(booking.testDriveId, booking);
+        }
+    }
+
+    /**
+     * Release the booking of a test drive (cancelled, completed or deleted)
+     *
+     * @param testDriveId Test drive ID
+     * @return Released booking, or null if the test drive had none
+     */
+    public synchronized Booking release(Long testDriveId) {
+        Booking booking = bookingsByTestDrive.remove(testDriveId);
+        if (booking != null) {
+            unindex(booking);
+        }
+        return booking;
+    }
+
+    /**
+     * Move the booking of a test drive; the test drive does not conflict with its own previous booking
+     *
+     * @param testDriveId Test drive ID
+     * @param vehicleId Vehicle ID
+     * @param customerId Customer ID
+     * @param staffMemberName Staff member name (optional)
+     * @param start Start of the test drive
+     * @param durationMinutes Duration in minutes
+     * @param timeChanged Whether the start or duration changed; an unchanged interval is not checked against the
+     *                    opening hours, so a test drive booked under earlier opening hours can still be edited
+     * @return Previous booking (null if there was none), to pass to {@link #restore} if saving fails
+     */
+    public synchronized Booking reschedule(Long testDriveId, Long vehicleId, Long customerId, String staffMemberName,
+                                           LocalDateTime start, Integer durationMinutes, boolean timeChanged) {
+        Booking previous = release(testDriveId);
+        try {
+            confirm(reserve(vehicleId, customerId, staffMemberName, start, durationMinutes, timeChanged), testDriveId);
+        } catch (RuntimeException e) {
+            restore(testDriveId, previous);
+            throw e;
+        }
+        return previous;
+    }
+
+    /**
+     * Put back the booking a test drive had before a failed update
+     *
+     * @param testDriveId Test drive ID
+     * @param previous Booking returned by {@link #reschedule} or {@link #release(Long)}
+     */
+    public synchronized void restore(Long testDriveId, Booking previous) {
+        release(testDriveId);
+        if (previous != null) {
+            index(previous);
+            bookingsByTestDrive.put(testDriveId, previous);
+        }
+    }
+
+    /**
+     * Move the bookings of a customer to another customer.
+     * A moved booking that overlaps one of the other customer's bookings keeps its vehicle and staff member
+     * booked but is left out of the customer index, as overlapping bookings are when they are loaded.
+     *
+     * @param fromCustomerId Customer the bookings belong to
+     * @param toCustomerId Customer the bookings are moved to
+     * @return Number of bookings moved
+     */
+    public synchronized int reassignCustomer(Long fromCustomerId, Long toCustomerId) {
+        TreeMap<LocalDateTime, Booking> moved = customerBookings.remove(fromCustomerId);
+        if (moved == null) {
+            return 0;
+        }
+        for (Booking booking : moved.values()) {
+            booking.customerId = toCustomerId;
+            if (findOverlap(customerBookings.get(toCustomerId), booking.start, booking.end) != null) {
+                logger.warn("Test drive {} overlaps a test drive of customer {} it was merged into", booking.testDriveId, toCustomerId);
+                continue;
+            }
+            customerBookings.computeIfAbsent(toCustomerId, key -> new TreeMap<>()).put(booking.start, booking);
+        }
+        return moved.size();
+    }
+
+    /**
+     * Move the bookings of a merged duplicate customer once the merge is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomersMerged(CustomersMergedEvent event) {
+        reassignCustomer(event.sourceCustomerId(), event.targetCustomerId());
+    }
+
+    /**
+     * Check whether a staff member has no booking overlapping a time interval
+     *
+     * @param staffMemberName Staff member name
+     * @param start Start of the interval
+     * @param durationMinutes Duration in minutes (rounded up to whole slots)
+     * @return true if the staff member is free
+     */
+    public synchronized boolean isStaffFree(String staffMemberName, LocalDateTime start, Integer durationMinutes) {
+        LocalDateTime end = start.plusMinutes(normalizeDuration(durationMinutes));
+        return findOverlap(staffBookings.get(staffKey(staffMemberName)), start, end) == null;
+    }
+
+    /**
+     * Find the next start times at which all given resources are free
+     *
+     * @param vehicleId Vehicle ID (optional)
+     * @param customerId Customer ID (optional)
+     * @param staffMemberName Staff member name (optional)
+     * @param from Earliest start time
+     * @param durationMinutes Duration in minutes
+     * @param limit Maximum number of slots to return
+     * @return Free slot start times in ascending order
+     */
+    public synchronized List<LocalDateTime> findAvailableSlots(Long vehicleId, Long customerId, String staffMemberName,
+                                                               LocalDateTime from, Integer durationMinutes, int limit) {
+        int duration = normalizeDuration(durationMinutes);
+        String staffKey = staffKey(staffMemberName);
+        LocalDateTime horizon = from.plusDays(SEARCH_HORIZON_DAYS);
+        LocalDateTime candidate = alignToSlot(from);
+
+        List<LocalDateTime> slots = new ArrayList<>();
+        while (slots.size() < limit && candidate.isBefore(horizon)) {
+            LocalDate day = candidate.toLocalDate();
+            LocalDateTime opening = day.atTime(openingHour, 0);
+            if (candidate.isBefore(opening)) {
+                candidate = opening;
+            }
+            LocalDateTime end = candidate.plusMinutes(duration);
+            if (end.isAfter(day.atStartOfDay().plusHours(closingHour))) {
+                candidate = day.plusDays(1).atTime(openingHour, 0);
+                continue;
+            }
+
+            Booking conflict = findConflict(vehicleId, customerId, staffKey, candidate, end);
+            if (conflict == null) {
+                slots.add(candidate);
+                candidate = candidate.plusMinutes(slotMinutes);
+            } else {
+                // Skip straight past the booking that is in the way
+                candidate = alignToSlot(conflict.end);
+            }
+        }
+        return slots;
+    }
+
+    private Booking findConflict(Long vehicleId, Long customerId, String staffKey, LocalDateTime start, LocalDateTime end) {
+        Booking conflict = findOverlap(vehicleBookings.get(vehicleId), start, end);
+        if (conflict == null && customerId != null) {
+            conflict = findOverlap(customerBookings.get(customerId), start, end);
+        }
+        if (conflict == null && staffKey != null) {
+            conflict = findOverlap(staffBookings.get(staffKey), start, end);
+        }
+        return conflict;
+    }
+
+    // The bookings of one resource never overlap, so only the nearest booking on each side can conflict
+    private static Booking findOverlap(TreeMap<LocalDateTime, Booking> bookings, LocalDateTime start, LocalDateTime end) {
+        if (bookings == null) {
+            return null;
+        }
+        Map.Entry<LocalDateTime, Booking> before = bookings.floorEntry(start);
+        if (before != null && before.getValue().end.isAfter(start)) {
+            return before.getValue();
+        }
+        Map.Entry<LocalDateTime, Booking> after = bookings.higherEntry(start);
+        if (after != null && after.getKey().isBefore(end)) {
+            return after.getValue();
+        }
+        return null;
+    }
+
+    private String describeConflict(Booking conflict, Long vehicleId, Long customerId, String staffKey, String staffMemberName) {
+        String interval = " from " + conflict.start + " to " + conflict.end;
+        if (conflict.vehicleId.equals(vehicleId)) {
+            return "Vehicle with ID: " + vehicleId + " is already booked" + interval;
+        }
+        if (conflict.customerId.equals(customerId)) {
+            return "Customer with ID: " + customerId + " already has a test drive" + interval;
+        }
+        return "Staff member " + staffMemberName + " is already booked" + interval;
+    }
+
+    private void index(Booking booking) {
+        vehicleBookings.computeIfAbsent(booking.vehicleId, key -> new TreeMap<>()).put(booking.start, booking);
+        customerBookings.computeIfAbsent(booking.customerId, key -> new TreeMap<>()).put(booking.start, booking);
+        if (booking.staffKey != null) {
+            staffBookings.computeIfAbsent(booking.staffKey, key -> new TreeMap<>()).put(booking.start, booking);
+        }
+    }
+
+    private void unindex(Booking booking) {
+        remove(vehicleBookings, booking.vehicleId, booking);
+        remove(customerBookings, booking.customerId, booking);
+        if (booking.staffKey != null) {
+            remove(staffBookings, booking.staffKey, booking);
+        }
+    }
+
+    private static <K> void remove(Map<K, TreeMap<LocalDateTime, Booking>> index, K key, Booking booking) {
+        TreeMap<LocalDateTime, Booking> bookings = index.get(key);
+        if (bookings != null) {
+            bookings.remove(booking.start, booking);
+            if (bookings.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private LocalDateTime alignToSlot(LocalDateTime time) {
+        LocalDateTime dayStart = time.toLocalDate().atStartOfDay();
+        long seconds = Duration.between(dayStart, time).getSeconds() + (time.getNano() > 0 ? 1 : 0);
+        long slotSeconds = slotMinutes * 60L;
+        return dayStart.plusSeconds((seconds + slotSeconds - 1) / slotSeconds * slotSeconds);
+    }
+
+    private static String staffKey(String staffMemberName) {
+        if (staffMemberName == null || staffMemberName.isBlank()) {
+            return null;
+        }
+        return staffMemberName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Interval during which a vehicle, a customer and optionally a staff member are booked
+     */
+    public static final class Booking {
+        private final Long vehicleId;
+        private Long customerId; // Changes when the customer is merged into another customer
+        private final String staffKey;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private Long testDriveId;
+
+        private Booking(Long vehicleId, Long customerId, String staffKey, LocalDateTime start, LocalDateTime end) {
+            this.vehicleId = vehicleId;
+            this.customerId = customerId;
+            this.staffKey = staffKey;
+            this.start = start;
+            this.end = end;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        public LocalDateTime getEnd() {
+            return end;
+        }
+    }
+}
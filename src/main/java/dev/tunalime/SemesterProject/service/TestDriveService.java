@@ -1,19 +1,32 @@
 package dev.tunalime.SemesterProject.service;
 
+import dev.tunalime.SemesterProject.dto.BulkScheduleResultDTO;
+import dev.tunalime.SemesterProject.dto.StaffWorkloadDTO;
 import dev.tunalime.SemesterProject.dto.TestDriveDTO;
 import dev.tunalime.SemesterProject.entity.Customer;
 import dev.tunalime.SemesterProject.entity.TestDrive;
 import dev.tunalime.SemesterProject.entity.TestDriveStatus;
 import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
 import dev.tunalime.SemesterProject.repository.CustomerRepository;
 import dev.tunalime.SemesterProject.repository.TestDriveRepository;
 import dev.tunalime.SemesterProject.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -22,17 +35,35 @@ import java.util.stream.Collectors;
 @Service
 public class TestDriveService {
     
+    // Upper bound for the number of test drives in one bulk request
+    private static final int MAX_BULK_SIZE = 500;
+    
     private final TestDriveRepository testDriveRepository;
     private final CustomerRepository customerRepository;
     private final VehicleRepository vehicleRepository;
+    private final TestDriveSchedulingEngine schedulingEngine;
+    private final StaffAssignmentService staffAssignmentService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final VehicleService vehicleService;
     
     @Autowired
     public TestDriveService(TestDriveRepository testDriveRepository,
                           CustomerRepository customerRepository,
-                          VehicleRepository vehicleRepository) {
+                          VehicleRepository vehicleRepository,
+                          TestDriveSchedulingEngine schedulingEngine,
+                          StaffAssignmentService staffAssignmentService,
+                          ApplicationEventPublisher eventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          VehicleService vehicleService) {
         this.testDriveRepository = testDriveRepository;
         this.customerRepository = customerRepository;
         this.vehicleRepository = vehicleRepository;
+        this.schedulingEngine = schedulingEngine;
+        this.staffAssignmentService = staffAssignmentService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.vehicleService = vehicleService;
     }
     
     /**
@@ -40,8 +71,9 @@ public class TestDriveService {
      * 
      * @return List of all test drives
      */
+    @Transactional(readOnly = true)
     public List<TestDriveDTO> getAllTestDrives() {
-        return testDriveRepository.findAll().stream()
+        return testDriveRepository.findAllWithDetails().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -52,6 +84,7 @@ public class TestDriveService {
      * @param id Test drive ID
      * @return Test drive DTO
      */
+    @Transactional(readOnly = true)
     public TestDriveDTO getTestDriveById(Long id) {
         TestDrive testDrive = testDriveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Test drive not found with ID: " + id));
@@ -64,6 +97,7 @@ public class TestDriveService {
      * @param customerId Customer ID
      * @return List of test drives for the customer
      */
+    @Transactional(readOnly = true)
     public List<TestDriveDTO> getTestDrivesByCustomer(Long customerId) {
         return testDriveRepository.findByCustomerId(customerId).stream()
                 .map(this::convertToDTO)
@@ -76,6 +110,7 @@ public class TestDriveService {
      * @param vehicleId Vehicle ID
      * @return List of test drives for the vehicle
      */
+    @Transactional(readOnly = true)
     public List<TestDriveDTO> getTestDrivesByVehicle(Long vehicleId) {
         return testDriveRepository.findByVehicleId(vehicleId).stream()
                 .map(this::convertToDTO)
@@ -88,6 +123,7 @@ public class TestDriveService {
      * @param status Test drive status
      * @return List of test drives with the specified status
      */
+    @Transactional(readOnly = true)
     public List<TestDriveDTO> getTestDrivesByStatus(TestDriveStatus status) {
         return testDriveRepository.findByStatus(status).stream()
                 .map(this::convertToDTO)
@@ -99,12 +135,13 @@ public class TestDriveService {
      * 
      * @return List of test drives scheduled for today
      */
+    @Transactional(readOnly = true)
     public List<TestDriveDTO> getTestDrivesForToday() {
         LocalDate today = LocalDate.now();
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = today.plusDays(1).atStartOfDay().minusSeconds(1);
         
-        return testDriveRepository.findScheduledTestDrivesForToday(startOfDay, endOfDay).stream()
+        // Customer and vehicle are fetched in the same query
+        return testDriveRepository.findInRangeWithDetails(today.atStartOfDay(), today.plusDays(1).atStartOfDay(),
+                        EnumSet.of(TestDriveStatus.SCHEDULED)).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -115,6 +152,7 @@ public class TestDriveService {
      * @param testDriveDTO Test drive information
      * @return Scheduled test drive
      */
+    @Transactional
     public TestDriveDTO scheduleTestDrive(TestDriveDTO testDriveDTO) {
         // Check if customer exists
         Customer customer = customerRepository.findById(testDriveDTO.getCustomerId())
@@ -128,17 +166,125 @@ public class TestDriveService {
             throw new RuntimeException("Vehicle with ID: " + testDriveDTO.getVehicleId() + " is not available for test drive");
         }
         
+        // Reserve the slot before saving so concurrent requests cannot double-book the vehicle, customer or staff member
+        int durationMinutes = schedulingEngine.normalizeDuration(testDriveDTO.getDurationMinutes());
+        String staffMemberName = resolveStaffMember(testDriveDTO.getStaffMemberName(), vehicle,
+                testDriveDTO.getScheduledDateTime(), durationMinutes);
+        TestDriveSchedulingEngine.Booking booking = schedulingEngine.reserve(vehicle.getId(), customer.getId(),
+                staffMemberName, testDriveDTO.getScheduledDateTime(), durationMinutes);
+        
         // Create and save the test drive entity
-        TestDrive testDrive = new TestDrive();
-        testDrive.setCustomer(customer);
-        testDrive.setVehicle(vehicle);
-        testDrive.setScheduledDateTime(testDriveDTO.getScheduledDateTime());
-        testDrive.setStatus(TestDriveStatus.SCHEDULED);
-        testDrive.setStaffMemberName(testDriveDTO.getStaffMemberName());
+        TestDrive testDrive = newScheduledTestDrive(customer, vehicle, testDriveDTO.getScheduledDateTime(),
+                durationMinutes, staffMemberName);
         
-        testDrive = testDriveRepository.save(testDrive);
+        // Flush so a failing insert releases the slot here rather than at commit
+        try {
+            testDrive = testDriveRepository.saveAndFlush(testDrive);
+        } catch (RuntimeException e) {
+            schedulingEngine.release(booking);
+            throw e;
+        }
+        schedulingEngine.confirm(booking, testDrive.getId());
         
-        return convertToDTO(testDrive);
+        TestDriveDTO saved = convertToDTO(testDrive);
+        eventPublisher.publishEvent(new TestDriveChangedEvent(null, saved));
+        return saved;
+    }
+    
+    /**
+     * Schedule several test drives at once, e.g. for a launch event.
+     * Customers and vehicles are loaded with one query each and all accepted test drives are saved in one transaction;
+     * a test drive that is invalid or conflicts with an existing or earlier test drive in the request is reported
+     * without affecting the others.
+     * 
+     * @param testDriveDTOs Test drive information, in request order
+     * @return One result per test drive, in request order
+     */
+    public List<BulkScheduleResultDTO> scheduleTestDrives(List<TestDriveDTO> testDriveDTOs) {
+        if (testDriveDTOs == null || testDriveDTOs.isEmpty() || testDriveDTOs.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk request must contain between 1 and " + MAX_BULK_SIZE + " test drives");
+        }
+        
+        // Load in a read-write transaction so the lookups see the primary, not a lagging replica
+        Map<Long, Customer> customers = transactionTemplate.execute(status -> customerRepository.findAllById(testDriveDTOs.stream()
+                        .map(TestDriveDTO::getCustomerId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity())));
+        Map<Long, Vehicle> vehicles = transactionTemplate.execute(status -> vehicleRepository.findAllById(testDriveDTOs.stream()
+                        .map(TestDriveDTO::getVehicleId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Vehicle::getId, Function.identity())));
+        
+        // Validate and reserve in memory; the engine and the staff loads see earlier reservations of the same request
+        BulkScheduleResultDTO[] results = new BulkScheduleResultDTO[testDriveDTOs.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<TestDrive> accepted = new ArrayList<>();
+        List<TestDriveSchedulingEngine.Booking> bookings = new ArrayList<>();
+        List<StaffAssignmentService.StaffHold> staffHolds = new ArrayList<>();
+        for (int i = 0; i < testDriveDTOs.size(); i++) {
+            TestDriveDTO testDriveDTO = testDriveDTOs.get(i);
+            try {
+                Customer customer = customers.get(testDriveDTO.getCustomerId());
+                if (customer == null) {
+                    throw new RuntimeException("Customer not found with ID: " + testDriveDTO.getCustomerId());
+                }
+                Vehicle vehicle = vehicles.get(testDriveDTO.getVehicleId());
+                if (vehicle == null) {
+                    throw new RuntimeException("Vehicle not found with ID: " + testDriveDTO.getVehicleId());
+                }
+                if (!vehicle.isAvailableForTestDrive()) {
+                    throw new RuntimeException("Vehicle with ID: " + testDriveDTO.getVehicleId() + " is not available for test drive");
+                }
+                
+                int durationMinutes = schedulingEngine.normalizeDuration(testDriveDTO.getDurationMinutes());
+                String staffMemberName = resolveStaffMember(testDriveDTO.getStaffMemberName(), vehicle,
+                        testDriveDTO.getScheduledDateTime(), durationMinutes);
+                TestDriveSchedulingEngine.Booking booking = schedulingEngine.reserve(vehicle.getId(), customer.getId(),
+                        staffMemberName, testDriveDTO.getScheduledDateTime(), durationMinutes);
+                StaffAssignmentService.StaffHold staffHold;
+                try {
+                    staffHold = staffAssignmentService.hold(staffMemberName, testDriveDTO.getScheduledDateTime(), durationMinutes);
+                } catch (RuntimeException e) {
+                    schedulingEngine.release(booking);
+                    throw e;
+                }
+                bookings.add(booking);
+                staffHolds.add(staffHold);
+                accepted.add(newScheduledTestDrive(customer, vehicle, testDriveDTO.getScheduledDateTime(),
+                        durationMinutes, staffMemberName));
+                acceptedIndexes.add(i);
+            } catch (RuntimeException e) {
+                results[i] = new BulkScheduleResultDTO(i, false, null, e.getMessage());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Arrays.asList(results);
+        }
+        
+        List<TestDrive> saved;
+        try {
+            saved = transactionTemplate.execute(status -> testDriveRepository.saveAll(accepted));
+        } catch (RuntimeException e) {
+            bookings.forEach(schedulingEngine::release);
+            staffHolds.forEach(staffAssignmentService::release);
+            for (int index : acceptedIndexes) {
+                results[index] = new BulkScheduleResultDTO(index, false, null, "Test drives could not be saved: " + e.getMessage());
+            }
+            return Arrays.asList(results);
+        }
+        
+        for (int i = 0; i < saved.size(); i++) {
+            TestDrive testDrive = saved.get(i);
+            schedulingEngine.confirm(bookings.get(i), testDrive.getId());
+            TestDriveDTO savedDTO = convertToDTO(testDrive);
+            results[acceptedIndexes.get(i)] = new BulkScheduleResultDTO(acceptedIndexes.get(i), true, savedDTO, null);
+            // The change event counts the saved test drive in place of the hold
+            staffAssignmentService.release(staffHolds.get(i));
+            eventPublisher.publishEvent(new TestDriveChangedEvent(null, savedDTO));
+        }
+        return Arrays.asList(results);
     }
     
     /**
@@ -148,12 +294,15 @@ public class TestDriveService {
      * @param testDriveDTO Updated test drive information
      * @return Updated test drive
      */
+    @Transactional
     public TestDriveDTO updateTestDrive(Long id, TestDriveDTO testDriveDTO) {
         TestDrive testDrive = testDriveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Test drive not found with ID: " + id));
+        TestDriveDTO before = convertToDTO(testDrive);
         
         // Update test drive fields
         testDrive.setScheduledDateTime(testDriveDTO.getScheduledDateTime());
+        testDrive.setDurationMinutes(schedulingEngine.normalizeDuration(testDriveDTO.getDurationMinutes()));
         testDrive.setActualStartTime(testDriveDTO.getActualStartTime());
         testDrive.setActualEndTime(testDriveDTO.getActualEndTime());
         testDrive.setStatus(testDriveDTO.getStatus());
@@ -180,9 +329,19 @@ public class TestDriveService {
             testDrive.setVehicle(vehicle);
         }
         
-        testDrive = testDriveRepository.save(testDrive);
+        // A scheduled test drive whose staff member was cleared is assigned again
+        if (testDrive.getStatus() == TestDriveStatus.SCHEDULED) {
+            testDrive.setStaffMemberName(resolveStaffMember(testDrive.getStaffMemberName(), testDrive.getVehicle(),
+                    testDrive.getScheduledDateTime(), testDrive.getDurationMinutes()));
+        }
         
-        return convertToDTO(testDrive);
+        boolean timeChanged = !Objects.equals(testDrive.getScheduledDateTime(), before.getScheduledDateTime())
+                || testDrive.getDurationMinutes() != schedulingEngine.normalizeDuration(before.getDurationMinutes());
+        testDrive = saveWithBooking(testDrive, timeChanged);
+        
+        TestDriveDTO updated = convertToDTO(testDrive);
+        eventPublisher.publishEvent(new TestDriveChangedEvent(before, updated));
+        return updated;
     }
     
     /**
@@ -192,9 +351,11 @@ public class TestDriveService {
      * @param status New status
      * @return Updated test drive
      */
+    @Transactional
     public TestDriveDTO updateTestDriveStatus(Long id, TestDriveStatus status) {
         TestDrive testDrive = testDriveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Test drive not found with ID: " + id));
+        TestDriveDTO before = convertToDTO(testDrive);
         
         testDrive.setStatus(status);
         
@@ -213,9 +374,11 @@ public class TestDriveService {
             }
         }
         
-        testDrive = testDriveRepository.save(testDrive);
+        testDrive = saveWithBooking(testDrive, false);
         
-        return convertToDTO(testDrive);
+        TestDriveDTO updated = convertToDTO(testDrive);
+        eventPublisher.publishEvent(new TestDriveChangedEvent(before, updated));
+        return updated;
     }
     
     /**
@@ -223,29 +386,140 @@ public class TestDriveService {
      * 
      * @param id Test drive ID
      */
+    @Transactional
     public void deleteTestDrive(Long id) {
         TestDrive testDrive = testDriveRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Test drive not found with ID: " + id));
         
+        TestDriveDTO before = convertToDTO(testDrive);
         testDriveRepository.delete(testDrive);
+        schedulingEngine.release(id);
+        eventPublisher.publishEvent(new TestDriveChangedEvent(before, null));
+    }
+    
+    /**
+     * Get test drives with one of the given statuses in a time range
+     * 
+     * @param start Start of the range (inclusive)
+     * @param end End of the range (exclusive)
+     * @param statuses Statuses to include
+     * @return List of test drives ordered by scheduled time
+     */
+    @Transactional(readOnly = true)
+    public List<TestDriveDTO> getTestDrivesInRange(LocalDateTime start, LocalDateTime end, Collection<TestDriveStatus> statuses) {
+        return testDriveRepository.findInRangeWithDetails(start, end, statuses).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Find the next free start times for a test drive
+     * 
+     * @param vehicleId Vehicle ID (optional)
+     * @param customerId Customer ID (optional)
+     * @param staffMemberName Staff member name (optional)
+     * @param from Earliest start time
+     * @param durationMinutes Duration in minutes (optional, defaults to one slot)
+     * @param limit Maximum number of slots
+     * @return Free start times in ascending order
+     */
+    public List<LocalDateTime> getAvailableSlots(Long vehicleId, Long customerId, String staffMemberName,
+                                                 LocalDateTime from, Integer durationMinutes, int limit) {
+        return schedulingEngine.findAvailableSlots(vehicleId, customerId, staffMemberName, from, durationMinutes, limit);
+    }
+    
+    /**
+     * Get the test drive workload of every staff member on a day
+     * 
+     * @param date Day
+     * @return Workload per staff member, least loaded first
+     */
+    public List<StaffWorkloadDTO> getStaffWorkload(LocalDate date) {
+        return staffAssignmentService.getWorkload(date);
+    }
+    
+    /**
+     * Keep a given staff member name, or pick the least-loaded qualified staff member when it is blank
+     * 
+     * @param staffMemberName Staff member name entered (optional)
+     * @param vehicle Vehicle to be presented
+     * @param start Start of the test drive
+     * @param durationMinutes Duration in minutes
+     * @return Staff member name (null when blank and no roster is configured)
+     */
+    private String resolveStaffMember(String staffMemberName, Vehicle vehicle, LocalDateTime start, Integer durationMinutes) {
+        if (staffMemberName != null && !staffMemberName.isBlank()) {
+            return staffMemberName;
+        }
+        if (start == null || !staffAssignmentService.hasRoster()) {
+            return null;
+        }
+        String assigned = staffAssignmentService.pickStaffMember(vehicle.getBrand(), start, durationMinutes);
+        if (assigned == null) {
+            throw new IllegalStateException("No staff member qualified for " + vehicle.getBrand() + " is free at " + start);
+        }
+        return assigned;
+    }
+    
+    /**
+     * Create a new scheduled test drive entity
+     * 
+     * @param customer Customer
+     * @param vehicle Vehicle
+     * @param scheduledDateTime Start of the test drive
+     * @param durationMinutes Duration in minutes
+     * @param staffMemberName Staff member name
+     * @return Unsaved test drive entity
+     */
+    private TestDrive newScheduledTestDrive(Customer customer, Vehicle vehicle, LocalDateTime scheduledDateTime,
+                                            int durationMinutes, String staffMemberName) {
+        TestDrive testDrive = new TestDrive();
+        testDrive.setCustomer(customer);
+        testDrive.setVehicle(vehicle);
+        testDrive.setScheduledDateTime(scheduledDateTime);
+        testDrive.setDurationMinutes(durationMinutes);
+        testDrive.setStatus(TestDriveStatus.SCHEDULED);
+        testDrive.setStaffMemberName(staffMemberName);
+        return testDrive;
+    }
+    
+    /**
+     * Save an existing test drive, moving its booking in the scheduling engine along with it.
+     * Only scheduled test drives hold a booking; the previous booking is restored if the change cannot be saved.
+     * 
+     * @param testDrive Modified test drive entity
+     * @param timeChanged Whether the start or duration changed, which is only then checked against the opening hours
+     * @return Saved test drive entity
+     */
+    private TestDrive saveWithBooking(TestDrive testDrive, boolean timeChanged) {
+        Long id = testDrive.getId();
+        TestDriveSchedulingEngine.Booking previous = testDrive.getStatus() == TestDriveStatus.SCHEDULED
+                ? schedulingEngine.reschedule(id, testDrive.getVehicle().getId(), testDrive.getCustomer().getId(),
+                        testDrive.getStaffMemberName(), testDrive.getScheduledDateTime(), testDrive.getDurationMinutes(), timeChanged)
+                : schedulingEngine.release(id);
+        try {
+            return testDriveRepository.saveAndFlush(testDrive);
+        } catch (RuntimeException e) {
+            schedulingEngine.restore(id, previous);
+            throw e;
+        }
     }
     
     /**
      * Convert TestDrive entity to DTO
      * 
-     * @param testDrive TestDrive entity
+     * @param testDrive TestDrive entity with customer and vehicle fetched
      * @return TestDrive DTO
      */
-    private TestDriveDTO convertToDTO(TestDrive testDrive) {
+    public TestDriveDTO convertToDTO(TestDrive testDrive) {
         TestDriveDTO dto = new TestDriveDTO();
         dto.setId(testDrive.getId());
         dto.setCustomerId(testDrive.getCustomer().getId());
         dto.setCustomerName(testDrive.getCustomer().getFirstName() + " " + testDrive.getCustomer().getLastName());
         dto.setVehicleId(testDrive.getVehicle().getId());
-        dto.setVehicleInfo(testDrive.getVehicle().getBrand() + " " + 
-                testDrive.getVehicle().getModel() + " " + 
-                testDrive.getVehicle().getYear());
+        dto.setVehicleInfo(vehicleService.getVehicleInfo(testDrive.getVehicle()));
         dto.setScheduledDateTime(testDrive.getScheduledDateTime());
+        dto.setDurationMinutes(testDrive.getDurationMinutes());
         dto.setActualStartTime(testDrive.getActualStartTime());
         dto.setActualEndTime(testDrive.getActualEndTime());
         dto.setStatus(testDrive.getStatus());
@@ -0,0 +1,169 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.dto.TodayBoardDTO;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service keeping the showroom board of today's scheduled test drives in memory.
+ * The board is rebuilt with one query at startup and at midnight, patched from test drive change
+ * events in between, and pushed to the connected displays as server-sent events, so refreshing
+ * a display costs no query.
+ */
+@Service
+public class TodayBoardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TodayBoardService.class);
+
+    // Displays reconnect by themselves when an emitter times out
+    private static final long EMITTER_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final TestDriveService testDriveService;
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    // Broadcasts run off the thread that changed the test drive
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "today-board-broadcaster");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile TodayBoardDTO board = new TodayBoardDTO(LocalDate.now(), 0, List.of());
+
+    @Autowired
+    public TodayBoardService(TestDriveService testDriveService) {
+        this.testDriveService = testDriveService;
+    }
+
+    /**
+     * Rebuild the board at startup and when the day changes.
+     * The query runs outside the lock; if a change event patched the board meanwhile, the result may
+     * predate that change, so the query is repeated until no event arrived while it ran.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 0 * * *")
+    public void rebuild() {
+        while (true) {
+            long version = board.getVersion();
+            List<TestDriveDTO> testDrives = new ArrayList<>(testDriveService.getTestDrivesForToday());
+            testDrives.sort(Comparator.comparing(TestDriveDTO::getScheduledDateTime));
+            synchronized (this) {
+                if (board.getVersion() == version) {
+                    board = new TodayBoardDTO(LocalDate.now(), version + 1, List.copyOf(testDrives));
+                    break;
+                }
+            }
+        }
+        broadcast();
+    }
+
+    /**
+     * Get the current board
+     *
+     * @return Today's board
+     */
+    public TodayBoardDTO getBoard() {
+        if (!board.getDate().equals(LocalDate.now())) {
+            // Midnight job has not run yet (or failed)
+            rebuild();
+        }
+        return board;
+    }
+
+    /**
+     * Register a display for board updates; the current board is sent right away
+     *
+     * @return Emitter streaming the board on every change
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        send(emitter, getBoard());
+        return emitter;
+    }
+
+    /**
+     * Patch the board with a changed test drive
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTestDriveChanged(TestDriveChangedEvent event) {
+        LocalDate today = LocalDate.now();
+        boolean wasOnBoard = isOnBoard(event.before(), today);
+        boolean isOnBoard = isOnBoard(event.after(), today);
+        if (!wasOnBoard && !isOnBoard) {
+            return;
+        }
+
+        synchronized (this) {
+            if (!board.getDate().equals(today)) {
+                // Today's board is still being built; make the rebuild read again so it includes this change
+                board = new TodayBoardDTO(board.getDate(), board.getVersion() + 1, board.getTestDrives());
+                return;
+            }
+            Long id = event.before() != null ? event.before().getId() : event.after().getId();
+            List<TestDriveDTO> testDrives = new ArrayList<>(board.getTestDrives());
+            testDrives.removeIf(testDrive -> testDrive.getId().equals(id));
+            if (isOnBoard) {
+                testDrives.add(event.after());
+                testDrives.sort(Comparator.comparing(TestDriveDTO::getScheduledDateTime));
+            }
+            board = new TodayBoardDTO(today, board.getVersion() + 1, List.copyOf(testDrives));
+        }
+        broadcast();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+    }
+
+    private boolean isOnBoard(TestDriveDTO testDrive, LocalDate today) {
+        return testDrive != null
+                && testDrive.getStatus() == TestDriveStatus.SCHEDULED
+                && testDrive.getScheduledDateTime() != null
+                && testDrive.getScheduledDateTime().toLocalDate().equals(today);
+    }
+
+    private void broadcast() {
+        TodayBoardDTO snapshot = board;
+        broadcaster.execute(() -> emitters.forEach(emitter -> send(emitter, snapshot)));
+    }
+
+    private void send(SseEmitter emitter, TodayBoardDTO snapshot) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .name("board")
+                    .id(String.valueOf(snapshot.getVersion()))
+                    .data(snapshot));
+        } catch (IOException | IllegalStateException e) {
+            // Display went away; it re-subscribes when it comes back
+            logger.debug("Dropping today board subscriber: {}", e.getMessage());
+            emitters.remove(emitter);
+        }
+    }
+}
@@ -36,6 +36,7 @@ public class VehicleService {
      * 
      * @return List of all vehicles
      */
+    @Transactional(readOnly = true)
     public List<VehicleDTO> getAllVehicles() {
         return vehicleRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -48,6 +49,7 @@ public class VehicleService {
      * @param id Vehicle ID
      * @return Vehicle DTO
      */
+    @Transactional(readOnly = true)
     public VehicleDTO getVehicleById(Long id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Vehicle not found with ID: " + id));
@@ -222,6 +224,7 @@ public class VehicleService {
      * @param status Status (optional)
      * @return List of matching vehicles
      */
+    @Transactional(readOnly = true)
     public List<VehicleDTO> searchVehicles(String brand, String model, Integer year, String packageType, VehicleStatus status) {
         List<Vehicle> vehicles;
         
@@ -273,6 +276,7 @@ public class VehicleService {
      * 
      * @return List of vehicles available for test drive
      */
+    @Transactional(readOnly = true)
     public List<VehicleDTO> getVehiclesAvailableForTestDrive() {
         return vehicleRepository.findByIsAvailableForTestDriveTrue().stream()
                 .map(this::convertToDTO)
@@ -285,6 +289,7 @@ public class VehicleService {
      * @param statuses List of statuses
      * @return List of vehicles matching the statuses
      */
+    @Transactional(readOnly = true)
     public List<VehicleDTO> getVehiclesByStatuses(List<VehicleStatus> statuses) {
         List<Vehicle> vehicles = vehicleRepository.findByStatusIn(statuses);
         return vehicles.stream()
@@ -292,6 +297,16 @@ public class VehicleService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get the display text of a vehicle used in sale, test drive and interaction DTOs
+     * 
+     * @param vehicle Vehicle entity
+     * @return Brand, model and year
+     */
+    public String getVehicleInfo(Vehicle vehicle) {
+        return vehicle.getBrand() + " " + vehicle.getModel() + " " + vehicle.getYear();
+    }
+    
     /**
      * Convert Vehicle entity to DTO
      * 
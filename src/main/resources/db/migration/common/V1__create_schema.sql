@@ -0,0 +1,140 @@
+-- Schema as previously generated by Hibernate (ddl-auto=create-drop), with the indexes declared on the entities.
+-- Portable between H2 and PostgreSQL; vendor specific migrations go next to this directory.
+-- Sequences step by IdGeneration.ALLOCATION_SIZE to match the pooled ID generators.
+
+CREATE SEQUENCE stock_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE vehicles_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE customers_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE sales_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE test_drives_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE customer_interactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE sales_forecasts_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE stock_items (
+    id BIGINT NOT NULL,
+    brand VARCHAR(255) NOT NULL,
+    model VARCHAR(255) NOT NULL,
+    model_year INTEGER NOT NULL,
+    package_type VARCHAR(255) NOT NULL,
+    base_price NUMERIC(38, 2) NOT NULL,
+    total_quantity INTEGER NOT NULL,
+    specifications TEXT,
+    CONSTRAINT pk_stock_items PRIMARY KEY (id)
+);
+
+CREATE TABLE vehicles (
+    id BIGINT NOT NULL,
+    brand VARCHAR(255) NOT NULL,
+    model VARCHAR(255) NOT NULL,
+    model_year INTEGER NOT NULL,
+    package_type VARCHAR(255) NOT NULL,
+    vin VARCHAR(255) NOT NULL,
+    price NUMERIC(38, 2) NOT NULL,
+    color VARCHAR(255),
+    stock_entry_date DATE NOT NULL,
+    status VARCHAR(255),
+    description TEXT,
+    is_available_for_test_drive BOOLEAN NOT NULL,
+    stock_item_id BIGINT,
+    CONSTRAINT pk_vehicles PRIMARY KEY (id),
+    CONSTRAINT fk_vehicles_stock_item FOREIGN KEY (stock_item_id) REFERENCES stock_items (id)
+);
+
+CREATE TABLE customers (
+    id BIGINT NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    phone VARCHAR(255),
+    address VARCHAR(255),
+    registration_date DATE NOT NULL,
+    CONSTRAINT pk_customers PRIMARY KEY (id),
+    CONSTRAINT uk_customers_email UNIQUE (email)
+);
+
+CREATE TABLE sales (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    sale_price NUMERIC(38, 2) NOT NULL,
+    discount NUMERIC(38, 2),
+    status VARCHAR(255) NOT NULL,
+    sales_employee_name VARCHAR(255),
+    payment_method VARCHAR(255),
+    CONSTRAINT pk_sales PRIMARY KEY (id),
+    CONSTRAINT uk_sales_vehicle UNIQUE (vehicle_id),
+    CONSTRAINT fk_sales_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_sales_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+);
+
+CREATE INDEX idx_sales_customer ON sales (customer_id);
+
+CREATE TABLE test_drives (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    scheduled_date_time TIMESTAMP(6) NOT NULL,
+    duration_minutes INTEGER,
+    actual_start_time TIMESTAMP(6),
+    actual_end_time TIMESTAMP(6),
+    status VARCHAR(255) NOT NULL,
+    customer_feedback TEXT,
+    staff_member_name VARCHAR(255),
+    CONSTRAINT pk_test_drives PRIMARY KEY (id),
+    CONSTRAINT fk_test_drives_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_test_drives_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+);
+
+CREATE INDEX idx_test_drives_customer ON test_drives (customer_id);
+CREATE INDEX idx_test_drives_scheduled ON test_drives (scheduled_date_time);
+
+CREATE TABLE customer_interactions (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    interaction_date TIMESTAMP(6) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    vehicle_id BIGINT,
+    CONSTRAINT pk_customer_interactions PRIMARY KEY (id),
+    CONSTRAINT fk_customer_interactions_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_customer_interactions_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+);
+
+CREATE INDEX idx_customer_interactions_customer_date ON customer_interactions (customer_id, interaction_date, id);
+
+-- Keyed by customer ID without a foreign key: merged customers are cleaned up by the next segmentation run
+CREATE TABLE customer_segments (
+    customer_id BIGINT NOT NULL,
+    last_purchase_date DATE,
+    purchase_count INTEGER NOT NULL,
+    monetary_value NUMERIC(38, 2) NOT NULL,
+    interaction_count INTEGER NOT NULL,
+    test_drive_count INTEGER NOT NULL,
+    last_activity_date TIMESTAMP(6),
+    recency_score INTEGER NOT NULL,
+    frequency_score INTEGER NOT NULL,
+    monetary_score INTEGER NOT NULL,
+    engagement_score INTEGER NOT NULL,
+    segment VARCHAR(255) NOT NULL,
+    computed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_customer_segments PRIMARY KEY (customer_id)
+);
+
+CREATE INDEX idx_customer_segments_segment ON customer_segments (segment);
+CREATE INDEX idx_customer_segments_scores ON customer_segments (recency_score, frequency_score, monetary_score);
+CREATE INDEX idx_customer_segments_last_purchase ON customer_segments (last_purchase_date);
+
+CREATE TABLE sales_forecasts (
+    id BIGINT NOT NULL,
+    brand VARCHAR(255),
+    model VARCHAR(255),
+    package_type VARCHAR(255),
+    model_year INTEGER,
+    forecast_period_start DATE NOT NULL,
+    forecast_period_end DATE NOT NULL,
+    forecasted_quantity INTEGER NOT NULL,
+    actual_quantity INTEGER,
+    number_of_periods INTEGER NOT NULL,
+    creation_date DATE NOT NULL,
+    CONSTRAINT pk_sales_forecasts PRIMARY KEY (id)
+);
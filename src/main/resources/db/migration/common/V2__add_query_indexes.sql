@@ -0,0 +1,42 @@
+-- Indexes for the repository finders and filters; composite indexes are ordered so that their
+-- leading columns also serve the shorter finders (findByBrand, findByBrandAndModel, ...).
+
+-- CustomerRepository: findByLastName, findByFirstNameAndLastName, findByRegistrationDateBetween
+CREATE INDEX idx_customers_name ON customers (last_name, first_name);
+CREATE INDEX idx_customers_registration_date ON customers (registration_date);
+
+-- StockItemRepository: findByBrandAndModelAndYearAndPackageType, brand/model/year facets
+CREATE INDEX idx_stock_items_type ON stock_items (brand, model, model_year, package_type);
+
+-- VehicleRepository: brand/model/year/package filters with and without status, facets and counts
+CREATE INDEX idx_vehicles_type_status ON vehicles (brand, model, model_year, package_type, status);
+-- VehicleRepository: findByStatus, findByStatusIn
+CREATE INDEX idx_vehicles_status ON vehicles (status);
+CREATE INDEX idx_vehicles_stock_item ON vehicles (stock_item_id);
+
+-- SaleRepository: findByCustomerId, customer history ordered by date; replaces the single column index
+CREATE INDEX idx_sales_customer_date ON sales (customer_id, sale_date, id);
+DROP INDEX idx_sales_customer;
+-- SaleRepository: findBySaleDateBetween, sales since a date
+CREATE INDEX idx_sales_sale_date ON sales (sale_date);
+-- SaleRepository: findByStatus
+CREATE INDEX idx_sales_status ON sales (status);
+
+-- TestDriveRepository: findByCustomerId, customer history ordered by schedule; replaces the single column index
+CREATE INDEX idx_test_drives_customer_scheduled ON test_drives (customer_id, scheduled_date_time, id);
+DROP INDEX idx_test_drives_customer;
+-- TestDriveRepository: findByVehicleId, completed test drives per vehicle
+CREATE INDEX idx_test_drives_vehicle ON test_drives (vehicle_id);
+-- TestDriveRepository: findByStatus, slots and boards by status within a time range
+CREATE INDEX idx_test_drives_status_scheduled ON test_drives (status, scheduled_date_time);
+
+-- CustomerInteractionRepository: findByInteractionDateBetween, activity and archive scans by date
+CREATE INDEX idx_customer_interactions_date ON customer_interactions (interaction_date);
+-- CustomerInteractionRepository: findByVehicleId
+CREATE INDEX idx_customer_interactions_vehicle ON customer_interactions (vehicle_id);
+-- CustomerInteractionRepository: findByType, countByInteractionType
+CREATE INDEX idx_customer_interactions_type ON customer_interactions (type);
+
+-- SalesForecastRepository: findByBrandAndModel... and the latest forecast lookup
+CREATE INDEX idx_sales_forecasts_type ON sales_forecasts (brand, model, package_type, model_year);
+CREATE INDEX idx_sales_forecasts_period_start ON sales_forecasts (forecast_period_start);
@@ -0,0 +1,14 @@
+-- Segmentation runs: the incremental refresh continues from the start of the last run recorded here.
+-- Customers re-scored on their own (e.g. after a sale status change) do not record a run, so they do not
+-- move the point from which the other customers' activity is picked up.
+
+CREATE TABLE segmentation_runs (
+    run_at TIMESTAMP(6) NOT NULL,
+    customers_scored INTEGER NOT NULL,
+    full_refresh BOOLEAN NOT NULL,
+    CONSTRAINT pk_segmentation_runs PRIMARY KEY (run_at)
+);
+
+-- Existing segments were computed by runs; continue from the latest of them
+INSERT INTO segmentation_runs (run_at, customers_scored, full_refresh)
+SELECT MAX(computed_at), COUNT(*), FALSE FROM customer_segments HAVING COUNT(*) > 0;
@@ -0,0 +1,12 @@
+-- A cancelled sale puts its vehicle back in stock, so a vehicle can have several sales of which at most one
+-- is not CANCELLED. The unique vehicle_id constraint of V1 is dropped on every database (PostgreSQL already
+-- lost it when V3 partitioned sales); SaleService enforces the one-active-sale rule under the vehicle row lock.
+
+-- SaleRepository: existsByVehicleIdAndStatusNot
+CREATE INDEX IF NOT EXISTS idx_sales_vehicle_status ON sales (vehicle_id, status);
+
+-- H2 hands the unique index over to the foreign key when the constraint is dropped, so the foreign key is
+-- recreated without it
+ALTER TABLE sales DROP CONSTRAINT IF EXISTS fk_sales_vehicle;
+ALTER TABLE sales DROP CONSTRAINT IF EXISTS uk_sales_vehicle;
+ALTER TABLE sales ADD CONSTRAINT fk_sales_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id);
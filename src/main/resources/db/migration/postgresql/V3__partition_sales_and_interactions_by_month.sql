@@ -0,0 +1,109 @@
+-- Range-partitions sales by sale_date and customer_interactions by interaction_date, one partition per month,
+-- so that date-ranged queries and archival only touch the partitions of the months involved.
+-- PostgreSQL requires the partition key in every primary key and unique constraint: IDs stay unique through
+-- the sequences, and a vehicle is sold at most once as enforced by SaleService (no unique vehicle_id any more).
+-- Partitions cover the retention window (app.partitioning.retention-months, 36) up to three months ahead;
+-- PartitionMaintenanceService keeps rolling the window forward.
+
+-- Creates the partition of a monthly partitioned table holding the given month, named <table>_YYYY_MM
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, for_month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_month)::DATE;
+    partition_name TEXT := parent_table || '_' || to_char(month_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent_table, month_start, (month_start + INTERVAL '1 month')::DATE);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sales
+
+ALTER TABLE sales RENAME TO sales_unpartitioned;
+ALTER TABLE sales_unpartitioned RENAME CONSTRAINT pk_sales TO pk_sales_unpartitioned;
+ALTER TABLE sales_unpartitioned RENAME CONSTRAINT uk_sales_vehicle TO uk_sales_vehicle_unpartitioned;
+DROP INDEX idx_sales_customer_date;
+DROP INDEX idx_sales_sale_date;
+DROP INDEX idx_sales_status;
+
+CREATE TABLE sales (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    vehicle_id BIGINT NOT NULL,
+    sale_date DATE NOT NULL,
+    sale_price NUMERIC(38, 2) NOT NULL,
+    discount NUMERIC(38, 2),
+    status VARCHAR(255) NOT NULL,
+    sales_employee_name VARCHAR(255),
+    payment_method VARCHAR(255),
+    CONSTRAINT pk_sales PRIMARY KEY (id, sale_date),
+    CONSTRAINT fk_sales_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_sales_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+) PARTITION BY RANGE (sale_date);
+
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', LEAST(
+            COALESCE((SELECT MIN(sale_date) FROM sales_unpartitioned), CURRENT_DATE),
+            CURRENT_DATE - INTERVAL '36 months'))::DATE;
+BEGIN
+    WHILE partition_month <= CURRENT_DATE + INTERVAL '3 months' LOOP
+        PERFORM create_monthly_partition('sales', partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO sales (id, customer_id, vehicle_id, sale_date, sale_price, discount, status, sales_employee_name, payment_method)
+SELECT id, customer_id, vehicle_id, sale_date, sale_price, discount, status, sales_employee_name, payment_method
+FROM sales_unpartitioned;
+DROP TABLE sales_unpartitioned;
+
+-- Created on the parent, so every partition gets them
+CREATE INDEX idx_sales_customer_date ON sales (customer_id, sale_date, id);
+CREATE INDEX idx_sales_sale_date ON sales (sale_date);
+CREATE INDEX idx_sales_status ON sales (status);
+CREATE INDEX idx_sales_vehicle ON sales (vehicle_id);
+
+-- Customer interactions
+
+ALTER TABLE customer_interactions RENAME TO customer_interactions_unpartitioned;
+ALTER TABLE customer_interactions_unpartitioned RENAME CONSTRAINT pk_customer_interactions TO pk_customer_interactions_unpartitioned;
+DROP INDEX idx_customer_interactions_customer_date;
+DROP INDEX idx_customer_interactions_date;
+DROP INDEX idx_customer_interactions_vehicle;
+DROP INDEX idx_customer_interactions_type;
+
+CREATE TABLE customer_interactions (
+    id BIGINT NOT NULL,
+    customer_id BIGINT NOT NULL,
+    interaction_date TIMESTAMP(6) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    vehicle_id BIGINT,
+    CONSTRAINT pk_customer_interactions PRIMARY KEY (id, interaction_date),
+    CONSTRAINT fk_customer_interactions_customer FOREIGN KEY (customer_id) REFERENCES customers (id),
+    CONSTRAINT fk_customer_interactions_vehicle FOREIGN KEY (vehicle_id) REFERENCES vehicles (id)
+) PARTITION BY RANGE (interaction_date);
+
+DO $$
+DECLARE
+    partition_month DATE := date_trunc('month', LEAST(
+            COALESCE((SELECT MIN(interaction_date) FROM customer_interactions_unpartitioned), CURRENT_DATE),
+            CURRENT_DATE - INTERVAL '36 months'))::DATE;
+BEGIN
+    WHILE partition_month <= CURRENT_DATE + INTERVAL '3 months' LOOP
+        PERFORM create_monthly_partition('customer_interactions', partition_month);
+        partition_month := (partition_month + INTERVAL '1 month')::DATE;
+    END LOOP;
+END;
+$$;
+
+INSERT INTO customer_interactions (id, customer_id, interaction_date, type, vehicle_id)
+SELECT id, customer_id, interaction_date, type, vehicle_id
+FROM customer_interactions_unpartitioned;
+DROP TABLE customer_interactions_unpartitioned;
+
+CREATE INDEX idx_customer_interactions_customer_date ON customer_interactions (customer_id, interaction_date, id);
+CREATE INDEX idx_customer_interactions_date ON customer_interactions (interaction_date);
+CREATE INDEX idx_customer_interactions_vehicle ON customer_interactions (vehicle_id);
+CREATE INDEX idx_customer_interactions_type ON customer_interactions (type);
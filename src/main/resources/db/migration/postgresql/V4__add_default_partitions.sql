@@ -0,0 +1,36 @@
+-- Default partitions catch rows dated outside the monthly partitions (e.g. imported history older than the
+-- retention window, or dates beyond the months created ahead) instead of failing the insert.
+-- A vehicle is still sold at most once: SaleService locks the vehicle row before checking its status.
+
+CREATE TABLE sales_default PARTITION OF sales DEFAULT;
+CREATE TABLE customer_interactions_default PARTITION OF customer_interactions DEFAULT;
+
+-- With a default partition, a new monthly partition cannot be created while the default holds rows of that month,
+-- so the partition is created standalone, those rows are moved into it and it is attached afterwards
+CREATE OR REPLACE FUNCTION create_monthly_partition(parent_table TEXT, for_month DATE) RETURNS TEXT AS $$
+DECLARE
+    month_start DATE := date_trunc('month', for_month)::DATE;
+    month_end DATE := (date_trunc('month', for_month) + INTERVAL '1 month')::DATE;
+    partition_name TEXT := parent_table || '_' || to_char(month_start, 'YYYY_MM');
+    default_name TEXT := parent_table || '_default';
+    partition_key TEXT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    SELECT a.attname INTO partition_key
+    FROM pg_partitioned_table pt
+    JOIN pg_attribute a ON a.attrelid = pt.partrelid AND a.attnum = pt.partattrs[0]
+    WHERE pt.partrelid = parent_table::regclass;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent_table);
+    IF to_regclass(default_name) IS NOT NULL THEN
+        EXECUTE format('WITH moved AS (DELETE FROM %I WHERE %I >= %L AND %I < %L RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                       default_name, partition_key, month_start, partition_key, month_end, partition_name);
+    END IF;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent_table, partition_name, month_start, month_end);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
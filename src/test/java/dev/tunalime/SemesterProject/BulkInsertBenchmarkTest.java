@@ -0,0 +1,117 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.entity.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk insert throughput with and without JDBC batching.
+ * Runs only with the benchmark profile: {@code mvn test -Pbenchmark}, and against PostgreSQL with
+ * {@code mvn test -Pbenchmark -Dspring.profiles.active=postgres}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+class BulkInsertBenchmarkTest {
+
+	private static final Logger logger = LoggerFactory.getLogger(BulkInsertBenchmarkTest.class);
+
+	private static final int ROWS = 5000;
+	private static final int ROUNDS = 3;
+	private static final String EMAIL_PREFIX = "bulk-insert-benchmark-";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private int sequence;
+
+	@AfterEach
+	void deleteBenchmarkCustomers() {
+		transactionTemplate.executeWithoutResult(status -> entityManager
+				.createQuery("DELETE FROM Customer c WHERE c.email LIKE ?1")
+				.setParameter(1, EMAIL_PREFIX + "%")
+				.executeUpdate());
+	}
+
+	@Test
+	void batchedInsertsNeedFewerStatementsAndRunFaster() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.setStatisticsEnabled(true);
+
+		// Warm up the connection pool, the statement cache and the JIT
+		insertCustomers(1, 500);
+		insertCustomers(null, 500);
+
+		long rowByRowNanos = Long.MAX_VALUE;
+		long batchedNanos = Long.MAX_VALUE;
+		long rowByRowStatements = 0;
+		long batchedStatements = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			statistics.clear();
+			rowByRowNanos = Math.min(rowByRowNanos, insertCustomers(1, ROWS));
+			rowByRowStatements = statistics.getPrepareStatementCount();
+
+			statistics.clear();
+			batchedNanos = Math.min(batchedNanos, insertCustomers(null, ROWS));
+			batchedStatements = statistics.getPrepareStatementCount();
+		}
+
+		logger.info("Row by row: {} rows/s, {} statements", Math.round(rowsPerSecond(rowByRowNanos)), rowByRowStatements);
+		logger.info("Batched: {} rows/s, {} statements", Math.round(rowsPerSecond(batchedNanos)), batchedStatements);
+
+		// Both runs fetch IDs from the pooled sequence; only the batched run groups the inserts
+		assertTrue(batchedStatements * 5 < rowByRowStatements,
+				"Batched inserts should prepare far fewer statements than row-by-row inserts");
+	}
+
+	/**
+	 * Insert customers in one transaction
+	 *
+	 * @param jdbcBatchSize JDBC batch size for the session (1 disables batching, null keeps the configured size)
+	 * @param rows Number of customers
+	 * @return Elapsed nanoseconds
+	 */
+	private long insertCustomers(Integer jdbcBatchSize, int rows) {
+		long start = System.nanoTime();
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+			for (int i = 0; i < rows; i++) {
+				Customer customer = new Customer();
+				customer.setFirstName("Benchmark");
+				customer.setLastName("Customer " + i);
+				customer.setEmail(EMAIL_PREFIX + (sequence++) + "@example.com");
+				customer.setRegistrationDate(LocalDate.now());
+				entityManager.persist(customer);
+			}
+			entityManager.flush();
+			entityManager.clear();
+		});
+		return System.nanoTime() - start;
+	}
+
+	private static double rowsPerSecond(long nanos) {
+		return ROWS / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+	}
+}
@@ -0,0 +1,94 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.entity.PaymentMethod;
+import dev.tunalime.SemesterProject.entity.Sale;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.entity.VehicleStatus;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.CustomerSegmentRepository;
+import dev.tunalime.SemesterProject.repository.VehicleRepository;
+import dev.tunalime.SemesterProject.service.CustomerSegmentationService;
+import dev.tunalime.SemesterProject.service.SaleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fails when re-scoring a single customer moves the point from which the nightly incremental refresh picks up activity
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:segmentation_refresh;DB_CLOSE_DELAY=-1")
+class CustomerSegmentationRefreshTest {
+
+	@Autowired
+	private CustomerSegmentationService customerSegmentationService;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private CustomerInteractionRepository customerInteractionRepository;
+
+	@Autowired
+	private CustomerSegmentRepository customerSegmentRepository;
+
+	@Test
+	void saleStatusChangeDoesNotHideOtherCustomersActivity() {
+		Customer buyer = customerRepository.save(customer("buyer@example.com"));
+		Customer visitor = customerRepository.save(customer("visitor@example.com"));
+		Vehicle vehicle = vehicleRepository.save(vehicle());
+		customerSegmentationService.refreshAll();
+
+		// New activity of one customer, then a sale of another customer is completed and re-scored at once
+		CustomerInteraction interaction = new CustomerInteraction();
+		interaction.setCustomer(visitor);
+		interaction.setInteractionDate(LocalDateTime.now());
+		interaction.setType(InteractionType.VISIT);
+		customerInteractionRepository.save(interaction);
+		Sale sale = saleService.initiateSale(buyer.getId(), vehicle.getId(), new BigDecimal("1250000.00"),
+				BigDecimal.ZERO, PaymentMethod.CASH);
+		saleService.completeSale(sale.getId(), "Ayşe Demir");
+		assertEquals(1, customerSegmentRepository.findById(buyer.getId()).orElseThrow().getPurchaseCount());
+
+		customerSegmentationService.refreshIncremental();
+
+		assertEquals(1, customerSegmentRepository.findById(visitor.getId()).orElseThrow().getInteractionCount());
+	}
+
+	private static Customer customer(String email) {
+		Customer customer = new Customer();
+		customer.setFirstName("Segment");
+		customer.setLastName("Refresh");
+		customer.setEmail(email);
+		customer.setRegistrationDate(LocalDate.now().minusYears(1));
+		return customer;
+	}
+
+	private static Vehicle vehicle() {
+		Vehicle vehicle = new Vehicle();
+		vehicle.setBrand("Toyota");
+		vehicle.setModel("Corolla");
+		vehicle.setYear(2024);
+		vehicle.setPackageType("Dream");
+		vehicle.setVin("NMTBZ3BE00R000001");
+		vehicle.setPrice(new BigDecimal("1250000.00"));
+		vehicle.setStockEntryDate(LocalDate.now().minusMonths(1));
+		vehicle.setStatus(VehicleStatus.IN_STOCK);
+		return vehicle;
+	}
+}
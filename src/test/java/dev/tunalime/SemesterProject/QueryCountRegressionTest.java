@@ -0,0 +1,128 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.config.SqlStatementCounter;
+import dev.tunalime.SemesterProject.config.SyntheticDataGenerator;
+import dev.tunalime.SemesterProject.dto.SyntheticDataFormat;
+import dev.tunalime.SemesterProject.dto.SyntheticDataSpecDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.TestDrive;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import dev.tunalime.SemesterProject.repository.VehicleRepository;
+import dev.tunalime.SemesterProject.service.CustomerService;
+import dev.tunalime.SemesterProject.service.SaleService;
+import dev.tunalime.SemesterProject.service.TestDriveService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static dev.tunalime.SemesterProject.SqlStatementAssertions.assertMaxStatements;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails when the list service calls or pages start issuing one query per row (N+1 selects)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query_count;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryCountRegressionTest {
+
+	// Rows per table; one query per row would exceed every limit below
+	private static final long ROWS = 30;
+	private static final long MAX_STATEMENTS_PER_PAGE = 5;
+
+	@Autowired
+	private SqlStatementCounter statementCounter;
+
+	@Autowired
+	private SyntheticDataGenerator syntheticDataGenerator;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@Autowired
+	private TestDriveRepository testDriveRepository;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private TestDriveService testDriveService;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@BeforeAll
+	void seed() {
+		syntheticDataGenerator.generate(new SyntheticDataSpecDTO(ROWS, ROWS, ROWS, ROWS, 42L, null, 2,
+				SyntheticDataFormat.DATABASE, null));
+
+		// Past test drives, so the scheduling engine and today's board are not involved
+		List<Customer> customers = customerRepository.findAll();
+		List<Vehicle> vehicles = vehicleRepository.findAll();
+		List<TestDrive> testDrives = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			TestDrive testDrive = new TestDrive();
+			testDrive.setCustomer(customers.get(i % customers.size()));
+			testDrive.setVehicle(vehicles.get(i % vehicles.size()));
+			testDrive.setScheduledDateTime(LocalDate.now().minusDays(i + 1).atTime(10, 0));
+			testDrive.setDurationMinutes(30);
+			testDrive.setStatus(TestDriveStatus.COMPLETED);
+			testDrive.setStaffMemberName("Query Count");
+			testDrives.add(testDrive);
+		}
+		testDriveRepository.saveAll(testDrives);
+	}
+
+	@BeforeEach
+	void evictSecondLevelCache() {
+		// Cached customers and vehicles would hide per-row selects
+		entityManagerFactory.getCache().evictAll();
+	}
+
+	@Test
+	void getAllSalesIssuesOneQuery() throws Throwable {
+		assertMaxStatements(statementCounter, 1, () -> assertEquals(ROWS, saleService.getAllSales().size()));
+	}
+
+	@Test
+	void getAllTestDrivesIssuesOneQuery() throws Throwable {
+		assertMaxStatements(statementCounter, 1, () -> assertEquals(ROWS, testDriveService.getAllTestDrives().size()));
+	}
+
+	@Test
+	void getAllCustomersIssuesOneQuery() throws Throwable {
+		assertMaxStatements(statementCounter, 1, () -> assertEquals(ROWS, customerService.getAllCustomers().size()));
+	}
+
+	@Test
+	void listAndDetailPagesIssueConstantStatements() throws Throwable {
+		for (String page : List.of("/sales", "/test-drives", "/customers", "/customers/1")) {
+			assertMaxStatements(statementCounter, MAX_STATEMENTS_PER_PAGE,
+					() -> mockMvc.perform(get(page)).andExpect(status().isOk()));
+		}
+	}
+}
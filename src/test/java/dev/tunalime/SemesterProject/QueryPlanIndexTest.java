@@ -0,0 +1,93 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.config.SyntheticDataGenerator;
+import dev.tunalime.SemesterProject.dto.SyntheticDataFormat;
+import dev.tunalime.SemesterProject.dto.SyntheticDataSpecDTO;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Checks with EXPLAIN that the repository finders are answered from an index of the migrations instead of a table scan
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:query_plans;DB_CLOSE_DELAY=-1")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanIndexTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SyntheticDataGenerator syntheticDataGenerator;
+
+	@BeforeAll
+	void seed() {
+		syntheticDataGenerator.generate(new SyntheticDataSpecDTO(200L, 200L, 200L, 1000L, 42L, null, 2,
+				SyntheticDataFormat.DATABASE, null));
+	}
+
+	// Repository method and SQL with the same filter as the statement Hibernate generates for it
+	static Stream<Arguments> repositoryQueries() {
+		return Stream.of(
+				Arguments.of("CustomerRepository.findByLastName",
+						"SELECT * FROM customers WHERE last_name = 'Kaya'"),
+				Arguments.of("CustomerRepository.findByFirstNameAndLastName",
+						"SELECT * FROM customers WHERE first_name = 'Ali' AND last_name = 'Kaya'"),
+				Arguments.of("CustomerRepository.findByRegistrationDateBetween",
+						"SELECT * FROM customers WHERE registration_date BETWEEN DATE '2024-01-01' AND DATE '2024-03-31'"),
+				Arguments.of("StockItemRepository.findByBrandAndModelAndYearAndPackageType",
+						"SELECT * FROM stock_items WHERE brand = 'Toyota' AND model = 'Corolla' AND model_year = 2022 AND package_type = 'Comfort'"),
+				Arguments.of("StockItem.vehicles",
+						"SELECT * FROM vehicles WHERE stock_item_id = 1"),
+				Arguments.of("VehicleRepository.findByStatus",
+						"SELECT * FROM vehicles WHERE status = 'IN_STOCK'"),
+				Arguments.of("VehicleRepository.findByBrandAndModel",
+						"SELECT * FROM vehicles WHERE brand = 'Toyota' AND model = 'Corolla'"),
+				Arguments.of("VehicleRepository.findByBrandAndModelAndYearAndPackageTypeAndStatus",
+						"SELECT * FROM vehicles WHERE brand = 'Toyota' AND model = 'Corolla' AND model_year = 2022 AND package_type = 'Comfort' AND status = 'IN_SHOWROOM'"),
+				Arguments.of("SaleRepository.findByCustomerId",
+						"SELECT * FROM sales WHERE customer_id = 1"),
+				Arguments.of("SaleRepository.findByStatus",
+						"SELECT * FROM sales WHERE status = 'PENDING'"),
+				Arguments.of("SaleRepository.findBySaleDateBetween",
+						"SELECT * FROM sales WHERE sale_date BETWEEN DATE '2024-01-01' AND DATE '2024-03-31'"),
+				Arguments.of("TestDriveRepository.findByCustomerId",
+						"SELECT * FROM test_drives WHERE customer_id = 1"),
+				Arguments.of("TestDriveRepository.findByVehicleId",
+						"SELECT * FROM test_drives WHERE vehicle_id = 1"),
+				Arguments.of("TestDriveRepository.findByStatus",
+						"SELECT * FROM test_drives WHERE status = 'SCHEDULED'"),
+				Arguments.of("TestDriveRepository.findByScheduledDateTimeBetween",
+						"SELECT * FROM test_drives WHERE scheduled_date_time BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-01-02 00:00:00'"),
+				Arguments.of("CustomerInteractionRepository.findByCustomerIdOrderByInteractionDateDesc",
+						"SELECT * FROM customer_interactions WHERE customer_id = 1 ORDER BY interaction_date DESC"),
+				Arguments.of("CustomerInteractionRepository.findByVehicleId",
+						"SELECT * FROM customer_interactions WHERE vehicle_id = 1"),
+				Arguments.of("CustomerInteractionRepository.findByInteractionDateBetween",
+						"SELECT * FROM customer_interactions WHERE interaction_date BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-01-31 00:00:00'"),
+				Arguments.of("CustomerInteractionRepository.findByType",
+						"SELECT * FROM customer_interactions WHERE type = 'INQUIRY'"),
+				Arguments.of("SalesForecastRepository.findByBrandAndModel",
+						"SELECT * FROM sales_forecasts WHERE brand = 'Toyota' AND model = 'Corolla'"));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("repositoryQueries")
+	void repositoryQueryUsesIndex(String repositoryMethod, String sql) {
+		String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class))
+				.toLowerCase(Locale.ROOT);
+		// H2 marks a full scan as tableScan, PostgreSQL as Seq Scan
+		assertFalse(plan.contains("tablescan") || plan.contains("seq scan"),
+				() -> repositoryMethod + " scans the whole table:\n" + plan);
+	}
+}
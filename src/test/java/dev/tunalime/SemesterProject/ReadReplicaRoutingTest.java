@@ -0,0 +1,98 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.dto.CustomerDTO;
+import dev.tunalime.SemesterProject.service.CustomerService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Read-only transactions go to the replica, all other work to the primary, here two in-memory H2 databases
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.enabled=true",
+		"app.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1"
+})
+@ContextConfiguration(initializers = ReadReplicaRoutingTest.ReplicaInitializer.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaRoutingTest {
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private CustomerService customerService;
+
+	@Test
+	void readOnlyTransactionUsesReplica() {
+		assertEquals("routing_replica", databaseName(true));
+	}
+
+	@Test
+	void readWriteTransactionUsesPrimary() {
+		assertEquals("routing_primary", databaseName(false));
+	}
+
+	@Test
+	void workOutsideTransactionUsesPrimary() {
+		assertEquals("routing_primary", jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase(Locale.ROOT));
+	}
+
+	@Test
+	void readOnlyServiceMethodReadsFromReplica() {
+		List<CustomerDTO> customers = customerService.getAllCustomers();
+
+		assertEquals(1, customers.size());
+		assertEquals("replica@example.com", customers.get(0).getEmail());
+		assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customers", Integer.class));
+	}
+
+	private String databaseName(boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(readOnly);
+		return transactionTemplate.execute(status ->
+				jdbcTemplate.queryForObject("SELECT DATABASE()", String.class).toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Stands in for replication: the replica gets the same schema, plus a customer only the replica has, before the
+	 * context starts, since startup work such as the today board already reads from it
+	 */
+	static class ReplicaInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
+
+		@Override
+		public void initialize(ConfigurableApplicationContext context) {
+			Environment environment = context.getEnvironment();
+			DriverManagerDataSource replica = new DriverManagerDataSource(
+					environment.getRequiredProperty("app.datasource.replica.url"),
+					environment.getRequiredProperty("app.datasource.replica.username"),
+					environment.getRequiredProperty("app.datasource.replica.password"));
+			Flyway.configure()
+					.dataSource(replica)
+					.locations("classpath:db/migration/common")
+					.load()
+					.migrate();
+			new JdbcTemplate(replica).update("INSERT INTO customers (id, first_name, last_name, email, registration_date) " +
+					"VALUES (1, 'Replica', 'Customer', 'replica@example.com', CURRENT_DATE)");
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.PaymentMethod;
+import dev.tunalime.SemesterProject.entity.Sale;
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.entity.VehicleStatus;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.VehicleRepository;
+import dev.tunalime.SemesterProject.service.SaleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A vehicle can be sold again after a cancelled sale, but never has two sales that are not cancelled.
+ * Runs on H2 by default and against PostgreSQL with {@code mvn test -Dspring.profiles.active=postgres},
+ * so both schemas are held to the same rule.
+ */
+@SpringBootTest
+class SaleResaleTest {
+
+	private static final String VIN = "NMTBZ3BE00R0RESAL";
+	private static final String EMAIL = "sale-resale-test@example.com";
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private SaleService saleService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	@AfterEach
+	void deleteTestRows() {
+		transactionTemplate.executeWithoutResult(status -> {
+			entityManager.createQuery("DELETE FROM Sale s WHERE s.vehicle.id IN (SELECT v.id FROM Vehicle v WHERE v.vin = ?1)")
+					.setParameter(1, VIN).executeUpdate();
+			entityManager.createQuery("DELETE FROM CustomerSegment s WHERE s.customerId IN (SELECT c.id FROM Customer c WHERE c.email = ?1)")
+					.setParameter(1, EMAIL).executeUpdate();
+			entityManager.createQuery("DELETE FROM Vehicle v WHERE v.vin = ?1").setParameter(1, VIN).executeUpdate();
+			entityManager.createQuery("DELETE FROM Customer c WHERE c.email = ?1").setParameter(1, EMAIL).executeUpdate();
+		});
+	}
+
+	@Test
+	void cancelledVehicleCanBeSoldAgainButOnlyOnce() {
+		Customer customer = customerRepository.save(customer());
+		Vehicle vehicle = vehicleRepository.save(vehicle());
+
+		Sale first = saleService.initiateSale(customer.getId(), vehicle.getId(), vehicle.getPrice(), BigDecimal.ZERO, PaymentMethod.CASH);
+		saleService.cancelSale(first.getId());
+		Sale second = saleService.initiateSale(customer.getId(), vehicle.getId(), vehicle.getPrice(), BigDecimal.ZERO, PaymentMethod.CASH);
+
+		assertEquals(SaleStatus.CANCELLED, saleService.getSaleById(first.getId()).orElseThrow().getStatus());
+		assertEquals(SaleStatus.INITIATED, second.getStatus());
+
+		// Even with the vehicle back in stock by mistake, the active sale blocks a third one
+		Vehicle reserved = vehicleRepository.findById(vehicle.getId()).orElseThrow();
+		reserved.setStatus(VehicleStatus.IN_STOCK);
+		vehicleRepository.save(reserved);
+		IllegalStateException error = assertThrows(IllegalStateException.class, () -> saleService.initiateSale(
+				customer.getId(), vehicle.getId(), vehicle.getPrice(), BigDecimal.ZERO, PaymentMethod.CASH));
+		assertEquals("Vehicle already has an active sale", error.getMessage());
+	}
+
+	private static Customer customer() {
+		Customer customer = new Customer();
+		customer.setFirstName("Resale");
+		customer.setLastName("Test");
+		customer.setEmail(EMAIL);
+		customer.setRegistrationDate(LocalDate.now().minusYears(1));
+		return customer;
+	}
+
+	private static Vehicle vehicle() {
+		Vehicle vehicle = new Vehicle();
+		vehicle.setBrand("Toyota");
+		vehicle.setModel("Corolla");
+		vehicle.setYear(2024);
+		vehicle.setPackageType("Dream");
+		vehicle.setVin(VIN);
+		vehicle.setPrice(new BigDecimal("1250000.00"));
+		vehicle.setStockEntryDate(LocalDate.now().minusMonths(1));
+		vehicle.setStatus(VehicleStatus.IN_STOCK);
+		return vehicle;
+	}
+}
@@ -0,0 +1,30 @@
+package dev.tunalime.SemesterProject;
+
+import dev.tunalime.SemesterProject.config.SqlStatementCounter;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Assertions on the number of SQL statements a service call or request issues
+ */
+final class SqlStatementAssertions {
+
+	private SqlStatementAssertions() {
+	}
+
+	/**
+	 * Run an action on the current thread and fail if it prepares more than the given number of SQL statements
+	 *
+	 * @param counter Statement counter bean
+	 * @param maxStatements Highest allowed statement count
+	 * @param action Service call or MockMvc request
+	 */
+	static void assertMaxStatements(SqlStatementCounter counter, long maxStatements, Executable action) throws Throwable {
+		long before = counter.current();
+		action.execute();
+		long statements = counter.current() - before;
+		assertTrue(statements <= maxStatements,
+				() -> "Expected at most " + maxStatements + " SQL statements but " + statements + " were issued");
+	}
+}
@@ -0,0 +1,168 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.DuplicateCandidateDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.TestDrive;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.CustomersMergedEvent;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.CustomerSegmentRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the similarity measure, that only customers sharing a blocking key are compared, and the merge order
+ */
+class CustomerDeduplicationServiceTest {
+
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final SaleRepository saleRepository = mock(SaleRepository.class);
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	private final CustomerInteractionRepository customerInteractionRepository = mock(CustomerInteractionRepository.class);
+	private final CustomerSegmentRepository customerSegmentRepository = mock(CustomerSegmentRepository.class);
+	private final CustomerService customerService = mock(CustomerService.class);
+	private final InteractionArchiveService interactionArchiveService = mock(InteractionArchiveService.class);
+	private final TestDriveService testDriveService = mock(TestDriveService.class);
+	private final List<Object> events = new ArrayList<>();
+	private final ApplicationEventPublisher eventPublisher = events::add;
+
+	private final CustomerDeduplicationService service = new CustomerDeduplicationService(customerRepository,
+			saleRepository, testDriveRepository, customerInteractionRepository, customerSegmentRepository,
+			customerService, interactionArchiveService, testDriveService, eventPublisher);
+
+	@Test
+	void jaroWinklerMatchesReferenceValues() {
+		assertEquals(1.0, CustomerDeduplicationService.jaroWinkler("ahmet", "ahmet"));
+		assertEquals(0.961, CustomerDeduplicationService.jaroWinkler("martha", "marhta"), 0.001);
+		assertEquals(0.840, CustomerDeduplicationService.jaroWinkler("dwayne", "duane"), 0.001);
+		assertEquals(0.0, CustomerDeduplicationService.jaroWinkler("abc", "xyz"));
+		assertEquals(0.0, CustomerDeduplicationService.jaroWinkler("abc", ""));
+	}
+
+	@Test
+	void normalizationFoldsTurkishLettersAndPhonePrefixes() {
+		assertEquals("yilmazozturk", CustomerDeduplicationService.normalizeText("Yılmaz Öztürk"));
+		assertEquals("Y452", CustomerDeduplicationService.soundex("yilmaz"));
+		assertEquals("5321112233", CustomerDeduplicationService.normalizePhone("+90 532 111 22 33"));
+		assertEquals("5321112233", CustomerDeduplicationService.normalizePhone("0532 111 22 33"));
+		assertNull(CustomerDeduplicationService.normalizePhone("12-34"));
+	}
+
+	@Test
+	void onlyCustomersSharingABlockAreCompared() {
+		when(customerRepository.findAllForDuplicateDetection()).thenReturn(List.of(
+				new Object[] {1L, "Ahmet", "Yılmaz", "ahmet.yilmaz@example.com", "+90 532 111 22 33"},
+				new Object[] {2L, "Ahmet", "Yilmaz", "ahmetyilmaz@example.org", "0532 111 22 33"},
+				new Object[] {3L, "Mehmet", "Demir", "mehmet@example.com", "0533 444 55 66"},
+				new Object[] {4L, "Zeynep", "Kaya", "zeynep@example.com", "0533 444 55 66"},
+				new Object[] {5L, "Can", "Öztürk", "can@example.com", null}));
+
+		// With no threshold every compared pair is reported, so this is exactly the set of blocked pairs
+		List<DuplicateCandidateDTO> candidates = service.findDuplicateCandidates(0.0);
+
+		assertEquals(2, candidates.size());
+		DuplicateCandidateDTO nameAndPhone = candidates.get(0);
+		assertEquals(1L, nameAndPhone.getCustomerId());
+		assertEquals(2L, nameAndPhone.getDuplicateCustomerId());
+		assertEquals(1.0, nameAndPhone.getScore());
+
+		// Shares only the phone block, so the pair is compared but scores low
+		DuplicateCandidateDTO phoneOnly = candidates.get(1);
+		assertEquals(3L, phoneOnly.getCustomerId());
+		assertEquals(4L, phoneOnly.getDuplicateCustomerId());
+		assertTrue(phoneOnly.getScore() < 0.7);
+
+		assertEquals(1, service.findDuplicateCandidates(0.9).size());
+	}
+
+	@Test
+	void mergeFillsTheProfileAndMovesHistoryBeforeTheArchive() {
+		Customer target = customer(1L, null, null, LocalDate.of(2024, 5, 1));
+		Customer source = customer(2L, "0532 111 22 33", "Kadıköy, İstanbul", LocalDate.of(2023, 1, 15));
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(target));
+		when(customerRepository.findById(2L)).thenReturn(Optional.of(source));
+
+		service.mergeCustomers(1L, 2L);
+
+		assertEquals("0532 111 22 33", target.getPhone());
+		assertEquals("Kadıköy, İstanbul", target.getAddress());
+		assertEquals(LocalDate.of(2023, 1, 15), target.getRegistrationDate());
+
+		InOrder order = inOrder(saleRepository, testDriveRepository, customerInteractionRepository,
+				customerSegmentRepository, customerRepository, interactionArchiveService, customerService);
+		order.verify(saleRepository).reassignCustomer(source, target);
+		order.verify(testDriveRepository).reassignCustomer(source, target);
+		order.verify(customerInteractionRepository).reassignCustomer(source, target);
+		order.verify(customerSegmentRepository).deleteByCustomerIdIn(List.of(1L, 2L));
+		order.verify(customerRepository).deleteById(2L);
+		order.verify(interactionArchiveService).reassignCustomer(2L, 1L);
+		order.verify(customerService).getCustomerById(1L);
+	}
+
+	@Test
+	void mergePublishesTheMovedTestDrives() {
+		Customer target = customer(1L, null, null, LocalDate.of(2024, 5, 1));
+		target.setFirstName("Ahmet Can");
+		Customer source = customer(2L, null, null, LocalDate.of(2024, 6, 1));
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(target));
+		when(customerRepository.findById(2L)).thenReturn(Optional.of(source));
+		TestDrive testDrive = new TestDrive();
+		when(testDriveRepository.findRecentByCustomerIdWithDetails(eq(2L), any(Pageable.class))).thenReturn(List.of(testDrive));
+		TestDriveDTO before = new TestDriveDTO(9L, 2L, "Ahmet Yılmaz", 4L, "Toyota Corolla",
+				LocalDateTime.of(2026, 3, 2, 10, 0), 60, null, null, TestDriveStatus.SCHEDULED, null, "Ayşe Demir");
+		when(testDriveService.convertToDTO(testDrive)).thenReturn(before);
+
+		service.mergeCustomers(1L, 2L);
+
+		assertEquals(2, events.size());
+		assertEquals(new CustomersMergedEvent(2L, 1L), events.get(0));
+		TestDriveChangedEvent changed = (TestDriveChangedEvent) events.get(1);
+		assertEquals(before, changed.before());
+		assertEquals(1L, changed.after().getCustomerId());
+		assertEquals("Ahmet Can Yılmaz", changed.after().getCustomerName());
+		assertEquals(before.getScheduledDateTime(), changed.after().getScheduledDateTime());
+		assertEquals("Ayşe Demir", changed.after().getStaffMemberName());
+	}
+
+	@Test
+	void mergeIntoItselfIsRejected() {
+		assertThrows(RuntimeException.class, () -> service.mergeCustomers(7L, 7L));
+		verifyNoInteractions(customerRepository, saleRepository, interactionArchiveService);
+	}
+
+	private static Customer customer(Long id, String phone, String address, LocalDate registrationDate) {
+		Customer customer = new Customer();
+		customer.setId(id);
+		customer.setFirstName("Ahmet");
+		customer.setLastName("Yılmaz");
+		customer.setEmail("customer" + id + "@example.com");
+		customer.setPhone(phone);
+		customer.setAddress(address);
+		customer.setRegistrationDate(registrationDate);
+		return customer;
+	}
+}
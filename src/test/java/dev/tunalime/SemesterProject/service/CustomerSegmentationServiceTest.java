@@ -0,0 +1,123 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.CustomerSegment;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import dev.tunalime.SemesterProject.entity.SaleStatus;
+import dev.tunalime.SemesterProject.event.SaleStatusChangedEvent;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.CustomerSegmentRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.SegmentationRunRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the RFM score boundaries, the segment rules and re-scoring on sale status changes
+ */
+class CustomerSegmentationServiceTest {
+
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final SaleRepository saleRepository = mock(SaleRepository.class);
+	private final CustomerInteractionRepository customerInteractionRepository = mock(CustomerInteractionRepository.class);
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	private final CustomerSegmentRepository customerSegmentRepository = mock(CustomerSegmentRepository.class);
+	private final SegmentationRunRepository segmentationRunRepository = mock(SegmentationRunRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final EntityManager entityManager = mock(EntityManager.class);
+
+	private final CustomerSegmentationService service = new CustomerSegmentationService(customerRepository,
+			saleRepository, customerInteractionRepository, testDriveRepository, customerSegmentRepository,
+			segmentationRunRepository, transactionManager);
+
+	@Test
+	void recencyScoreDropsAfterEachThreshold() {
+		assertEquals(5, CustomerSegmentationService.recencyScore(0));
+		assertEquals(5, CustomerSegmentationService.recencyScore(90));
+		assertEquals(4, CustomerSegmentationService.recencyScore(91));
+		assertEquals(4, CustomerSegmentationService.recencyScore(180));
+		assertEquals(3, CustomerSegmentationService.recencyScore(365));
+		assertEquals(2, CustomerSegmentationService.recencyScore(730));
+		assertEquals(1, CustomerSegmentationService.recencyScore(731));
+	}
+
+	@Test
+	void thresholdScoreCountsThresholdsReached() {
+		long[] thresholds = {1, 2, 3, 5};
+		assertEquals(1, CustomerSegmentationService.thresholdScore(0, thresholds));
+		assertEquals(2, CustomerSegmentationService.thresholdScore(1, thresholds));
+		assertEquals(4, CustomerSegmentationService.thresholdScore(4, thresholds));
+		assertEquals(5, CustomerSegmentationService.thresholdScore(5, thresholds));
+		assertEquals(5, CustomerSegmentationService.thresholdScore(100, thresholds));
+	}
+
+	@Test
+	void classifyAppliesTheRulesInOrder() {
+		assertEquals(CustomerSegmentType.PROSPECT, CustomerSegmentationService.classify(false, 1, 1, 1, 3));
+		assertEquals(CustomerSegmentType.INACTIVE, CustomerSegmentationService.classify(false, 1, 1, 1, 2));
+		assertEquals(CustomerSegmentType.CHAMPION, CustomerSegmentationService.classify(true, 4, 4, 1, 1));
+		assertEquals(CustomerSegmentType.LOYAL, CustomerSegmentationService.classify(true, 3, 3, 1, 1));
+		assertEquals(CustomerSegmentType.NEW_CUSTOMER, CustomerSegmentationService.classify(true, 5, 2, 5, 1));
+		assertEquals(CustomerSegmentType.POTENTIAL_LOYALIST, CustomerSegmentationService.classify(true, 3, 2, 1, 1));
+		assertEquals(CustomerSegmentType.AT_RISK, CustomerSegmentationService.classify(true, 2, 1, 4, 1));
+		assertEquals(CustomerSegmentType.HIBERNATING, CustomerSegmentationService.classify(true, 1, 2, 3, 5));
+	}
+
+	@Test
+	void saleChangesOutsidePurchaseStatusesAreIgnored() {
+		service.onSaleStatusChanged(new SaleStatusChangedEvent(1L, 42L, null, SaleStatus.INITIATED));
+		service.onSaleStatusChanged(new SaleStatusChangedEvent(1L, 42L, SaleStatus.INITIATED, SaleStatus.CANCELLED));
+
+		verifyNoInteractions(transactionManager, saleRepository, customerSegmentRepository);
+	}
+
+	@Test
+	void completedSaleRescoresTheCustomer() {
+		ReflectionTestUtils.setField(service, "entityManager", entityManager);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		LocalDate lastSale = LocalDate.now().minusDays(30);
+		when(saleRepository.findPurchaseTotalsForCustomers(EnumSet.of(SaleStatus.COMPLETED, SaleStatus.DELIVERED), List.of(42L)))
+				.thenReturn(List.<Object[]>of(new Object[] {42L, lastSale, 2L, new BigDecimal("3000000.00")}));
+		when(customerInteractionRepository.findInteractionTotalsForCustomers(List.of(42L)))
+				.thenReturn(List.<Object[]>of(new Object[] {42L, 2L, LocalDateTime.now().minusDays(3)}));
+		when(testDriveRepository.findTestDriveTotalsForCustomers(anyCollection(), any()))
+				.thenReturn(List.<Object[]>of(new Object[] {42L, 1L, LocalDateTime.now().minusDays(40)}));
+
+		service.onSaleStatusChanged(new SaleStatusChangedEvent(1L, 42L, SaleStatus.PENDING, SaleStatus.COMPLETED));
+
+		verify(customerSegmentRepository).deleteByCustomerIdIn(List.of(42L));
+		ArgumentCaptor<CustomerSegment> persisted = ArgumentCaptor.forClass(CustomerSegment.class);
+		verify(entityManager).persist(persisted.capture());
+		CustomerSegment segment = persisted.getValue();
+		assertEquals(42L, segment.getCustomerId());
+		assertEquals(lastSale, segment.getLastPurchaseDate());
+		assertEquals(5, segment.getRecencyScore());
+		assertEquals(3, segment.getFrequencyScore());
+		assertEquals(4, segment.getMonetaryScore());
+		// Two interactions and one test drive weighted twice
+		assertEquals(3, segment.getEngagementScore());
+		assertEquals(CustomerSegmentType.LOYAL, segment.getSegment());
+		verify(transactionManager).commit(any());
+		// A single customer is not a run, so the incremental watermark stays where it was
+		verifyNoInteractions(segmentationRunRepository);
+	}
+}
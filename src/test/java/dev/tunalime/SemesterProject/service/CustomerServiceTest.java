@@ -0,0 +1,52 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerCohort;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerSegmentType;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that segment and cohort listings are paged in customer ID order with a capped page size
+ */
+class CustomerServiceTest {
+
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final CustomerService service = new CustomerService(customerRepository);
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void cohortPagesAreSortedByIdAndCapped() {
+		ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+		when(customerRepository.findAll(any(Specification.class), pageable.capture())).thenReturn(Page.<Customer>empty());
+
+		service.getCustomerCohort(CustomerCohort.WITHOUT_PURCHASES, null, 2, 10_000);
+
+		assertEquals(2, pageable.getValue().getPageNumber());
+		assertEquals(100, pageable.getValue().getPageSize());
+		assertEquals(Sort.by("id"), pageable.getValue().getSort());
+	}
+
+	@Test
+	void segmentPagesAreSortedByIdAndNeverEmpty() {
+		ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+		when(customerRepository.findBySegment(eq(CustomerSegmentType.CHAMPION), pageable.capture())).thenReturn(Page.empty());
+
+		service.getCustomersBySegment(CustomerSegmentType.CHAMPION, -1, 0);
+
+		assertEquals(0, pageable.getValue().getPageNumber());
+		assertEquals(1, pageable.getValue().getPageSize());
+		assertEquals(Sort.by("id"), pageable.getValue().getSort());
+	}
+}
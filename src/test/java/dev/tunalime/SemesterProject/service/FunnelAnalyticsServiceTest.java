@@ -0,0 +1,120 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.FunnelStepDTO;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import dev.tunalime.SemesterProject.repository.SaleRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the customer-by-customer merge of the funnel streams and the median stage durations
+ */
+class FunnelAnalyticsServiceTest {
+
+	private static final LocalDate FROM = LocalDate.of(2025, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2025, 2, 1);
+
+	private final CustomerInteractionRepository customerInteractionRepository = mock(CustomerInteractionRepository.class);
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	private final SaleRepository saleRepository = mock(SaleRepository.class);
+	private final FunnelAnalyticsService service =
+			new FunnelAnalyticsService(customerInteractionRepository, testDriveRepository, saleRepository);
+
+	@BeforeEach
+	void stubStreams() {
+		// Rows are (customer ID, brand, model, time), ordered by customer and time as the queries return them
+		when(customerInteractionRepository.streamFunnelEvents(FROM.atStartOfDay(), TO.atStartOfDay()))
+				.thenAnswer(invocation -> Stream.of(
+						event(1, "Toyota", "Corolla", at(5, 10)),
+						event(1, "Toyota", "Corolla", at(6, 10)),
+						event(1, "Honda", "Civic", at(7, 10)),
+						event(2, "Toyota", "Corolla", at(10, 9)),
+						event(3, "Toyota", "Corolla", at(12, 12)),
+						event(5, "Honda", "Civic", at(20, 10))));
+		when(testDriveRepository.streamFunnelEvents(any(), any(), any()))
+				.thenAnswer(invocation -> Stream.of(
+						event(1, "Toyota", "Corolla", at(5, 12)),
+						// Before the customer's interaction, so it does not count
+						event(2, "Toyota", "Corolla", at(9, 15)),
+						event(2, "Toyota", "Corolla", at(10, 13)),
+						event(3, "Toyota", "Corolla", at(12, 21)),
+						// No interaction, so the customer never entered the funnel
+						event(4, "Honda", "Civic", at(15, 11))));
+		when(saleRepository.streamFunnelEvents(any(), any(), any()))
+				.thenAnswer(invocation -> Stream.of(
+						// Same day as the test drive
+						event(1, "Toyota", "Corolla", LocalDate.of(2025, 1, 5)),
+						// Another model than the one test driven
+						event(2, "Honda", "Civic", LocalDate.of(2025, 1, 20)),
+						event(3, "Toyota", "Corolla", LocalDate.of(2025, 1, 14)),
+						event(4, "Honda", "Civic", LocalDate.of(2025, 1, 16))));
+	}
+
+	@Test
+	void streamsAreMergedPerCustomerAndModel() {
+		List<FunnelStepDTO> funnel = service.getFunnel(FROM, TO, 30, null, null);
+
+		assertEquals(2, funnel.size());
+		FunnelStepDTO corolla = funnel.get(0);
+		assertEquals("Corolla", corolla.getModel());
+		assertEquals(3, corolla.getInterested());
+		assertEquals(3, corolla.getTestDriven());
+		assertEquals(2, corolla.getPurchased());
+		assertEquals(1.0, corolla.getInteractionToTestDriveRate());
+		assertEquals(2.0 / 3, corolla.getTestDriveToSaleRate(), 1e-9);
+		assertEquals(2.0 / 3, corolla.getOverallConversionRate(), 1e-9);
+
+		FunnelStepDTO civic = funnel.get(1);
+		assertEquals("Honda", civic.getBrand());
+		assertEquals(2, civic.getInterested());
+		assertEquals(0, civic.getTestDriven());
+		assertEquals(0.0, civic.getInteractionToTestDriveRate());
+		assertNull(civic.getMedianHoursToTestDrive());
+		assertNull(civic.getMedianHoursToSale());
+	}
+
+	@Test
+	void mediansUseTheMiddleValueOrTheMeanOfTheTwoMiddleValues() {
+		FunnelStepDTO corolla = service.getFunnel(FROM, TO, 30, null, null).get(0);
+
+		// Test drives 2, 4 and 9 hours after the first interaction
+		assertEquals(4.0, corolla.getMedianHoursToTestDrive());
+		// Sales 0 (same day) and 27 hours after the test drive
+		assertEquals(13.5, corolla.getMedianHoursToSale());
+	}
+
+	@Test
+	void brandFilterIgnoresCaseAndSpaces() {
+		List<FunnelStepDTO> funnel = service.getFunnel(FROM, TO, 30, " toyota ", null);
+
+		assertEquals(1, funnel.size());
+		assertEquals("Toyota", funnel.get(0).getBrand());
+		assertEquals(0, service.getFunnel(FROM, TO, 30, "Toyota", "Yaris").size());
+	}
+
+	@Test
+	void emptyWindowIsRejected() {
+		assertThrows(IllegalArgumentException.class, () -> service.getFunnel(TO, TO, 30, null, null));
+	}
+
+	private static LocalDateTime at(int dayOfJanuary, int hour) {
+		return LocalDateTime.of(2025, 1, dayOfJanuary, hour, 0);
+	}
+
+	private static Object[] event(long customerId, String brand, String model, Object time) {
+		return new Object[] {customerId, brand, model, time};
+	}
+}
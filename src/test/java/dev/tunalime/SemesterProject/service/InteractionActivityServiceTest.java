@@ -0,0 +1,131 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.ActivityGranularity;
+import dev.tunalime.SemesterProject.dto.InteractionActivityDTO;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the counter rings roll over, also under concurrent writes, ignore stale buckets and include archived interactions after a rebuild
+ */
+class InteractionActivityServiceTest {
+
+	private static final LocalDateTime DAY_0 = LocalDateTime.of(2025, 3, 10, 9, 15);
+
+	private final CustomerInteractionRepository customerInteractionRepository = mock(CustomerInteractionRepository.class);
+	private final InteractionArchiveStore interactionArchiveStore = mock(InteractionArchiveStore.class);
+
+	// Three buckets per ring, so a rollover happens on the fourth day
+	private final InteractionActivityService service =
+			new InteractionActivityService(customerInteractionRepository, interactionArchiveStore, 3, 3, 3);
+
+	@Test
+	void dayRingReusesTheOldestSlot() {
+		service.record(DAY_0, InteractionType.VISIT);
+		service.record(DAY_0.plusDays(1), InteractionType.VISIT);
+		service.record(DAY_0.plusDays(2), InteractionType.INQUIRY);
+		service.record(DAY_0.plusDays(3), InteractionType.INQUIRY);
+		service.record(DAY_0.plusDays(3), InteractionType.VISIT);
+
+		List<InteractionActivityDTO> activity = service.getActivity(DAY_0.plusDays(1), DAY_0.plusDays(3), ActivityGranularity.DAY);
+
+		assertEquals(List.of(1L, 1L, 2L), activity.stream().map(InteractionActivityDTO::getTotal).toList());
+		InteractionActivityDTO lastDay = activity.get(2);
+		assertEquals(DAY_0.toLocalDate().plusDays(3).atStartOfDay(), lastDay.getBucketStart());
+		assertEquals(1L, lastDay.getCountsByType().get(InteractionType.VISIT));
+		assertEquals(1L, lastDay.getCountsByType().get(InteractionType.INQUIRY));
+	}
+
+	@Test
+	void countsForABucketOlderThanTheSlotAreIgnored() {
+		service.record(DAY_0.plusDays(3), InteractionType.VISIT);
+		// Same slot as the newer day
+		service.record(DAY_0, InteractionType.VISIT);
+
+		assertEquals(1L, service.getActivity(DAY_0.plusDays(3), DAY_0.plusDays(3), ActivityGranularity.DAY).get(0).getTotal());
+		assertEquals(0L, service.getActivity(DAY_0, DAY_0, ActivityGranularity.DAY).get(0).getTotal());
+		// The all-time totals still count it
+		assertEquals(2L, service.getTotalsByType().get(InteractionType.VISIT));
+	}
+
+	@Test
+	void rangeIsClampedToTheRingSize() {
+		service.record(DAY_0, InteractionType.FOLLOW_UP);
+		service.record(DAY_0.plusMinutes(30), InteractionType.FOLLOW_UP);
+
+		List<InteractionActivityDTO> activity = service.getActivity(DAY_0.minusDays(30), DAY_0, ActivityGranularity.HOUR);
+
+		assertEquals(3, activity.size());
+		assertEquals(DAY_0.minusHours(2).withMinute(0), activity.get(0).getBucketStart());
+		assertEquals(2L, activity.get(2).getTotal());
+		assertThrows(IllegalArgumentException.class,
+				() -> service.getActivity(DAY_0, DAY_0.minusDays(1), ActivityGranularity.DAY));
+	}
+
+	@Test
+	void writesForTheOldBucketNeverLandInTheNewOne() throws Exception {
+		// One bucket per ring, so every new day rolls the only slot over while the previous day is still being written
+		InteractionActivityService single =
+				new InteractionActivityService(customerInteractionRepository, interactionArchiveStore, 1, 1, 1);
+		int writes = 500;
+		CyclicBarrier start = new CyclicBarrier(2);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			for (int day = 0; day < 100; day++) {
+				LocalDateTime oldDay = DAY_0.plusDays(day);
+				LocalDateTime newDay = oldDay.plusDays(1);
+				Future<?> oldWriter = executor.submit(() -> recordConcurrently(single, start, oldDay, writes));
+				Future<?> newWriter = executor.submit(() -> recordConcurrently(single, start, newDay, writes));
+				oldWriter.get();
+				newWriter.get();
+
+				assertEquals(writes, single.getActivity(newDay, newDay, ActivityGranularity.DAY).get(0).getTotal());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void rebuildAddsArchivedCountsInsideTheWindow() {
+		long today = LocalDate.now().toEpochDay();
+		long[] recent = new long[InteractionType.values().length];
+		recent[InteractionType.PURCHASE.ordinal()] = 4;
+		long[] old = new long[InteractionType.values().length];
+		old[InteractionType.PURCHASE.ordinal()] = 6;
+		TreeMap<Long, long[]> archived = new TreeMap<>();
+		archived.put(today - 1, recent);
+		archived.put(today - 400, old);
+		when(interactionArchiveStore.countByDayAndType()).thenReturn(archived);
+
+		service.rebuild();
+
+		LocalDateTime yesterday = LocalDate.ofEpochDay(today - 1).atStartOfDay();
+		assertEquals(4L, service.getActivity(yesterday, yesterday, ActivityGranularity.DAY).get(0).getTotal());
+		assertEquals(10L, service.getTotalsByType().get(InteractionType.PURCHASE));
+	}
+
+	private static Void recordConcurrently(InteractionActivityService service, CyclicBarrier start,
+										   LocalDateTime interactionDate, int writes) throws Exception {
+		start.await();
+		for (int i = 0; i < writes; i++) {
+			service.record(interactionDate, InteractionType.VISIT);
+		}
+		return null;
+	}
+}
@@ -0,0 +1,112 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.service.InteractionArchiveStore.ArchivedInteraction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that archived interactions read back unchanged, also after reopening, and that a merge moves the rows without changing the daily counts
+ */
+class InteractionArchiveStoreTest {
+
+	private static final LocalDateTime MORNING = LocalDateTime.of(2023, 6, 1, 9, 30, 15, 123_000_000);
+
+	@TempDir
+	Path directory;
+
+	private final List<ArchivedInteraction> rows = List.of(
+			new ArchivedInteraction(11L, 3L, MORNING, InteractionType.INQUIRY, 7L),
+			new ArchivedInteraction(12L, 3L, MORNING.plusDays(1), InteractionType.VISIT, null),
+			new ArchivedInteraction(21L, 5L, MORNING, InteractionType.INQUIRY, 8L),
+			new ArchivedInteraction(31L, 9L, MORNING.plusHours(2), InteractionType.PURCHASE, 8L));
+
+	@Test
+	void writtenRowsReadBackPerCustomer() {
+		InteractionArchiveStore store = new InteractionArchiveStore(directory.toString());
+
+		assertEquals(4, store.writeSegment(rows));
+
+		assertEquals(rows.subList(0, 2), sorted(store.findByCustomerId(3L)));
+		assertEquals(List.of(rows.get(3)), store.findByCustomerId(9L));
+		assertTrue(store.findByCustomerId(4L).isEmpty());
+		assertEquals(1, store.getSegmentCount());
+	}
+
+	@Test
+	void segmentsAreReopenedFromDisk() {
+		new InteractionArchiveStore(directory.toString()).writeSegment(rows);
+
+		InteractionArchiveStore reopened = new InteractionArchiveStore(directory.toString());
+
+		assertEquals(1, reopened.getSegmentCount());
+		assertEquals(List.of(rows.get(2)), reopened.findByCustomerId(5L));
+		SortedMap<Long, long[]> counts = reopened.countByDayAndType();
+		long firstDay = LocalDate.of(2023, 6, 1).toEpochDay();
+		assertEquals(List.of(firstDay, firstDay + 1), List.copyOf(counts.keySet()));
+		assertEquals(2, counts.get(firstDay)[InteractionType.INQUIRY.ordinal()]);
+		assertEquals(1, counts.get(firstDay)[InteractionType.PURCHASE.ordinal()]);
+		assertEquals(1, counts.get(firstDay + 1)[InteractionType.VISIT.ordinal()]);
+	}
+
+	@Test
+	void reassignedRowsMoveWithoutChangingTheCounts() {
+		InteractionArchiveStore store = new InteractionArchiveStore(directory.toString());
+		store.writeSegment(rows);
+		SortedMap<Long, long[]> before = store.countByDayAndType();
+
+		assertEquals(2, store.reassignCustomer(3L, 5L));
+
+		List<ArchivedInteraction> merged = sorted(store.findByCustomerId(5L));
+		assertEquals(List.of(11L, 12L, 21L), merged.stream().map(ArchivedInteraction::id).toList());
+		assertEquals(5L, merged.get(0).customerId());
+		assertEquals(MORNING, merged.get(0).interactionDate());
+		assertEquals(2, store.getSegmentCount());
+		assertTrue(store.findByCustomerId(3L).isEmpty());
+
+		InteractionArchiveStore reopened = new InteractionArchiveStore(directory.toString());
+		assertTrue(reopened.findByCustomerId(3L).isEmpty());
+		assertEquals(3, reopened.findByCustomerId(5L).size());
+		SortedMap<Long, long[]> after = reopened.countByDayAndType();
+		assertEquals(before.keySet(), after.keySet());
+		before.forEach((day, counts) -> assertArrayEquals(counts, after.get(day)));
+	}
+
+	@Test
+	void chainedMergesLeaveOnlyTheLastCustomer() {
+		InteractionArchiveStore store = new InteractionArchiveStore(directory.toString());
+		store.writeSegment(rows);
+
+		store.reassignCustomer(3L, 5L);
+		assertEquals(3, store.reassignCustomer(5L, 9L));
+
+		assertTrue(store.findByCustomerId(3L).isEmpty());
+		assertTrue(store.findByCustomerId(5L).isEmpty());
+		assertEquals(List.of(11L, 12L, 21L, 31L), sorted(store.findByCustomerId(9L)).stream().map(ArchivedInteraction::id).toList());
+	}
+
+	@Test
+	void emptyWritesCreateNoSegment() {
+		InteractionArchiveStore store = new InteractionArchiveStore(directory.toString());
+
+		assertEquals(0, store.writeSegment(List.of()));
+		assertEquals(0, store.reassignCustomer(3L, 5L));
+		assertEquals(0, store.getSegmentCount());
+		assertTrue(store.countByDayAndType().isEmpty());
+	}
+
+	private static List<ArchivedInteraction> sorted(List<ArchivedInteraction> rows) {
+		return rows.stream().sorted(Comparator.comparingLong(ArchivedInteraction::id)).toList();
+	}
+}
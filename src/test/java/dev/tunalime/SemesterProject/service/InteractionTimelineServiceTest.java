@@ -0,0 +1,113 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.CustomerInteractionDTO;
+import dev.tunalime.SemesterProject.dto.InteractionTimelinePageDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.CustomerInteraction;
+import dev.tunalime.SemesterProject.entity.InteractionType;
+import dev.tunalime.SemesterProject.repository.CustomerInteractionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that the keyset cursor points at the last row shown and that page boundaries are detected
+ */
+class InteractionTimelineServiceTest {
+
+	private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+	// Whole minute, so the cursor holds the shortest date format
+	private static final LocalDateTime SAME_MINUTE = LocalDateTime.of(2025, 3, 10, 9, 15);
+
+	private final CustomerInteractionRepository customerInteractionRepository = mock(CustomerInteractionRepository.class);
+	private final InteractionTimelineService service =
+			new InteractionTimelineService(customerInteractionRepository, mock(VehicleService.class));
+
+	@Test
+	void extraRowStartsTheNextPageAfterTheLastRowShown() {
+		// The last two rows share a timestamp, so the next page has to continue by ID
+		when(customerInteractionRepository.findTimelinePage(7L, FIRST_PAGE_DATE, Long.MAX_VALUE, PageRequest.of(0, 3)))
+				.thenReturn(List.of(
+						interaction(30L, SAME_MINUTE.plusHours(1)),
+						interaction(29L, SAME_MINUTE),
+						interaction(25L, SAME_MINUTE)));
+
+		InteractionTimelinePageDTO first = service.getTimelinePage(7L, null, 2, null);
+
+		assertTrue(first.isHasMore());
+		assertEquals(List.of(30L, 29L), first.getInteractions().stream().map(CustomerInteractionDTO::getId).toList());
+		assertEquals(SAME_MINUTE + "|29", new String(Base64.getUrlDecoder().decode(first.getNextCursor()), StandardCharsets.UTF_8));
+		assertFalse(first.getNextCursor().contains("="));
+
+		when(customerInteractionRepository.findTimelinePage(7L, SAME_MINUTE, 29L, PageRequest.of(0, 3)))
+				.thenReturn(List.of(interaction(25L, SAME_MINUTE)));
+
+		InteractionTimelinePageDTO second = service.getTimelinePage(7L, first.getNextCursor(), 2, Set.of());
+
+		assertFalse(second.isHasMore());
+		assertNull(second.getNextCursor());
+		assertEquals(25L, second.getInteractions().get(0).getId());
+	}
+
+	@Test
+	void fullLastPageHasNoCursor() {
+		when(customerInteractionRepository.findTimelinePageByTypes(7L, FIRST_PAGE_DATE, Long.MAX_VALUE,
+				Set.of(InteractionType.VISIT), PageRequest.of(0, 3)))
+				.thenReturn(List.of(interaction(30L, SAME_MINUTE), interaction(29L, SAME_MINUTE)));
+
+		InteractionTimelinePageDTO page = service.getTimelinePage(7L, null, 2, Set.of(InteractionType.VISIT));
+
+		assertEquals(2, page.getInteractions().size());
+		assertFalse(page.isHasMore());
+		assertNull(page.getNextCursor());
+	}
+
+	@Test
+	void pageSizeIsCapped() {
+		service.getTimelinePage(7L, "", 500, null);
+
+		verify(customerInteractionRepository).findTimelinePage(7L, FIRST_PAGE_DATE, Long.MAX_VALUE, PageRequest.of(0, 101));
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		String notADate = Base64.getUrlEncoder().encodeToString("yesterday|12".getBytes(StandardCharsets.UTF_8));
+		String noId = Base64.getUrlEncoder().encodeToString(SAME_MINUTE.toString().getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(IllegalArgumentException.class, () -> service.getTimelinePage(7L, "not base64!", 2, null));
+		assertThrows(IllegalArgumentException.class, () -> service.getTimelinePage(7L, notADate, 2, null));
+		assertThrows(IllegalArgumentException.class, () -> service.getTimelinePage(7L, noId, 2, null));
+		verify(customerInteractionRepository, never())
+				.findTimelinePage(any(), any(), anyLong(), any());
+	}
+
+	private static CustomerInteraction interaction(Long id, LocalDateTime interactionDate) {
+		Customer customer = new Customer();
+		customer.setId(7L);
+		customer.setFirstName("Elif");
+		customer.setLastName("Şahin");
+		CustomerInteraction interaction = new CustomerInteraction();
+		interaction.setId(id);
+		interaction.setCustomer(customer);
+		interaction.setInteractionDate(interactionDate);
+		interaction.setType(InteractionType.VISIT);
+		return interaction;
+	}
+}
@@ -0,0 +1,130 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.StaffWorkloadDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.entity.TestDrive;
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the least-loaded pick among qualified, free staff members and rebalancing on test drive changes
+ */
+class StaffAssignmentServiceTest {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	private final TestDriveSchedulingEngine schedulingEngine = new TestDriveSchedulingEngine(testDriveRepository, 30, 9, 19);
+	private final StaffAssignmentService service = new StaffAssignmentService(testDriveRepository, schedulingEngine,
+			"Ayşe:Toyota|Honda, Mert:Toyota, Deniz");
+
+	@BeforeEach
+	void stubDay() {
+		when(testDriveRepository.findInRangeWithDetails(eq(DAY.atStartOfDay()), eq(DAY.plusDays(1).atStartOfDay()), any()))
+				.thenReturn(List.of(
+						testDrive(1L, "Ayşe", 60),
+						// 75 minutes round up to 90
+						testDrive(2L, "Deniz", 75),
+						testDrive(3L, "Visitor", 30)));
+	}
+
+	@Test
+	void leastLoadedQualifiedMemberIsPicked() {
+		assertEquals("Mert", service.pickStaffMember("Toyota", DAY.atTime(14, 0), 30));
+		// Brands are matched ignoring case; Mert only presents Toyota
+		assertEquals("Ayşe", service.pickStaffMember("honda", DAY.atTime(14, 0), 30));
+		assertEquals("Deniz", service.pickStaffMember("BMW", DAY.atTime(14, 0), 30));
+		assertEquals("Deniz", service.pickStaffMember(null, DAY.atTime(14, 0), 30));
+	}
+
+	@Test
+	void busyMembersAreSkipped() {
+		schedulingEngine.reserve(10L, 10L, "mert", DAY.atTime(14, 0), 60);
+
+		assertEquals("Ayşe", service.pickStaffMember("Toyota", DAY.atTime(14, 30), 30));
+		assertEquals("Mert", service.pickStaffMember("Toyota", DAY.atTime(15, 0), 30));
+
+		// Deniz presents every brand, so is picked once both Toyota staff are busy
+		schedulingEngine.reserve(11L, 11L, "Ayşe", DAY.atTime(14, 0), 60);
+		assertEquals("Deniz", service.pickStaffMember("Toyota", DAY.atTime(14, 30), 30));
+
+		schedulingEngine.reserve(12L, 12L, "Deniz", DAY.atTime(14, 0), 60);
+		assertNull(service.pickStaffMember("Toyota", DAY.atTime(14, 30), 30));
+	}
+
+	@Test
+	void changeEventsRebalanceTheDay() {
+		assertEquals("Mert", service.pickStaffMember("Toyota", DAY.atTime(14, 0), 30));
+
+		// A new two-hour test drive for Mert makes Ayşe the least loaded
+		TestDriveDTO scheduled = testDriveDTO(4L, "Mert", 120, TestDriveStatus.SCHEDULED);
+		service.onTestDriveChanged(new TestDriveChangedEvent(null, scheduled));
+		assertEquals("Ayşe", service.pickStaffMember("Toyota", DAY.atTime(14, 0), 30));
+
+		// Reassigning Ayşe's test drive moves its hour to Mert
+		service.onTestDriveChanged(new TestDriveChangedEvent(
+				testDriveDTO(1L, "Ayşe", 60, TestDriveStatus.SCHEDULED),
+				testDriveDTO(1L, "Mert", 60, TestDriveStatus.SCHEDULED)));
+
+		List<StaffWorkloadDTO> workload = service.getWorkload(DAY);
+		assertEquals(List.of("Ayşe", "Visitor", "Deniz", "Mert"),
+				workload.stream().map(StaffWorkloadDTO::getStaffMemberName).toList());
+		assertEquals(List.of(0L, 30L, 90L, 180L), workload.stream().map(StaffWorkloadDTO::getBookedMinutes).toList());
+		assertEquals(2, workload.get(3).getTestDrives());
+		assertEquals(List.of("Honda", "Toyota"), workload.get(0).getBrands());
+		assertFalse(workload.get(1).isOnRoster());
+		assertTrue(workload.get(2).getBrands().isEmpty());
+
+		// Cancelling releases the minutes
+		service.onTestDriveChanged(new TestDriveChangedEvent(scheduled, testDriveDTO(4L, "Mert", 120, TestDriveStatus.CANCELLED)));
+		assertEquals(60L, service.getWorkload(DAY).get(2).getBookedMinutes());
+		assertEquals("Mert", service.getWorkload(DAY).get(2).getStaffMemberName());
+	}
+
+	@Test
+	void eventsForDaysNotLoadedAreLeftToTheDatabase() {
+		service.onTestDriveChanged(new TestDriveChangedEvent(null, testDriveDTO(4L, "Mert", 120, TestDriveStatus.SCHEDULED)));
+
+		// The day is loaded from the database afterwards, which already holds the change
+		assertEquals(0L, service.getWorkload(DAY).get(0).getBookedMinutes());
+		service.getWorkload(DAY);
+		verify(testDriveRepository, times(1)).findInRangeWithDetails(any(), any(), any());
+	}
+
+	private static TestDrive testDrive(Long id, String staffMemberName, int durationMinutes) {
+		TestDrive testDrive = new TestDrive();
+		testDrive.setId(id);
+		testDrive.setScheduledDateTime(DAY.atTime(10, 0));
+		testDrive.setDurationMinutes(durationMinutes);
+		testDrive.setStatus(TestDriveStatus.SCHEDULED);
+		testDrive.setStaffMemberName(staffMemberName);
+		return testDrive;
+	}
+
+	private static TestDriveDTO testDriveDTO(Long id, String staffMemberName, int durationMinutes, TestDriveStatus status) {
+		TestDriveDTO testDrive = new TestDriveDTO();
+		testDrive.setId(id);
+		testDrive.setScheduledDateTime(DAY.atTime(16, 0));
+		testDrive.setDurationMinutes(durationMinutes);
+		testDrive.setStatus(status);
+		testDrive.setStaffMemberName(staffMemberName);
+		return testDrive;
+	}
+}
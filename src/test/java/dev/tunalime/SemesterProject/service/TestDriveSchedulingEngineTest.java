@@ -0,0 +1,104 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.entity.TestDriveStatus;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the overlap and opening-hours rules of the scheduling engine
+ */
+class TestDriveSchedulingEngineTest {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	// 30-minute slots, open from 9:00 to 19:00
+	private final TestDriveSchedulingEngine engine = new TestDriveSchedulingEngine(testDriveRepository, 30, 9, 19);
+
+	@Test
+	void overlappingBookingsOfAnyResourceAreRejected() {
+		engine.reserve(1L, 1L, "Ayşe Demir", DAY.atTime(10, 0), 60);
+
+		IllegalStateException vehicle = assertThrows(IllegalStateException.class,
+				() -> engine.reserve(1L, 2L, null, DAY.atTime(10, 30), 30));
+		assertTrue(vehicle.getMessage().startsWith("Vehicle with ID: 1"));
+		IllegalStateException customer = assertThrows(IllegalStateException.class,
+				() -> engine.reserve(2L, 1L, null, DAY.atTime(9, 30), 60));
+		assertTrue(customer.getMessage().startsWith("Customer with ID: 1"));
+		// Staff names are matched ignoring case and surrounding spaces
+		IllegalStateException staff = assertThrows(IllegalStateException.class,
+				() -> engine.reserve(2L, 2L, " ayşe demir ", DAY.atTime(10, 45), 15));
+		assertTrue(staff.getMessage().startsWith("Staff member"));
+	}
+
+	@Test
+	void adjacentBookingsDoNotOverlap() {
+		engine.reserve(1L, 1L, "Ayşe Demir", DAY.atTime(10, 0), 60);
+
+		engine.reserve(1L, 1L, "Ayşe Demir", DAY.atTime(9, 30), 30);
+		engine.reserve(1L, 1L, "Ayşe Demir", DAY.atTime(11, 0), 30);
+
+		// The search skips straight past the booked 9:30 to 11:30 block
+		assertEquals(List.of(DAY.atTime(9, 0), DAY.atTime(11, 30), DAY.atTime(12, 0)),
+				engine.findAvailableSlots(1L, null, null, DAY.atTime(8, 0), 30, 3));
+	}
+
+	@Test
+	void mergedCustomerBookingsMoveToTheTarget() {
+		engine.reserve(1L, 2L, null, DAY.atTime(10, 0), 60);
+
+		assertEquals(1, engine.reassignCustomer(2L, 1L));
+
+		IllegalStateException customer = assertThrows(IllegalStateException.class,
+				() -> engine.reserve(2L, 1L, null, DAY.atTime(10, 30), 30));
+		assertTrue(customer.getMessage().startsWith("Customer with ID: 1"));
+		// Nothing is left under the deleted customer
+		assertEquals(0, engine.reassignCustomer(2L, 3L));
+		engine.reserve(3L, 2L, null, DAY.atTime(10, 0), 60);
+	}
+
+	@Test
+	void bookingsOutsideOpeningHoursAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> engine.reserve(1L, 1L, null, DAY.atTime(8, 30), 30));
+		// 45 minutes round up to one hour, which ends after closing time
+		assertThrows(IllegalArgumentException.class, () -> engine.reserve(1L, 1L, null, DAY.atTime(18, 30), 45));
+
+		TestDriveSchedulingEngine.Booking lastSlot = engine.reserve(1L, 1L, null, DAY.atTime(18, 30), 30);
+		assertEquals(DAY.atTime(19, 0), lastSlot.getEnd());
+	}
+
+	@Test
+	void unchangedTimeOfAnOutOfHoursBookingCanBeRescheduled() {
+		// Booked when the showroom still closed at 20:00
+		when(testDriveRepository.findBookingsFrom(eq(TestDriveStatus.SCHEDULED), any(LocalDateTime.class)))
+				.thenReturn(List.<Object[]>of(new Object[] {100L, 1L, 1L, "Ayşe Demir", DAY.atTime(19, 0), 30}));
+		engine.loadBookings();
+		assertFalse(engine.isStaffFree("Ayşe Demir", DAY.atTime(19, 0), 30));
+
+		// Only the staff member changes
+		engine.reschedule(100L, 1L, 1L, "Mert Kaya", DAY.atTime(19, 0), 30, false);
+		assertTrue(engine.isStaffFree("Ayşe Demir", DAY.atTime(19, 0), 30));
+		assertFalse(engine.isStaffFree("Mert Kaya", DAY.atTime(19, 0), 30));
+
+		// A changed time is checked, and the previous booking is kept when it fails
+		assertThrows(IllegalArgumentException.class,
+				() -> engine.reschedule(100L, 1L, 1L, "Mert Kaya", DAY.atTime(19, 30), 30, true));
+		assertFalse(engine.isStaffFree("Mert Kaya", DAY.atTime(19, 0), 30));
+
+		engine.release(100L);
+		assertTrue(engine.isStaffFree("Mert Kaya", DAY.atTime(19, 0), 30));
+	}
+}
@@ -0,0 +1,116 @@
+package dev.tunalime.SemesterProject.service;
+
+import dev.tunalime.SemesterProject.dto.BulkScheduleResultDTO;
+import dev.tunalime.SemesterProject.dto.StaffWorkloadDTO;
+import dev.tunalime.SemesterProject.dto.TestDriveDTO;
+import dev.tunalime.SemesterProject.entity.Customer;
+import dev.tunalime.SemesterProject.entity.TestDrive;
+import dev.tunalime.SemesterProject.entity.Vehicle;
+import dev.tunalime.SemesterProject.event.TestDriveChangedEvent;
+import dev.tunalime.SemesterProject.repository.CustomerRepository;
+import dev.tunalime.SemesterProject.repository.TestDriveRepository;
+import dev.tunalime.SemesterProject.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that a bulk request spreads automatically assigned test drives across the staff
+ */
+class TestDriveServiceTest {
+
+	private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+	private final TestDriveRepository testDriveRepository = mock(TestDriveRepository.class);
+	private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+	private final VehicleRepository vehicleRepository = mock(VehicleRepository.class);
+	private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+	private final TestDriveSchedulingEngine schedulingEngine = new TestDriveSchedulingEngine(testDriveRepository, 30, 9, 19);
+	private final StaffAssignmentService staffAssignmentService = new StaffAssignmentService(testDriveRepository,
+			schedulingEngine, "Ayşe, Mert, Deniz:Honda");
+
+	// Delivers change events the way the listener does when there is no surrounding transaction
+	private final ApplicationEventPublisher eventPublisher = event -> {
+		if (event instanceof TestDriveChangedEvent changed) {
+			staffAssignmentService.onTestDriveChanged(changed);
+		}
+	};
+
+	private final TestDriveService service = new TestDriveService(testDriveRepository, customerRepository,
+			vehicleRepository, schedulingEngine, staffAssignmentService, eventPublisher,
+			new TransactionTemplate(transactionManager), mock(VehicleService.class));
+
+	@BeforeEach
+	void stubRepositories() {
+		Customer customer = new Customer();
+		customer.setId(1L);
+		customer.setFirstName("Elif");
+		customer.setLastName("Şahin");
+		Vehicle vehicle = new Vehicle();
+		vehicle.setId(5L);
+		vehicle.setBrand("Toyota");
+		vehicle.setAvailableForTestDrive(true);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		when(customerRepository.findAllById(any())).thenReturn(List.of(customer));
+		when(vehicleRepository.findAllById(any())).thenReturn(List.of(vehicle));
+	}
+
+	@Test
+	void bulkAssignmentsAreSpreadAcrossStaff() {
+		AtomicLong ids = new AtomicLong(100);
+		when(testDriveRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<TestDrive> testDrives = invocation.getArgument(0);
+			testDrives.forEach(testDrive -> testDrive.setId(ids.incrementAndGet()));
+			return testDrives;
+		});
+
+		List<BulkScheduleResultDTO> results = service.scheduleTestDrives(
+				List.of(request(10), request(12), request(14), request(16)));
+
+		// Only Ayşe and Mert present Toyota; the slots do not overlap, so only the load decides
+		assertEquals(List.of("Ayşe", "Mert", "Ayşe", "Mert"), results.stream()
+				.map(result -> result.getTestDrive().getStaffMemberName())
+				.toList());
+		// The saved test drives replace the holds, so nothing is counted twice
+		assertEquals(List.of(120L, 120L), staffAssignmentService.getWorkload(DAY).stream()
+				.filter(StaffWorkloadDTO::isOnRoster)
+				.filter(workload -> !workload.getStaffMemberName().equals("Deniz"))
+				.map(StaffWorkloadDTO::getBookedMinutes)
+				.toList());
+	}
+
+	@Test
+	void failedSaveReleasesTheHolds() {
+		when(testDriveRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+		List<BulkScheduleResultDTO> results = service.scheduleTestDrives(List.of(request(10), request(12)));
+
+		assertFalse(results.get(0).isScheduled());
+		assertTrue(staffAssignmentService.getWorkload(DAY).stream().allMatch(workload -> workload.getBookedMinutes() == 0));
+		assertTrue(schedulingEngine.isStaffFree("Ayşe", DAY.atTime(10, 0), 60));
+	}
+
+	private static TestDriveDTO request(int hour) {
+		TestDriveDTO testDrive = new TestDriveDTO();
+		testDrive.setCustomerId(1L);
+		testDrive.setVehicleId(5L);
+		testDrive.setScheduledDateTime(DAY.atTime(hour, 0));
+		testDrive.setDurationMinutes(60);
+		return testDrive;
+	}
+}